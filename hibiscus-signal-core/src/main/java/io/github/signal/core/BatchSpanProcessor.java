@@ -0,0 +1,134 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.SignalContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands completed traces to a {@link SpanExporter} in batches on a background thread.
+ * Purpose:
+ * - {@link #onEnd} only offers the trace to a bounded queue; when the queue is full the trace is dropped
+ *   instead of blocking or growing, so a slow backend never slows down emits.
+ * - The export thread sends a batch once {@code batchSize} traces are queued or every {@code intervalMs}.
+ * - {@link #shutdown()} exports the traces still queued.
+ */
+public class BatchSpanProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchSpanProcessor.class);
+
+    private final SpanExporter exporter;
+    private final int batchSize;
+    private final long intervalMs;
+    private final BlockingQueue<SignalContext> queue;
+    private final Thread worker;
+
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running = true;
+
+    /**
+     * @param exporter      the exporter
+     * @param queueCapacity maximum number of traces waiting for export
+     * @param batchSize     maximum number of traces per export
+     * @param intervalMs    maximum time a trace waits before its batch is exported
+     */
+    public BatchSpanProcessor(SpanExporter exporter, int queueCapacity, int batchSize, long intervalMs) {
+        if (queueCapacity <= 0 || batchSize <= 0 || intervalMs <= 0) {
+            throw new IllegalArgumentException("Queue capacity, batch size and interval must be positive");
+        }
+        this.exporter = exporter;
+        this.batchSize = batchSize;
+        this.intervalMs = intervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = new Thread(this::run, "signal-span-export");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues a completed trace for export.
+     */
+    public void onEnd(SignalContext context) {
+        if (!running || !queue.offer(context)) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        List<SignalContext> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    SignalContext context = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (context == null) {
+                        break;
+                    }
+                    batch.add(context);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // shutdown: export what is queued below, then stop
+                running = false;
+                queue.drainTo(batch);
+            }
+            export(batch);
+        }
+    }
+
+    private void export(List<SignalContext> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            exporter.export(batch);
+            exported.add(batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.warn("Failed to export {} traces: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Returns the number of exported, dropped (queue full) and failed traces and the queue size.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueSize", queue.size());
+        stats.put("exportedCount", exported.sum());
+        stats.put("droppedCount", dropped.sum());
+        stats.put("failedCount", failed.sum());
+        return stats;
+    }
+
+    /**
+     * Exports the queued traces and stops the export thread.
+     */
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exporter.shutdown();
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.signal.core;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * A concurrent map bounded by an approximate LRU (second chance) policy.
+ * Purpose:
+ * - Reads are a {@link ConcurrentHashMap} lookup plus a reference bit that is already set for hot entries,
+ *   so the emit path takes no lock.
+ * - When an insert finds the map full, one sweep evicts the entries not read since the previous sweep and
+ *   clears the bit of the others, down to three quarters of the capacity. Hot entries survive and a full
+ *   cache is swept once per {@code maxSize / 4} inserts instead of being wiped on every insert.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class BoundedCache<K, V> {
+
+    private final int maxSize;
+
+    private final Map<K, Node<V>> map = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    BoundedCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    V get(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    void put(K key, V value) {
+        if (map.size() >= maxSize && !map.containsKey(key)) {
+            evict();
+        }
+        map.put(key, new Node<>(value));
+    }
+
+    V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        if (map.size() >= maxSize) {
+            evict();
+        }
+        return map.computeIfAbsent(key, k -> new Node<>(mapping.apply(k))).value;
+    }
+
+    void remove(K key) {
+        map.remove(key);
+    }
+
+    /**
+     * Removes the entry only if it still maps to the given value (compared by identity).
+     */
+    boolean remove(K key, V value) {
+        Node<V> node = map.get(key);
+        return node != null && node.value == value && map.remove(key, node);
+    }
+
+    /**
+     * Removes the entries matching the predicate, skipping entries replaced while iterating.
+     *
+     * @return the number of entries removed
+     */
+    int removeIf(BiPredicate<? super K, ? super V> filter) {
+        int removed = 0;
+        for (Map.Entry<K, Node<V>> entry : map.entrySet()) {
+            Node<V> node = entry.getValue();
+            if (filter.test(entry.getKey(), node.value) && map.remove(entry.getKey(), node)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    void clear() {
+        map.clear();
+    }
+
+    int size() {
+        return map.size();
+    }
+
+    boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        map.forEach((key, node) -> action.accept(key, node.value));
+    }
+
+    /**
+     * Number of entries removed by size sweeps since the cache was created.
+     */
+    long evictionCount() {
+        return evictions.get();
+    }
+
+    private synchronized void evict() {
+        int target = maxSize - maxSize / 4;
+        int before = map.size();
+        if (before < maxSize) {
+            return;
+        }
+        // 第一轮：移除上次清理后未被读取的条目，其余条目清除引用位
+        Iterator<Node<V>> it = map.values().iterator();
+        while (it.hasNext()) {
+            Node<V> node = it.next();
+            if (node.referenced) {
+                node.referenced = false;
+            } else {
+                it.remove();
+            }
+        }
+        // 第二轮：所有条目都在使用时仍需腾出空间，按遍历顺序移除
+        it = map.values().iterator();
+        while (map.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        evictions.addAndGet(Math.max(0, before - map.size()));
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        // 新条目在第一次清理时保留，下一次清理前未被读取才会被移除
+        private volatile boolean referenced = true;
+
+        private Node(V value) {
+            this.value = value;
+        }
+    }
+}
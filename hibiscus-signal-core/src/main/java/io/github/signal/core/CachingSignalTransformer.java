@@ -0,0 +1,217 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.Envelope;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A transformer decorator that memoizes results by a key extracted from the envelope.
+ * Purpose:
+ * - Skips the delegate for envelopes whose key was transformed recently (e.g. repeated price ticks).
+ * - Keeps at most {@code maximumSize} results, each valid for {@code ttlMillis}. Results are held in a
+ *   {@link BoundedCache}, so hits take no lock and a full cache evicts the results not hit recently.
+ * - Hits return a new envelope with the cached event type, sender and payload and the context of the
+ *   current emit, so traces are never shared between emits.
+ * - Envelopes for which the key extractor returns null bypass the cache.
+ * - Hit, miss and eviction counts are exposed through {@link #getStats()} and
+ *   {@link SignalMetrics#getCacheStats()} once registered. Stats are reported per instance, so two caches
+ *   with the same name never share an entry.
+ *
+ * <pre>
+ * SignalTransformer&lt;Object, Price&gt; cached = CachingSignalTransformer.of(fxTransformer)
+ *         .name("fx")
+ *         .keyExtractor(envelope -&gt; envelope.getPayload().getCurrencyPair() + ":" + envelope.getPayload().getAmount())
+ *         .maximumSize(5000)
+ *         .ttlMillis(1000)
+ *         .build();
+ * </pre>
+ *
+ * @param <S> the type of the signal source
+ * @param <T> the type of the signal payload
+ */
+public class CachingSignalTransformer<S, T> implements SignalTransformer<S, T> {
+
+    private static final AtomicLong INSTANCES = new AtomicLong();
+
+    private final SignalTransformer<S, T> delegate;
+    private final Function<Envelope<S, T>, ?> keyExtractor;
+    private final int maximumSize;
+    private final long ttlMillis;
+    private final String name;
+    private final String statsKey;
+
+    private final BoundedCache<Object, CacheEntry<S, T>> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // 过期移除的条目，容量淘汰由缓存自身计数
+    private final AtomicLong expirations = new AtomicLong();
+
+    private CachingSignalTransformer(Builder<S, T> builder) {
+        this.delegate = builder.delegate;
+        this.keyExtractor = builder.keyExtractor;
+        this.maximumSize = builder.maximumSize;
+        this.ttlMillis = builder.ttlMillis;
+        this.name = builder.name != null ? builder.name : delegate.getClass().getSimpleName();
+        this.statsKey = "transformer:" + name + "#" + INSTANCES.incrementAndGet();
+        this.cache = new BoundedCache<>(maximumSize);
+    }
+
+    public static <S, T> Builder<S, T> of(SignalTransformer<S, T> delegate) {
+        return new Builder<>(delegate);
+    }
+
+    @Override
+    public Envelope<S, T> transform(String event, Envelope<S, T> envelope) {
+        Object key = keyExtractor.apply(envelope);
+        if (key == null) {
+            return delegate.transform(event, delegate.isMutating() ? envelope.copy() : envelope);
+        }
+        long now = System.currentTimeMillis();
+        CacheEntry<S, T> entry = cache.get(key);
+        if (entry != null && ttlMillis > 0 && entry.expiresAt <= now) {
+            if (cache.remove(key, entry)) {
+                expirations.incrementAndGet();
+            }
+            entry = null;
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry.withContext(envelope);
+        }
+        misses.incrementAndGet();
+        // 未命中时直接执行转换，并发的相同键可能各自执行一次
+        // 缓存装饰器本身是纯转换器：就地修改的委托只修改副本，缓存的结果也与后续阶段隔离
+        Envelope<S, T> result = delegate.transform(event, delegate.isMutating() ? envelope.copy() : envelope);
+        if (result != null) {
+            cache.put(key, new CacheEntry<>(result.copy(), ttlMillis > 0 ? now + ttlMillis : Long.MAX_VALUE));
+        }
+        return result;
+    }
+
+    /**
+     * Removes expired entries, useful for caches that see few accesses after a burst.
+     *
+     * @return the number of entries removed
+     */
+    public int cleanUp() {
+        if (ttlMillis <= 0) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int removed = cache.removeIf((key, entry) -> entry.expiresAt <= now);
+        expirations.addAndGet(removed);
+        return removed;
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Key under which this instance reports to {@link SignalMetrics#getCacheStats()}: the name plus an
+     * instance number, unique even when several caches share a name.
+     */
+    public String getStatsKey() {
+        return statsKey;
+    }
+
+    public SignalTransformer<S, T> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns size, hits, misses, evictions and hit rate of the cache.
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maximumSize", maximumSize);
+        stats.put("hitCount", hitCount);
+        stats.put("missCount", missCount);
+        stats.put("evictionCount", cache.evictionCount() + expirations.get());
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        return stats;
+    }
+
+    private static final class CacheEntry<S, T> {
+        private final Envelope<S, T> result;
+        private final long expiresAt;
+
+        private CacheEntry(Envelope<S, T> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+
+        private Envelope<S, T> withContext(Envelope<S, T> current) {
+            return Envelope.Builder.<S, T>builder()
+                    .eventType(result.getEventType())
+                    .sender(result.getSender())
+                    .payload(result.getPayload())
+                    .context(current.getContext())
+                    .build();
+        }
+    }
+
+    public static class Builder<S, T> {
+        private final SignalTransformer<S, T> delegate;
+        private Function<Envelope<S, T>, ?> keyExtractor = Envelope::getPayload;
+        private int maximumSize = 1000;
+        private long ttlMillis = 60000L;
+        private String name;
+
+        private Builder(SignalTransformer<S, T> delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Extracts the cache key of an envelope, defaults to the payload. Return null to bypass the cache.
+         */
+        public Builder<S, T> keyExtractor(Function<Envelope<S, T>, ?> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+            return this;
+        }
+
+        public Builder<S, T> maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Time a result stays valid, 0 keeps results until they are evicted by size.
+         */
+        public Builder<S, T> ttlMillis(long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+            return this;
+        }
+
+        /**
+         * Name under which the cache stats are reported, defaults to the delegate class name. The stats key
+         * appends an instance number, see {@link CachingSignalTransformer#getStatsKey()}.
+         */
+        public Builder<S, T> name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public CachingSignalTransformer<S, T> build() {
+            if (delegate == null) {
+                throw new IllegalArgumentException("Delegate transformer must not be null");
+            }
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+            }
+            return new CachingSignalTransformer<>(this);
+        }
+    }
+}
@@ -15,7 +15,7 @@ public class CircuitBreaker {
      * - OPEN: Circuit is open due to too many failures; requests are blocked.
      * - HALF_OPEN: Circuit is testing the waters to see if recovery is possible.
      */
-    private enum State { CLOSED, OPEN, HALF_OPEN }
+    public enum State { CLOSED, OPEN, HALF_OPEN }
 
     private State state = State.CLOSED;      // Current state of the circuit
     private long lastFailureTime = 0;        // Timestamp of last failure (for OPEN state timeout tracking)
@@ -86,6 +86,13 @@ public class CircuitBreaker {
         }
     }
 
+    /**
+     * Returns the current state without applying the OPEN timeout, e.g. for metrics.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
     /**
      * Trips the circuit to OPEN state, recording the last failure time
      * and resetting counters for future checks.
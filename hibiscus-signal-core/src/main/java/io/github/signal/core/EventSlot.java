@@ -0,0 +1,99 @@
+package io.github.signal.core;
+
+import io.github.signal.core.config.SignalConfig;
+import io.github.signal.core.model.Sig;
+
+/**
+ * 单个事件在注册表中的全部状态
+ * 配置、处理器集合等放在同一个对象中，注册表只需一张 map；处理器集合按需创建。
+ * <p>
+ * 空闲的事件会被转入冷存储：只保留处理器数组和指标快照，释放处理器索引、指标计数器和保护策略，
+ * 再次访问时恢复为热状态。
+ */
+final class EventSlot<S, T> {
+
+    /**
+     * 访问时间的更新粒度，避免每次发射都写入同一个 volatile 字段
+     */
+    private static final long TOUCH_GRANULARITY_MS = 1000L;
+
+    final String event;
+
+    /**
+     * 事件配置，null 表示使用默认配置
+     */
+    volatile SignalConfig config;
+
+    /**
+     * 热状态下的处理器集合，冷状态或尚无处理器时为 null
+     */
+    volatile HandlerSet<S, T> handlers;
+
+    /**
+     * 冷状态下保留的处理器数组
+     */
+    volatile Sig<S, T>[] coldHandlers;
+
+    /**
+     * 冷状态下保留的指标快照
+     */
+    long[] coldMetrics;
+
+    /**
+     * 已准入但尚未应用的 ADD 命令数，仅由持有应用锁的线程读写
+     */
+    int reservedHandlers;
+
+    volatile boolean cold;
+
+    /**
+     * 事件是否已暂停投递
+     */
+    volatile boolean paused;
+
+    volatile long lastAccess;
+
+    EventSlot(String event) {
+        this.event = event;
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    /**
+     * 发射时读取的处理器数组，冷状态下直接返回保留的数组
+     */
+    Sig<S, T>[] handlerArray() {
+        HandlerSet<S, T> set = handlers;
+        if (set != null) {
+            return set.toArray();
+        }
+        Sig<S, T>[] frozen = coldHandlers;
+        return frozen != null ? frozen : HandlerSet.emptySigs();
+    }
+
+    int handlerCount() {
+        return handlerArray().length;
+    }
+
+    /**
+     * 写入时使用的处理器集合，由注册表的应用者调用
+     */
+    HandlerSet<S, T> handlersForWrite() {
+        HandlerSet<S, T> set = handlers;
+        if (set == null) {
+            set = new HandlerSet<>();
+            Sig<S, T>[] frozen = coldHandlers;
+            if (frozen != null) {
+                set.addAll(frozen, Integer.MAX_VALUE);
+            }
+            handlers = set;
+            coldHandlers = null;
+        }
+        return set;
+    }
+
+    void touch(long now) {
+        if (now - lastAccess >= TOUCH_GRANULARITY_MS) {
+            lastAccess = now;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Evaluates the filters of compiled pipeline chains.
+ * Purpose:
+ * - Runs a group of independent filters ({@link SignalFilter#isIndependent()}) concurrently: the calling
+ *   thread evaluates the first one, the rest go to a small daemon pool. The first rejection wins and the
+ *   other evaluations are cancelled (interrupted). The async variants compose the filters'
+ *   {@link SignalFilter#filterAsync async results} instead, so the async pipeline never waits for a group.
+ * - Caches rejections per filter and {@link SignalFilter#getCacheKey cache key} for a TTL, so a key that was
+ *   just rejected is not evaluated again by an expensive filter. A full cache evicts the rejections that
+ *   were not hit since the previous sweep, so hot keys stay cached.
+ * - When the pool is saturated the caller evaluates the filter itself, so a burst degrades to sequential
+ *   evaluation instead of queueing.
+ *
+ * @param <S> the type of the signal source
+ * @param <T> the type of the signal payload
+ */
+final class FilterEvaluator<S, T> {
+
+    private static final Logger log = LoggerFactory.getLogger(FilterEvaluator.class);
+
+    private static final int MAX_CACHED_REJECTIONS = 10000;
+
+    private static final CompletableFuture<Boolean> REJECTED = CompletableFuture.completedFuture(Boolean.FALSE);
+
+    private final BoundedCache<RejectionKey, Long> rejections = new BoundedCache<>(MAX_CACHED_REJECTIONS);
+
+    private volatile long rejectionTtlMillis;
+
+    private volatile ExecutorService executor;
+
+    long getRejectionTtlMillis() {
+        return rejectionTtlMillis;
+    }
+
+    void setRejectionTtlMillis(long rejectionTtlMillis) {
+        this.rejectionTtlMillis = rejectionTtlMillis;
+        if (rejectionTtlMillis <= 0) {
+            rejections.clear();
+        }
+    }
+
+    /**
+     * Evaluates one filter, consulting the rejection cache first.
+     */
+    boolean test(SignalFilter<S, T> filter, String event, Envelope<S, T> envelope) {
+        RejectionKey rejectionKey = rejectionKey(filter, event, envelope);
+        if (rejectionKey != null && isRejected(rejectionKey)) {
+            return false;
+        }
+        boolean pass = filter.filter(event, envelope);
+        if (!pass && rejectionKey != null) {
+            reject(rejectionKey);
+        }
+        return pass;
+    }
+
+    /**
+     * Async variant of {@link #test}: consults the rejection cache, then composes the filter's
+     * {@link SignalFilter#filterAsync async variant} and caches the rejection once it completes.
+     */
+    CompletableFuture<Boolean> testAsync(SignalFilter<S, T> filter, String event, Envelope<S, T> envelope) {
+        try {
+            RejectionKey rejectionKey = rejectionKey(filter, event, envelope);
+            if (rejectionKey != null && isRejected(rejectionKey)) {
+                return REJECTED;
+            }
+            return filter.filterAsync(event, envelope).thenApply(pass -> {
+                if (!pass && rejectionKey != null) {
+                    reject(rejectionKey);
+                }
+                return pass;
+            }).toCompletableFuture();
+        } catch (RuntimeException e) {
+            CompletableFuture<Boolean> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private RejectionKey rejectionKey(SignalFilter<S, T> filter, String event, Envelope<S, T> envelope) {
+        if (rejectionTtlMillis <= 0) {
+            return null;
+        }
+        Object key = filter.getCacheKey(event, envelope);
+        return key != null ? new RejectionKey(filter, key) : null;
+    }
+
+    private boolean isRejected(RejectionKey rejectionKey) {
+        Long expiresAt = rejections.get(rejectionKey);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt > System.currentTimeMillis()) {
+            return true;
+        }
+        rejections.remove(rejectionKey, expiresAt);
+        return false;
+    }
+
+    private void reject(RejectionKey rejectionKey) {
+        long ttl = rejectionTtlMillis;
+        if (ttl > 0) {
+            rejections.put(rejectionKey, System.currentTimeMillis() + ttl);
+        }
+    }
+
+    /**
+     * Evaluates {@code filters[from, to)} concurrently.
+     *
+     * @return true if every filter passed, false on the first rejection
+     */
+    boolean testAll(SignalFilter<S, T>[] filters, int from, int to, String event, Envelope<S, T> envelope) {
+        CompletionService<Boolean> completion = new ExecutorCompletionService<>(executor());
+        List<Future<Boolean>> futures = new ArrayList<>(to - from - 1);
+        try {
+            for (int i = from + 1; i < to; i++) {
+                SignalFilter<S, T> filter = filters[i];
+                futures.add(completion.submit(() -> test(filter, event, envelope)));
+            }
+            // 调用线程执行第一个过滤器，减少一次线程切换
+            if (!test(filters[from], event, envelope)) {
+                log.debug("Signal [{}] filtered out by: {}", event, filters[from].getClass().getSimpleName());
+                return false;
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                if (!completion.take().get()) {
+                    log.debug("Signal [{}] filtered out by an independent filter", event);
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Filter evaluation failed for signal " + event, cause);
+        } finally {
+            for (Future<Boolean> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Async variant of {@link #testAll}: the filters other than the first start on the pool, the calling
+     * thread starts the first one, and no thread waits for the group. Completes with false on the first
+     * rejection, cancelling (without interrupting) the pending evaluations, or with true once every filter
+     * passed.
+     */
+    CompletableFuture<Boolean> testAllAsync(SignalFilter<S, T>[] filters, int from, int to, String event,
+                                            Envelope<S, T> envelope) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(to - from);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(to - from);
+        ExecutorService pool = executor();
+        for (int i = from + 1; i < to; i++) {
+            SignalFilter<S, T> filter = filters[i];
+            futures.add(join(filter, CompletableFuture.supplyAsync(() -> testAsync(filter, event, envelope), pool)
+                    .thenCompose(future -> future), event, result, pending));
+        }
+        // 调用线程启动第一个过滤器，减少一次线程切换
+        futures.add(join(filters[from], testAsync(filters[from], event, envelope), event, result, pending));
+        result.whenComplete((pass, error) -> {
+            for (CompletableFuture<Boolean> future : futures) {
+                future.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<Boolean> join(SignalFilter<S, T> filter, CompletableFuture<Boolean> future, String event,
+                                            CompletableFuture<Boolean> result, AtomicInteger pending) {
+        future.whenComplete((pass, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else if (!pass) {
+                log.debug("Signal [{}] filtered out by: {}", event, filter.getClass().getSimpleName());
+                result.complete(Boolean.FALSE);
+            } else if (pending.decrementAndGet() == 0) {
+                result.complete(Boolean.TRUE);
+            }
+        });
+        return future;
+    }
+
+    private ExecutorService executor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    int cores = Runtime.getRuntime().availableProcessors();
+                    AtomicInteger counter = new AtomicInteger();
+                    current = new ThreadPoolExecutor(0, cores * 4, 60L, TimeUnit.SECONDS,
+                            new SynchronousQueue<>(), r -> {
+                        Thread thread = new Thread(r, "signal-filter-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    void shutdown() {
+        ExecutorService current = executor;
+        if (current != null) {
+            current.shutdownNow();
+            // 关闭后再次使用时重新创建线程池，避免任务被静默丢弃
+            executor = null;
+        }
+        rejections.clear();
+    }
+
+    private static final class RejectionKey {
+        private final SignalFilter<?, ?> filter;
+        private final Object key;
+
+        private RejectionKey(SignalFilter<?, ?> filter, Object key) {
+            this.filter = filter;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RejectionKey)) {
+                return false;
+            }
+            RejectionKey other = (RejectionKey) o;
+            return filter == other.filter && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(filter) + key.hashCode();
+        }
+    }
+}
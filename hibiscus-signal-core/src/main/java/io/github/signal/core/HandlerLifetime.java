@@ -0,0 +1,28 @@
+package io.github.signal.core;
+
+/**
+ * Decides how long a registered handler stays alive.
+ * Expired handlers are skipped on emit and removed from the registry by
+ * {@link SignalRegistry#reapExpired()}.
+ */
+@FunctionalInterface
+public interface HandlerLifetime {
+
+    /**
+     * Checks whether the handler has expired.
+     *
+     * @return true if the handler should no longer receive signals
+     */
+    boolean isExpired();
+
+    /**
+     * Creates a lifetime that expires after the given time to live.
+     *
+     * @param ttlMillis time to live in milliseconds, counted from now
+     * @return the lifetime
+     */
+    static HandlerLifetime expiresAfter(long ttlMillis) {
+        long deadline = System.currentTimeMillis() + ttlMillis;
+        return () -> System.currentTimeMillis() >= deadline;
+    }
+}
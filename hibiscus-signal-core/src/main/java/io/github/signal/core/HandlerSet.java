@@ -0,0 +1,297 @@
+package io.github.signal.core;
+
+import io.github.signal.core.enums.SignalPriority;
+import io.github.signal.core.model.Sig;
+
+import java.util.Arrays;
+
+/**
+ * Copy-on-write set of the handlers of one event.
+ * Purpose:
+ * - Emitters read a volatile, immutable {@code Sig[]} sorted by priority (HIGH first, then registration
+ *   order) and iterate it by index, without iterators or boxed IDs.
+ * - Writers (the registry's single applier) publish a new array per change; removal locates the
+ *   handler through a primitive ID index and a binary search instead of a linear {@code removeIf}.
+ * - The ID index is only built once the set grows past a few handlers, small sets scan the array.
+ *
+ * @param <S> the type of the signal source
+ * @param <T> the type of the signal payload
+ */
+public final class HandlerSet<S, T> {
+
+    private static final Sig<?, ?>[] EMPTY_SIGS = new Sig<?, ?>[0];
+    private static final long[] EMPTY_KEYS = new long[0];
+
+    // Bits reserved for the registration sequence in a sort key, the priority rank sits above them
+    private static final int SEQUENCE_BITS = 56;
+
+    private volatile Snapshot<S, T> snapshot = new Snapshot<>(emptySigs(), EMPTY_KEYS);
+
+    // Sets up to this size locate handlers by scanning the array instead of keeping an index
+    private static final int INDEX_THRESHOLD = 8;
+
+    // Handler id -> sort key, only touched by writers, null while the set is small
+    private LongLongMap index;
+
+    private long sequence;
+
+    /**
+     * Returns the handlers sorted by priority. The array must not be modified.
+     */
+    public Sig<S, T>[] toArray() {
+        return snapshot.sigs;
+    }
+
+    public int size() {
+        return snapshot.sigs.length;
+    }
+
+    public boolean isEmpty() {
+        return snapshot.sigs.length == 0;
+    }
+
+    /**
+     * Adds handlers, keeping the array sorted by priority.
+     *
+     * @param adds the handlers to add
+     * @param max  the maximum number of handlers of the set
+     * @return the number of handlers added
+     */
+    public synchronized int addAll(Sig<S, T>[] adds, int max) {
+        Snapshot<S, T> current = snapshot;
+        int count = Math.min(adds.length, Math.max(0, max - current.sigs.length));
+        if (count == 0) {
+            return 0;
+        }
+        int size = current.sigs.length + count;
+        Sig<S, T>[] sigs = Arrays.copyOf(current.sigs, size);
+        long[] keys = Arrays.copyOf(current.keys, size);
+        for (int i = 0; i < count; i++) {
+            Sig<S, T> sig = adds[i];
+            long key = sortKey(sig.getPriority(), sequence++);
+            if (index != null) {
+                index.put(sig.getId(), key);
+            }
+            int n = current.sigs.length + i;
+            // 插入排序：新处理器的序号最大，只需越过优先级更低的处理器
+            int pos = n;
+            while (pos > 0 && keys[pos - 1] > key) {
+                keys[pos] = keys[pos - 1];
+                sigs[pos] = sigs[pos - 1];
+                pos--;
+            }
+            keys[pos] = key;
+            sigs[pos] = sig;
+        }
+        if (index == null && size > INDEX_THRESHOLD) {
+            index = new LongLongMap();
+            for (int i = 0; i < size; i++) {
+                index.put(sigs[i].getId(), keys[i]);
+            }
+        }
+        snapshot = new Snapshot<>(sigs, keys);
+        return count;
+    }
+
+    /**
+     * Removes the handler with the given id.
+     *
+     * @param id the handler id
+     * @return true if the handler was removed
+     */
+    public synchronized boolean remove(long id) {
+        Snapshot<S, T> current = snapshot;
+        int pos = indexOf(current, id);
+        if (pos < 0) {
+            return false;
+        }
+        if (index != null) {
+            index.remove(id);
+        }
+        int size = current.sigs.length - 1;
+        if (size == 0) {
+            snapshot = new Snapshot<>(emptySigs(), EMPTY_KEYS);
+            return true;
+        }
+        Sig<S, T>[] sigs = newArray(size);
+        long[] keys = new long[size];
+        System.arraycopy(current.sigs, 0, sigs, 0, pos);
+        System.arraycopy(current.sigs, pos + 1, sigs, pos, size - pos);
+        System.arraycopy(current.keys, 0, keys, 0, pos);
+        System.arraycopy(current.keys, pos + 1, keys, pos, size - pos);
+        snapshot = new Snapshot<>(sigs, keys);
+        return true;
+    }
+
+    /**
+     * Removes every expired handler in a single pass, rebuilding the array at most once.
+     *
+     * @return the number of handlers removed
+     */
+    public synchronized int removeExpired() {
+        Snapshot<S, T> current = snapshot;
+        int first = 0;
+        while (first < current.sigs.length && !current.sigs[first].isExpired()) {
+            first++;
+        }
+        if (first == current.sigs.length) {
+            return 0;
+        }
+        // 从第一个过期的处理器开始压缩
+        Sig<S, T>[] sigs = Arrays.copyOf(current.sigs, current.sigs.length);
+        long[] keys = Arrays.copyOf(current.keys, current.keys.length);
+        int n = first;
+        for (int i = first; i < current.sigs.length; i++) {
+            Sig<S, T> sig = current.sigs[i];
+            if (sig.isExpired()) {
+                if (index != null) {
+                    index.remove(sig.getId());
+                }
+            } else {
+                sigs[n] = sig;
+                keys[n] = current.keys[i];
+                n++;
+            }
+        }
+        snapshot = new Snapshot<>(Arrays.copyOf(sigs, n), Arrays.copyOf(keys, n));
+        return current.sigs.length - n;
+    }
+
+    /**
+     * Checks whether a handler with the given id is in the set.
+     */
+    public synchronized boolean contains(long id) {
+        return indexOf(snapshot, id) >= 0;
+    }
+
+    public synchronized void clear() {
+        index = null;
+        snapshot = new Snapshot<>(emptySigs(), EMPTY_KEYS);
+    }
+
+    private int indexOf(Snapshot<S, T> current, long id) {
+        if (index != null) {
+            long key = index.get(id);
+            return key < 0 ? -1 : Arrays.binarySearch(current.keys, key);
+        }
+        for (int i = 0; i < current.sigs.length; i++) {
+            if (current.sigs[i].getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long sortKey(SignalPriority priority, long sequence) {
+        long rank = priority != null ? priority.getValue() : SignalPriority.MEDIUM.getValue();
+        return (rank << SEQUENCE_BITS) | sequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S, T> Sig<S, T>[] emptySigs() {
+        return (Sig<S, T>[]) EMPTY_SIGS;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S, T> Sig<S, T>[] newArray(int size) {
+        return (Sig<S, T>[]) new Sig<?, ?>[size];
+    }
+
+    private static final class Snapshot<S, T> {
+        private final Sig<S, T>[] sigs;
+        private final long[] keys;
+
+        private Snapshot(Sig<S, T>[] sigs, long[] keys) {
+            this.sigs = sigs;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * Open-addressing map from long to non-negative long, returns -1 for missing keys.
+     */
+    private static final class LongLongMap {
+
+        private static final long FREE = Long.MIN_VALUE;
+        private static final long REMOVED = Long.MIN_VALUE + 1;
+
+        private long[] keys = newKeys(16);
+        private long[] values = new long[16];
+        private int size;
+        private int used;
+
+        long get(long key) {
+            int slot = find(key);
+            return slot >= 0 ? values[slot] : -1;
+        }
+
+        void put(long key, long value) {
+            int slot = find(key);
+            if (slot >= 0) {
+                values[slot] = value;
+                return;
+            }
+            if ((used + 1) * 2 > keys.length) {
+                rehash(size * 2 + 1 > keys.length / 2 ? keys.length * 2 : keys.length);
+            }
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != FREE && keys[i] != REMOVED) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == FREE) {
+                used++;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        long remove(long key) {
+            int slot = find(key);
+            if (slot < 0) {
+                return -1;
+            }
+            keys[slot] = REMOVED;
+            size--;
+            return values[slot];
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != FREE) {
+                if (keys[i] == key) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new long[capacity];
+            size = 0;
+            used = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE && oldKeys[i] != REMOVED) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] k = new long[capacity];
+            Arrays.fill(k, FREE);
+            return k;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
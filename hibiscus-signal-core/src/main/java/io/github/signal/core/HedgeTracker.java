@@ -0,0 +1,105 @@
+package io.github.signal.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the recent latency of a single handler and the budget available for hedged attempts.
+ * Purpose:
+ * - Keeps the last {@value #SAMPLE_SIZE} successful execution times in a ring buffer and derives the p95,
+ *   which is used as the delay before a hedged attempt is launched.
+ * - Caps the hedge rate: every call earns {@code budgetPercent} credits and a hedge costs 100,
+ *   so at most {@code budgetPercent}% of calls are hedged over time.
+ */
+public class HedgeTracker {
+
+    /**
+     * Number of latency samples kept per handler
+     */
+    private static final int SAMPLE_SIZE = 128;
+
+    /**
+     * Minimum number of samples before the p95 is trusted
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    /**
+     * The p95 is recomputed every this many samples
+     */
+    private static final int RECOMPUTE_EVERY = 16;
+
+    /**
+     * Credits a hedged attempt costs
+     */
+    private static final long HEDGE_COST = 100;
+
+    /**
+     * Maximum credits that can be saved up, limits hedge bursts
+     */
+    private static final long MAX_CREDITS = HEDGE_COST * 10;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+
+    private int next = 0;
+
+    private long recorded = 0;
+
+    private volatile long p95Nanos = -1;
+
+    private final AtomicLong credits = new AtomicLong();
+
+    /**
+     * Records the execution time of a successful attempt.
+     *
+     * @param nanos execution time in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % SAMPLE_SIZE;
+        recorded++;
+        if (recorded >= MIN_SAMPLES && recorded % RECOMPUTE_EVERY == 0) {
+            int count = (int) Math.min(recorded, SAMPLE_SIZE);
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            p95Nanos = sorted[(int) Math.ceil(count * 0.95) - 1];
+        }
+    }
+
+    /**
+     * Returns the p95 execution time, or -1 if there are not enough samples yet.
+     */
+    public long getP95Nanos() {
+        return p95Nanos;
+    }
+
+    /**
+     * Adds the credits earned by one call.
+     *
+     * @param budgetPercent percentage of calls that may be hedged
+     */
+    public void earn(int budgetPercent) {
+        long current;
+        do {
+            current = credits.get();
+            if (current >= MAX_CREDITS) {
+                return;
+            }
+        } while (!credits.compareAndSet(current, Math.min(MAX_CREDITS, current + budgetPercent)));
+    }
+
+    /**
+     * Tries to spend the credits of one hedged attempt.
+     *
+     * @return true if the budget allows a hedge
+     */
+    public boolean trySpend() {
+        long current;
+        do {
+            current = credits.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!credits.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+}
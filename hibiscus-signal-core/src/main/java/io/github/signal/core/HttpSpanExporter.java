@@ -0,0 +1,215 @@
+package io.github.signal.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.signal.core.model.SignalContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exports spans as JSON over HTTP, in the Zipkin v2 or the OTLP/HTTP JSON format.
+ * Purpose:
+ * - Needs no tracing library: a batch is encoded with Jackson and posted with {@link HttpURLConnection}.
+ * - Trace ids are sent as 32 hex characters (16 are accepted), span ids as 16; traces with other ids are skipped.
+ * - Spans whose parent is not a span of the trace (e.g. the event id) are exported as root spans.
+ * - The event id and span metadata are exported as tags (Zipkin) or attributes (OTLP).
+ *
+ * <pre>
+ * new HttpSpanExporter(HttpSpanExporter.Format.ZIPKIN, "http://localhost:9411/api/v2/spans", "order-service");
+ * new HttpSpanExporter(HttpSpanExporter.Format.OTLP, "http://localhost:4318/v1/traces", "order-service");
+ * </pre>
+ */
+public class HttpSpanExporter implements SpanExporter {
+
+    public enum Format {
+        ZIPKIN("http://localhost:9411/api/v2/spans"),
+        OTLP("http://localhost:4318/v1/traces");
+
+        private final String defaultEndpoint;
+
+        Format(String defaultEndpoint) {
+            this.defaultEndpoint = defaultEndpoint;
+        }
+
+        public String getDefaultEndpoint() {
+            return defaultEndpoint;
+        }
+    }
+
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    private static final int READ_TIMEOUT_MS = 10000;
+
+    // OTLP SpanKind INTERNAL
+    private static final int SPAN_KIND_INTERNAL = 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Format format;
+    private final URL endpoint;
+    private final String serviceName;
+
+    /**
+     * @param format      the wire format
+     * @param endpoint    the collector URL, null for the default of the format
+     * @param serviceName the service name reported with every span
+     */
+    public HttpSpanExporter(Format format, String endpoint, String serviceName) {
+        this.format = format;
+        this.serviceName = serviceName;
+        try {
+            this.endpoint = new URL(endpoint != null && !endpoint.isEmpty() ? endpoint : format.getDefaultEndpoint());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid span export endpoint: " + endpoint, e);
+        }
+    }
+
+    @Override
+    public void export(List<SignalContext> traces) throws IOException {
+        ArrayNode spans;
+        Object body;
+        if (format == Format.ZIPKIN) {
+            spans = objectMapper.createArrayNode();
+            body = spans;
+        } else {
+            ObjectNode request = objectMapper.createObjectNode();
+            ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+            attribute(resourceSpans.putObject("resource").putArray("attributes"), "service.name", serviceName);
+            ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+            scopeSpans.putObject("scope").put("name", "hibiscus-signal");
+            spans = scopeSpans.putArray("spans");
+            body = request;
+        }
+        for (SignalContext context : traces) {
+            String traceId = normalizeTraceId(context.getTraceId());
+            if (traceId == null) {
+                continue;
+            }
+            List<SignalContext.Span> contextSpans = context.getSpans();
+            Set<String> spanIds = new HashSet<>(contextSpans.size() * 2);
+            for (SignalContext.Span span : contextSpans) {
+                spanIds.add(span.getSpanId());
+            }
+            for (SignalContext.Span span : contextSpans) {
+                if (!isHex(span.getSpanId(), 16)) {
+                    continue;
+                }
+                String parentId = spanIds.contains(span.getParentSpanId()) ? span.getParentSpanId() : null;
+                if (format == Format.ZIPKIN) {
+                    zipkinSpan(spans.addObject(), traceId, parentId, span, context);
+                } else {
+                    otlpSpan(spans.addObject(), traceId, parentId, span, context);
+                }
+            }
+        }
+        if (spans.size() > 0) {
+            post(objectMapper.writeValueAsBytes(body));
+        }
+    }
+
+    private void zipkinSpan(ObjectNode node, String traceId, String parentId, SignalContext.Span span, SignalContext context) {
+        node.put("traceId", traceId);
+        node.put("id", span.getSpanId());
+        if (parentId != null) {
+            node.put("parentId", parentId);
+        }
+        node.put("name", span.getOperation());
+        node.put("timestamp", span.getStartTime() * 1000L);
+        node.put("duration", Math.max(1L, span.getDurationNanos() / 1000L));
+        node.putObject("localEndpoint").put("serviceName", serviceName);
+        ObjectNode tags = node.putObject("tags");
+        if (context.getEventId() != null) {
+            tags.put("signal.event_id", context.getEventId());
+        }
+        if (span.hasMetadata()) {
+            for (Map.Entry<String, Object> entry : span.getMetadata().entrySet()) {
+                tags.put(entry.getKey(), String.valueOf(entry.getValue()));
+            }
+        }
+    }
+
+    private void otlpSpan(ObjectNode node, String traceId, String parentId, SignalContext.Span span, SignalContext context) {
+        long startNanos = span.getStartTime() * 1_000_000L;
+        node.put("traceId", traceId);
+        node.put("spanId", span.getSpanId());
+        if (parentId != null) {
+            node.put("parentSpanId", parentId);
+        }
+        node.put("name", span.getOperation());
+        node.put("kind", SPAN_KIND_INTERNAL);
+        // OTLP/JSON 中 64 位整数以字符串表示
+        node.put("startTimeUnixNano", String.valueOf(startNanos));
+        node.put("endTimeUnixNano", String.valueOf(startNanos + span.getDurationNanos()));
+        ArrayNode attributes = node.putArray("attributes");
+        if (context.getEventId() != null) {
+            attribute(attributes, "signal.event_id", context.getEventId());
+        }
+        if (span.hasMetadata()) {
+            for (Map.Entry<String, Object> entry : span.getMetadata().entrySet()) {
+                attribute(attributes, entry.getKey(), String.valueOf(entry.getValue()));
+            }
+        }
+    }
+
+    private static void attribute(ArrayNode attributes, String key, String value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        attribute.putObject("value").put("stringValue", value);
+    }
+
+    private void post(byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            int status = connection.getResponseCode();
+            if (status < 200 || status >= 300) {
+                throw new IOException("Span export to " + endpoint + " failed with HTTP " + status);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Converts a trace id to lower case hex without dashes, null if it is not a 16 or 32 hex character id.
+     */
+    static String normalizeTraceId(String traceId) {
+        if (traceId == null) {
+            return null;
+        }
+        String id = traceId.replace("-", "").toLowerCase(Locale.ROOT);
+        if (isHex(id, 32)) {
+            return id;
+        }
+        // OTLP 只接受 32 位 trace id，左侧补零
+        return isHex(id, 16) ? "0000000000000000" + id : null;
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value == null || value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,245 @@
+package io.github.signal.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with nanosecond precision, laid out like an HdrHistogram.
+ * Purpose:
+ * - Values below {@value #LINEAR_LIMIT}ns get one bucket each; above that every power of two is split into
+ *   {@value #SUB_BUCKETS} buckets, so a reported percentile is within 1% of the recorded value.
+ * - Recording is a bucket index computation and an atomic increment, safe from any number of threads.
+ * - The buckets of a power of two are only allocated once a value of that magnitude is recorded; latencies
+ *   usually span a few magnitudes, so a histogram stays at a few KB.
+ * - {@link #snapshot()} covers everything recorded so far, {@link #intervalSnapshot()} only what was recorded
+ *   since the previous interval snapshot (e.g. the last scrape).
+ * - Values above {@link #MAX_TRACKABLE_NANOS} (about 19 hours) are counted in the highest bucket.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Values below this limit are recorded exactly
+     */
+    private static final int LINEAR_LIMIT = 256;
+
+    /**
+     * Buckets per power of two above the linear range
+     */
+    private static final int SUB_BUCKETS = 128;
+
+    private static final int LINEAR_BITS = 8;
+
+    /**
+     * Number of bucket groups: the linear range plus one group per power of two
+     */
+    private static final int GROUPS = 39;
+
+    public static final long MAX_TRACKABLE_NANOS = (1L << (GROUPS + LINEAR_BITS - 1)) - 1;
+
+    private final AtomicReferenceArray<AtomicLongArray> groups = new AtomicReferenceArray<>(GROUPS);
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    // Counts at the previous interval snapshot, guarded by this
+    private long[][] intervalStart = new long[GROUPS][];
+    private long intervalStartNanos;
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, Math.min(nanos, MAX_TRACKABLE_NANOS));
+        int group;
+        int offset;
+        if (value < LINEAR_LIMIT) {
+            group = 0;
+            offset = (int) value;
+        } else {
+            // 最高位决定分组，其后 7 位决定组内桶
+            group = 63 - Long.numberOfLeadingZeros(value) - LINEAR_BITS + 1;
+            offset = (int) (value >>> group) - SUB_BUCKETS;
+        }
+        group(group).incrementAndGet(offset);
+        totalNanos.add(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    private AtomicLongArray group(int group) {
+        AtomicLongArray buckets = groups.get(group);
+        if (buckets == null) {
+            buckets = new AtomicLongArray(group == 0 ? LINEAR_LIMIT : SUB_BUCKETS);
+            if (!groups.compareAndSet(group, null, buckets)) {
+                buckets = groups.get(group);
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Returns the distribution of every value recorded so far.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(read(), totalNanos.sum(), maxNanos.get());
+    }
+
+    /**
+     * Returns the distribution of the values recorded since the previous call and starts a new interval.
+     * Meant for a single periodic reader; concurrent readers split the intervals between them.
+     */
+    public synchronized Snapshot intervalSnapshot() {
+        long[][] current = read();
+        long total = totalNanos.sum();
+        long[][] delta = new long[GROUPS][];
+        for (int g = 0; g < GROUPS; g++) {
+            long[] now = current[g];
+            if (now == null) {
+                continue;
+            }
+            long[] before = intervalStart[g];
+            long[] counts = new long[now.length];
+            for (int i = 0; i < now.length; i++) {
+                counts[i] = before != null ? now[i] - before[i] : now[i];
+            }
+            delta[g] = counts;
+        }
+        Snapshot snapshot = new Snapshot(delta, total - intervalStartNanos, -1L);
+        intervalStart = current;
+        intervalStartNanos = total;
+        return snapshot;
+    }
+
+    private long[][] read() {
+        long[][] counts = new long[GROUPS][];
+        for (int g = 0; g < GROUPS; g++) {
+            AtomicLongArray buckets = groups.get(g);
+            if (buckets == null) {
+                continue;
+            }
+            long[] copy = new long[buckets.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = buckets.get(i);
+            }
+            counts[g] = copy;
+        }
+        return counts;
+    }
+
+    /**
+     * Highest value that is recorded in the same bucket as the bucket's lowest value.
+     */
+    private static long highestEquivalent(int group, int offset) {
+        if (group == 0) {
+            return offset;
+        }
+        return (((long) offset + SUB_BUCKETS) << group) + (1L << group) - 1;
+    }
+
+    /**
+     * An immutable distribution of recorded latencies, all values in nanoseconds.
+     */
+    public static final class Snapshot {
+
+        // Upper bounds and counts of the non-empty buckets, in ascending order
+        private final long[] values;
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Snapshot(long[][] buckets, long total, long max) {
+            List<long[]> nonEmpty = new ArrayList<>();
+            long n = 0;
+            for (int g = 0; g < GROUPS; g++) {
+                long[] group = buckets[g];
+                if (group == null) {
+                    continue;
+                }
+                for (int i = 0; i < group.length; i++) {
+                    if (group[i] > 0) {
+                        nonEmpty.add(new long[]{highestEquivalent(g, i), group[i]});
+                        n += group[i];
+                    }
+                }
+            }
+            this.values = new long[nonEmpty.size()];
+            this.counts = new long[nonEmpty.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = nonEmpty.get(i)[0];
+                counts[i] = nonEmpty.get(i)[1];
+            }
+            this.count = n;
+            this.total = total;
+            // 区间快照没有精确最大值，取最高非空桶的上界
+            long highest = values.length > 0 ? values[values.length - 1] : 0L;
+            this.max = max >= 0 ? max : highest;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the sum of the recorded values.
+         */
+        public long getSum() {
+            return total;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) total / count;
+        }
+
+        /**
+         * Returns the value at or below which {@code percentile} percent of the recorded values fall.
+         *
+         * @param percentile between 0 and 100, e.g. 99.9
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0L;
+            }
+            double p = Math.min(Math.max(percentile, 0.0), 100.0);
+            long rank = Math.max(1L, (long) Math.ceil(p / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < values.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(values[i], max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Summarizes the distribution: count, mean, p50, p90, p99, p999 and max in nanoseconds.
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("meanNanos", (long) getMean());
+            summary.put("p50Nanos", getValueAtPercentile(50.0));
+            summary.put("p90Nanos", getValueAtPercentile(90.0));
+            summary.put("p99Nanos", getValueAtPercentile(99.0));
+            summary.put("p999Nanos", getValueAtPercentile(99.9));
+            summary.put("maxNanos", max);
+            return summary;
+        }
+    }
+}
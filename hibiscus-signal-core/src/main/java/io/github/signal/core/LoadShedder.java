@@ -0,0 +1,142 @@
+package io.github.signal.core;
+
+import io.github.signal.core.enums.SignalPriority;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A load shedder driven by executor saturation and queue latency.
+ * Purpose:
+ * - Watches how long async signal tasks wait in the executor queue (enqueue-to-start sojourn time).
+ * - Uses CoDel-style logic: a short burst above the target delay is tolerated, but if the sojourn
+ *   time stays above target for a whole interval the shedder starts dropping.
+ * - Sheds LOW priority signals first; if the queue still does not drain, MEDIUM is shed as well.
+ *   HIGH priority signals are never shed.
+ * - Optionally checks the active thread count of a {@link ThreadPoolExecutor} so that signals are
+ *   shed before {@code CallerRunsPolicy} turns async emits into sync ones on the caller's thread.
+ */
+public class LoadShedder {
+
+    /**
+     * Shedding levels:
+     * - 0: nothing is shed
+     * - 1: LOW priority signals are shed
+     * - 2: LOW and MEDIUM priority signals are shed
+     */
+    private static final int LEVEL_NONE = 0;
+    private static final int LEVEL_LOW = 1;
+    private static final int LEVEL_MEDIUM = 2;
+
+    /**
+     * Number of consecutive drop intervals after which MEDIUM priority is shed too
+     */
+    private static final int MEDIUM_ESCALATION_COUNT = 3;
+
+    private final long targetDelayNanos;     // Acceptable standing queue delay
+    private final long intervalNanos;        // How long the delay must stay above target before dropping
+    private final double maxActiveRatio;     // Active threads / max pool size considered saturated
+    private final ThreadPoolExecutor executor; // Optional executor to inspect, may be null
+
+    private volatile long firstAboveTime = 0; // When the sojourn time may be declared "standing", 0 = below target
+    private volatile long dropNext = 0;       // Next time the control law escalates
+    private volatile int dropCount = 0;       // Number of intervals spent in dropping state
+    private volatile int level = LEVEL_NONE;  // Current shedding level
+
+    /**
+     * Constructor for the LoadShedder.
+     *
+     * @param targetDelayMs  acceptable queue wait time (ms) before the queue is considered congested
+     * @param intervalMs     time (ms) the wait must stay above target before shedding starts
+     * @param maxActiveRatio ratio of active threads to max pool size that counts as saturated
+     * @param executor       executor whose active thread count is inspected, or null to rely on queue delay only
+     */
+    public LoadShedder(long targetDelayMs, long intervalMs, double maxActiveRatio, ThreadPoolExecutor executor) {
+        this.targetDelayNanos = TimeUnit.MILLISECONDS.toNanos(targetDelayMs);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.maxActiveRatio = maxActiveRatio;
+        this.executor = executor;
+    }
+
+    /**
+     * Records the time a task spent waiting in the executor queue.
+     * Should be called when the task actually starts running.
+     *
+     * @param sojournNanos enqueue-to-start time in nanoseconds
+     */
+    public void recordSojourn(long sojournNanos) {
+        if (sojournNanos < targetDelayNanos) {
+            // Fast path: the queue is healthy and we are not shedding
+            if (firstAboveTime == 0 && level == LEVEL_NONE) {
+                return;
+            }
+            synchronized (this) {
+                firstAboveTime = 0;
+                dropCount = 0;
+                level = LEVEL_NONE;
+            }
+            return;
+        }
+
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (level == LEVEL_NONE) {
+                if (firstAboveTime == 0) {
+                    // First sample above target, give the queue one interval to drain
+                    firstAboveTime = now + intervalNanos;
+                } else if (now - firstAboveTime >= 0) {
+                    // Delay stayed above target for a whole interval: start dropping
+                    level = LEVEL_LOW;
+                    dropCount = 1;
+                    dropNext = now + intervalNanos;
+                }
+            } else if (now - dropNext >= 0) {
+                // Still congested: escalate following the CoDel control law (interval / sqrt(count))
+                dropCount++;
+                dropNext = now + (long) (intervalNanos / Math.sqrt(dropCount));
+                if (dropCount >= MEDIUM_ESCALATION_COUNT) {
+                    level = LEVEL_MEDIUM;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a signal of the given priority should be shed right now.
+     *
+     * @param priority the priority of the signal
+     * @return true if the signal should be dropped, false otherwise
+     */
+    public boolean shouldShed(SignalPriority priority) {
+        if (priority == null || priority == SignalPriority.HIGH) {
+            return false;
+        }
+        int current = level;
+        if (current == LEVEL_NONE && isSaturated()) {
+            current = LEVEL_LOW;
+        }
+        if (current == LEVEL_NONE) {
+            return false;
+        }
+        return priority == SignalPriority.LOW || current >= LEVEL_MEDIUM;
+    }
+
+    /**
+     * Checks whether the executor's threads are all busy and tasks are already queuing.
+     */
+    private boolean isSaturated() {
+        if (executor == null) {
+            return false;
+        }
+        int maxPoolSize = executor.getMaximumPoolSize();
+        return executor.getActiveCount() >= maxPoolSize * maxActiveRatio
+                && !executor.getQueue().isEmpty();
+    }
+
+    /**
+     * Returns the current shedding level (0 = none, 1 = LOW, 2 = LOW and MEDIUM).
+     */
+    public int getLevel() {
+        return level;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.Envelope;
+
+/**
+ * 就地修改信号参数的转换器，避免每个转换阶段创建新的参数对象
+ * 管道保证传入的参数归管道所有，可以直接修改
+ */
+@FunctionalInterface
+public interface MutatingSignalTransformer<S, T> extends SignalTransformer<S, T> {
+
+    /**
+     * 就地修改信号参数
+     * @param event 信号名称
+     * @param envelope 信号参数，可直接修改
+     */
+    void apply(String event, Envelope<S, T> envelope);
+
+    @Override
+    default Envelope<S, T> transform(String event, Envelope<S, T> envelope) {
+        apply(event, envelope);
+        return envelope;
+    }
+
+    @Override
+    default boolean isMutating() {
+        return true;
+    }
+}
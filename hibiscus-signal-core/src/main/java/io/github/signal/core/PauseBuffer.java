@@ -0,0 +1,386 @@
+package io.github.signal.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.signal.core.model.Envelope;
+import io.github.signal.core.model.SignalContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Buffers the signals of paused events and replays them once the event is resumed.
+ * Purpose:
+ * - Keeps up to {@code memoryCapacity} envelopes per event in memory (with their callbacks).
+ * - Spills further envelopes to an append-only JSON-lines file per event, up to {@code maxSpillEntries}.
+ *   Spilled entries keep sender, payload (with their class names) and trace ids, but not callbacks.
+ * - Replays at {@code replayRatePerSecond} on a background thread after resume. Signals emitted while
+ *   the buffer is still draining are appended to it so that the original order is preserved.
+ *
+ * @param <S> the type of the signal source
+ * @param <T> the type of the signal payload
+ */
+public class PauseBuffer<S, T> {
+
+    private static final Logger log = LoggerFactory.getLogger(PauseBuffer.class);
+
+    /**
+     * Replay tick, the replay rate is spread over ticks of this length
+     */
+    private static final long REPLAY_TICK_MS = 100L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, EventBuffer<S, T>> buffers = new ConcurrentHashMap<>();
+
+    private final int memoryCapacity;
+    private final long maxSpillEntries;
+    private final int replayRatePerSecond;
+    private final File spillDirectory;
+
+    private volatile ScheduledExecutorService replayExecutor;
+
+    /**
+     * @param memoryCapacity      envelopes kept in memory per event before spilling to disk
+     * @param maxSpillEntries     envelopes spilled to disk per event before new ones are dropped (0 = no spilling)
+     * @param replayRatePerSecond envelopes replayed per second per event after resume
+     * @param spillDirectory      directory for the spill files
+     */
+    public PauseBuffer(int memoryCapacity, long maxSpillEntries, int replayRatePerSecond, File spillDirectory) {
+        this.memoryCapacity = memoryCapacity;
+        this.maxSpillEntries = maxSpillEntries;
+        this.replayRatePerSecond = Math.max(1, replayRatePerSecond);
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Checks whether the buffer of an event still holds signals to replay.
+     */
+    public boolean isDraining(String event) {
+        EventBuffer<S, T> buffer = buffers.get(event);
+        return buffer != null && buffer.size() > 0;
+    }
+
+    /**
+     * Buffers a signal of a paused event.
+     *
+     * @return false if the buffer is full and the signal was dropped
+     */
+    public boolean offer(String event, Envelope<S, T> envelope, SignalCallback<S, T> callback,
+                         Consumer<Throwable> errorHandler) {
+        EventBuffer<S, T> buffer = buffers.computeIfAbsent(event, EventBuffer::new);
+        synchronized (buffer) {
+            if (buffer.spilled == 0 && buffer.memory.size() < memoryCapacity) {
+                buffer.memory.addLast(new Pending<>(envelope, callback, errorHandler));
+                return true;
+            }
+            // 一旦开始落盘，后续信号都写入文件，保证回放顺序
+            if (buffer.spilled < maxSpillEntries && spill(buffer, envelope)) {
+                return true;
+            }
+            buffer.dropped.incrementAndGet();
+            log.warn("Pause buffer of signal [{}] is full, signal dropped", event);
+            return false;
+        }
+    }
+
+    /**
+     * Starts replaying the buffered signals of an event.
+     *
+     * @param event    the event
+     * @param dispatch emits a replayed signal, bypassing the pause check
+     * @param paused   tells whether the event has been paused again, replay stops while it is
+     */
+    public void replay(String event, Consumer<Pending<S, T>> dispatch, Predicate<String> paused) {
+        EventBuffer<S, T> buffer = buffers.get(event);
+        if (buffer == null || buffer.size() == 0) {
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.replayTask != null && !buffer.replayTask.isDone()) {
+                return;
+            }
+            int batch = (int) Math.max(1, replayRatePerSecond * REPLAY_TICK_MS / 1000);
+            buffer.replayTask = executor().scheduleAtFixedRate(
+                    () -> replayTick(buffer, batch, dispatch, paused), 0, REPLAY_TICK_MS, TimeUnit.MILLISECONDS);
+        }
+        log.info("Replaying {} buffered signal(s) of [{}] at {}/s", buffer.size(), event, replayRatePerSecond);
+    }
+
+    private void replayTick(EventBuffer<S, T> buffer, int batch, Consumer<Pending<S, T>> dispatch,
+                            Predicate<String> paused) {
+        try {
+            if (paused.test(buffer.event)) {
+                stopReplay(buffer);
+                return;
+            }
+            for (int i = 0; i < batch; i++) {
+                Pending<S, T> next;
+                synchronized (buffer) {
+                    next = poll(buffer);
+                    if (next == null) {
+                        // 缓冲区保留在表中以保留统计信息，避免与并发写入竞争
+                        stopReplay(buffer);
+                        log.info("Pause buffer of signal [{}] drained", buffer.event);
+                        return;
+                    }
+                }
+                dispatch.accept(next);
+            }
+        } catch (Exception e) {
+            log.error("Replay of signal [{}] failed: {}", buffer.event, e.getMessage(), e);
+        }
+    }
+
+    private void stopReplay(EventBuffer<S, T> buffer) {
+        synchronized (buffer) {
+            if (buffer.replayTask != null) {
+                buffer.replayTask.cancel(false);
+                buffer.replayTask = null;
+            }
+        }
+    }
+
+    private Pending<S, T> poll(EventBuffer<S, T> buffer) {
+        Pending<S, T> next = buffer.memory.pollFirst();
+        if (next != null || buffer.spilled == 0) {
+            return next;
+        }
+        try {
+            if (buffer.reader == null) {
+                buffer.writer.flush();
+                buffer.reader = Files.newBufferedReader(buffer.file.toPath(), StandardCharsets.UTF_8);
+            }
+            String line = buffer.reader.readLine();
+            if (line == null) {
+                // 文件内容与计数不一致，放弃剩余的落盘数据
+                log.warn("Spill file of signal [{}] ended early, {} signal(s) lost", buffer.event, buffer.spilled);
+                buffer.dropped.addAndGet(buffer.spilled);
+                buffer.spilled = 0;
+            } else {
+                buffer.spilled--;
+                next = new Pending<>(readEnvelope(line), null, null);
+            }
+        } catch (Exception e) {
+            buffer.dropped.incrementAndGet();
+            buffer.spilled--;
+            log.error("Failed to read spilled signal of [{}]: {}", buffer.event, e.getMessage());
+        }
+        if (buffer.spilled == 0) {
+            closeSpillFile(buffer);
+        }
+        return next;
+    }
+
+    private boolean spill(EventBuffer<S, T> buffer, Envelope<S, T> envelope) {
+        try {
+            if (buffer.writer == null) {
+                if (!spillDirectory.exists() && !spillDirectory.mkdirs()) {
+                    throw new IOException("Cannot create spill directory " + spillDirectory);
+                }
+                buffer.file = File.createTempFile("pause-" + sanitize(buffer.event) + "-", ".jsonl", spillDirectory);
+                buffer.writer = Files.newBufferedWriter(buffer.file.toPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.APPEND);
+                log.info("Pause buffer of signal [{}] spilling to {}", buffer.event, buffer.file);
+            }
+            buffer.writer.write(writeEnvelope(envelope));
+            buffer.writer.newLine();
+            buffer.spilled++;
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to spill signal [{}]: {}", buffer.event, e.getMessage());
+            return false;
+        }
+    }
+
+    private String writeEnvelope(Envelope<S, T> envelope) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("eventType", envelope.getEventType());
+        if (envelope.getSender() != null) {
+            node.put("senderType", envelope.getSender().getClass().getName());
+            node.set("sender", objectMapper.valueToTree(envelope.getSender()));
+        }
+        if (envelope.getPayload() != null) {
+            node.put("payloadType", envelope.getPayload().getClass().getName());
+            node.set("payload", objectMapper.valueToTree(envelope.getPayload()));
+        }
+        SignalContext context = envelope.getContext();
+        if (context != null) {
+            node.put("traceId", context.getTraceId());
+            node.put("eventId", context.getEventId());
+        }
+        return objectMapper.writeValueAsString(node);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Envelope<S, T> readEnvelope(String line) throws IOException, ClassNotFoundException {
+        JsonNode node = objectMapper.readTree(line);
+        SignalContext context = new SignalContext();
+        context.setTraceId(text(node, "traceId"));
+        context.setEventId(text(node, "eventId"));
+        Envelope.Builder<S, T> builder = Envelope.Builder.<S, T>builder()
+                .eventType(text(node, "eventType"))
+                .context(context);
+        if (node.hasNonNull("senderType")) {
+            builder.sender((S) objectMapper.treeToValue(node.get("sender"), loadClass(node.get("senderType").asText())));
+        }
+        if (node.hasNonNull("payloadType")) {
+            builder.payload((T) objectMapper.treeToValue(node.get("payload"), loadClass(node.get("payloadType").asText())));
+        }
+        return builder.build();
+    }
+
+    private static Class<?> loadClass(String name) throws ClassNotFoundException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return Class.forName(name, false, loader != null ? loader : PauseBuffer.class.getClassLoader());
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    private static String sanitize(String event) {
+        String name = event.replaceAll("[^A-Za-z0-9._-]", "_");
+        // File.createTempFile 要求前缀至少 3 个字符
+        return name.length() > 64 ? name.substring(0, 64) : name;
+    }
+
+    private void closeSpillFile(EventBuffer<S, T> buffer) {
+        try {
+            if (buffer.reader != null) {
+                buffer.reader.close();
+            }
+            if (buffer.writer != null) {
+                buffer.writer.close();
+            }
+            if (buffer.file != null) {
+                Files.deleteIfExists(buffer.file.toPath());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up spill file of [{}]: {}", buffer.event, e.getMessage());
+        } finally {
+            buffer.reader = null;
+            buffer.writer = null;
+            buffer.file = null;
+        }
+    }
+
+    private ScheduledExecutorService executor() {
+        ScheduledExecutorService executor = replayExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = replayExecutor;
+                if (executor == null) {
+                    executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "signal-pause-replay");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    replayExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns the buffered, spilled and dropped counts of an event.
+     */
+    public Map<String, Object> getStats(String event) {
+        Map<String, Object> stats = new HashMap<>();
+        EventBuffer<S, T> buffer = buffers.get(event);
+        if (buffer != null) {
+            synchronized (buffer) {
+                stats.put("buffered", buffer.size());
+                stats.put("spilled", buffer.spilled);
+                stats.put("dropped", buffer.dropped.get());
+                stats.put("replaying", buffer.replayTask != null);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Stops replaying and closes the spill files. Spill files are deleted, their signals are lost.
+     */
+    public void shutdown() {
+        ScheduledExecutorService executor = replayExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (EventBuffer<S, T> buffer : buffers.values()) {
+            synchronized (buffer) {
+                if (buffer.size() > 0) {
+                    log.warn("Discarding {} buffered signal(s) of [{}] on shutdown", buffer.size(), buffer.event);
+                }
+                closeSpillFile(buffer);
+            }
+        }
+        buffers.clear();
+    }
+
+    /**
+     * A buffered signal with the callbacks it was emitted with (null for spilled signals).
+     */
+    public static final class Pending<S, T> {
+        private final Envelope<S, T> envelope;
+        private final SignalCallback<S, T> callback;
+        private final Consumer<Throwable> errorHandler;
+
+        Pending(Envelope<S, T> envelope, SignalCallback<S, T> callback, Consumer<Throwable> errorHandler) {
+            this.envelope = envelope;
+            this.callback = callback;
+            this.errorHandler = errorHandler;
+        }
+
+        public Envelope<S, T> getEnvelope() {
+            return envelope;
+        }
+
+        public SignalCallback<S, T> getCallback() {
+            return callback;
+        }
+
+        public Consumer<Throwable> getErrorHandler() {
+            return errorHandler;
+        }
+    }
+
+    private static final class EventBuffer<S, T> {
+        private final String event;
+        private final ArrayDeque<Pending<S, T>> memory = new ArrayDeque<>();
+        private final AtomicLong dropped = new AtomicLong();
+        private File file;
+        private BufferedWriter writer;
+        private BufferedReader reader;
+        private long spilled;
+        private ScheduledFuture<?> replayTask;
+
+        private EventBuffer(String event) {
+            this.event = event;
+        }
+
+        private long size() {
+            return memory.size() + spilled;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.Envelope;
+import io.github.signal.core.model.SignalContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The compiled pipeline of one event: interceptors, then filters, then transformers as flat arrays.
+ * Purpose:
+ * - Built by {@link SignalPipeline} when the stages of an event change, so an emit does a single lookup
+ *   and walks pre-sorted arrays without copying, sorting or allocating.
+ * - Interceptors are sorted by {@link SignalInterceptor#getOrder()}, filters by {@link SignalFilter#getPriority()};
+ *   both sorts are stable so stages with equal order keep their registration order.
+ * - Runs of adjacent independent filters ({@link SignalFilter#isIndependent()}) are evaluated concurrently
+ *   through a {@link FilterEvaluator}, which also serves cached rejections. Chains without such filters and
+ *   without a rejection cache evaluate filters inline.
+ * - Transformers compose: each receives the output of the previous one. Pure transformers return a new
+ *   envelope, {@link SignalTransformer#isMutating() mutating} ones modify their input in place; the caller's
+ *   envelope is copied at most once per emit, before the first mutating stage. That copy is always paid
+ *   when the first mutating stage would see the caller's envelope, since the caller, its callbacks and
+ *   broadcasts still hold it; the saving starts at the second mutating stage, or at the first one when a
+ *   pure stage already returned a fresh envelope.
+ * - {@link #processAsync} chains the async stage variants without blocking, for events configured as async.
+ * - Span recording is a decorator ({@link #compile} with {@code tracing = true}); untraced chains carry no
+ *   tracing code on the emit path.
+ * - Two chains are equal when they run the same stages, which lets broadcasts run a shared pipeline once.
+ *
+ * @param <S> the type of the signal source
+ * @param <T> the type of the signal payload
+ */
+public class PipelineChain<S, T> {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineChain.class);
+
+    private static final SignalInterceptor<?, ?>[] NO_INTERCEPTORS = new SignalInterceptor<?, ?>[0];
+    private static final SignalFilter<?, ?>[] NO_FILTERS = new SignalFilter<?, ?>[0];
+    private static final SignalTransformer<?, ?>[] NO_TRANSFORMERS = new SignalTransformer<?, ?>[0];
+
+    private static final CompletableFuture<Boolean> REJECTED = CompletableFuture.completedFuture(Boolean.FALSE);
+
+    final SignalInterceptor<S, T>[] interceptors;
+    final SignalFilter<S, T>[] filters;
+    final SignalTransformer<S, T>[] transformers;
+
+    // mutating[i] tells whether transformers[i] modifies its input in place
+    final boolean[] mutating;
+
+    // Evaluator of the filters, null when filters are evaluated inline
+    final FilterEvaluator<S, T> evaluator;
+
+    // groupEnd[i] is the exclusive end of the filter group starting at i, null when there are no groups
+    final int[] groupEnd;
+
+    PipelineChain(SignalInterceptor<S, T>[] interceptors, SignalFilter<S, T>[] filters,
+                  SignalTransformer<S, T>[] transformers, FilterEvaluator<S, T> evaluator) {
+        this.interceptors = interceptors;
+        this.filters = filters;
+        this.transformers = transformers;
+        this.mutating = new boolean[transformers.length];
+        for (int i = 0; i < transformers.length; i++) {
+            mutating[i] = transformers[i].isMutating();
+        }
+        this.groupEnd = groupFilters(filters);
+        this.evaluator = evaluator != null && (groupEnd != null || evaluator.getRejectionTtlMillis() > 0)
+                ? evaluator : null;
+    }
+
+    /**
+     * Groups runs of adjacent independent filters, returns null if no run has more than one filter.
+     */
+    private static int[] groupFilters(SignalFilter<?, ?>[] filters) {
+        int[] ends = null;
+        int i = 0;
+        while (i < filters.length) {
+            int end = i + 1;
+            if (filters[i].isIndependent()) {
+                while (end < filters.length && filters[end].isIndependent()) {
+                    end++;
+                }
+            }
+            if (end - i > 1) {
+                if (ends == null) {
+                    ends = new int[filters.length];
+                    for (int k = 0; k < filters.length; k++) {
+                        ends[k] = k + 1;
+                    }
+                }
+                ends[i] = end;
+            }
+            i = end;
+        }
+        return ends;
+    }
+
+    /**
+     * Compiles the stages of an event into a chain.
+     *
+     * @param interceptors the interceptors in registration order
+     * @param filters      the filters in registration order
+     * @param transformers the transformers in registration order
+     * @param evaluator    evaluates independent filter groups and serves cached rejections
+     * @param tracing      whether each stage records a span in the signal context
+     * @return the compiled chain
+     */
+    @SuppressWarnings("unchecked")
+    static <S, T> PipelineChain<S, T> compile(List<SignalInterceptor<S, T>> interceptors,
+                                              List<SignalFilter<S, T>> filters,
+                                              List<SignalTransformer<S, T>> transformers,
+                                              FilterEvaluator<S, T> evaluator, boolean tracing) {
+        SignalInterceptor<S, T>[] sortedInterceptors = (SignalInterceptor<S, T>[]) NO_INTERCEPTORS;
+        if (!interceptors.isEmpty()) {
+            List<SignalInterceptor<S, T>> sorted = new ArrayList<>(interceptors);
+            sorted.sort(Comparator.comparingInt(SignalInterceptor::getOrder));
+            sortedInterceptors = sorted.toArray((SignalInterceptor<S, T>[]) new SignalInterceptor<?, ?>[0]);
+        }
+        SignalFilter<S, T>[] sortedFilters = (SignalFilter<S, T>[]) NO_FILTERS;
+        if (!filters.isEmpty()) {
+            List<SignalFilter<S, T>> sorted = new ArrayList<>(filters);
+            sorted.sort(Comparator.comparingInt(SignalFilter::getPriority));
+            sortedFilters = sorted.toArray((SignalFilter<S, T>[]) new SignalFilter<?, ?>[0]);
+        }
+        SignalTransformer<S, T>[] transformerArray = transformers.isEmpty()
+                ? (SignalTransformer<S, T>[]) NO_TRANSFORMERS
+                : transformers.toArray((SignalTransformer<S, T>[]) new SignalTransformer<?, ?>[0]);
+        return tracing
+                ? new Traced<>(sortedInterceptors, sortedFilters, transformerArray, evaluator)
+                : new PipelineChain<>(sortedInterceptors, sortedFilters, transformerArray, evaluator);
+    }
+
+    /**
+     * Runs the chain.
+     *
+     * @return the envelope to deliver, or null if an interceptor or filter blocked the signal
+     */
+    public Envelope<S, T> process(String event, Envelope<S, T> envelope, SignalContext context) {
+        for (SignalInterceptor<S, T> interceptor : interceptors) {
+            if (!interceptor.beforeHandle(event, envelope)) {
+                log.debug("Signal [{}] blocked by interceptor: {}", event, interceptor.getClass().getSimpleName());
+                return null;
+            }
+        }
+        if (evaluator == null) {
+            for (SignalFilter<S, T> filter : filters) {
+                if (!filter.filter(event, envelope)) {
+                    log.debug("Signal [{}] filtered out by: {}", event, filter.getClass().getSimpleName());
+                    return null;
+                }
+            }
+        } else {
+            for (int i = 0; i < filters.length; i = filterGroupEnd(i)) {
+                if (!testFilters(i, event, envelope)) {
+                    return null;
+                }
+            }
+        }
+        Envelope<S, T> current = envelope;
+        for (int i = 0; i < transformers.length && current != null; i++) {
+            current = transformers[i].transform(event, inputFor(i, current, envelope));
+        }
+        if (current == null) {
+            log.debug("Signal [{}] blocked by transformer", event);
+        }
+        return current;
+    }
+
+    /**
+     * Returns the envelope passed to transformer {@code i}. Mutating transformers never see the caller's
+     * envelope: it is copied once before the first mutating stage, later stages reuse the copy (or the
+     * fresh envelope returned by a pure stage, in which case no copy is made at all).
+     */
+    final Envelope<S, T> inputFor(int i, Envelope<S, T> current, Envelope<S, T> original) {
+        return mutating[i] && current == original ? current.copy() : current;
+    }
+
+    /**
+     * Runs the chain through the async stage variants, each stage starts when the previous one completed.
+     *
+     * @return completes with the envelope to deliver, or with null if an interceptor or filter blocked the signal
+     */
+    public CompletableFuture<Envelope<S, T>> processAsync(String event, Envelope<S, T> envelope, SignalContext context) {
+        CompletableFuture<Boolean> admitted = CompletableFuture.completedFuture(Boolean.TRUE);
+        for (SignalInterceptor<S, T> interceptor : interceptors) {
+            admitted = admitted.thenCompose(ok -> !ok ? REJECTED : interceptor.beforeHandleAsync(event, envelope)
+                    .thenApply(allowed -> {
+                        if (!allowed) {
+                            log.debug("Signal [{}] blocked by interceptor: {}", event, interceptor.getClass().getSimpleName());
+                        }
+                        return allowed;
+                    }));
+        }
+        for (int i = 0; i < filters.length; i = filterGroupEnd(i)) {
+            int group = i;
+            admitted = admitted.thenCompose(ok -> !ok ? REJECTED : testFiltersAsync(group, event, envelope));
+        }
+        return admitted.thenCompose(ok -> {
+            if (!ok) {
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Envelope<S, T>> result = CompletableFuture.completedFuture(envelope);
+            for (int i = 0; i < transformers.length; i++) {
+                int stage = i;
+                result = result.thenCompose(current -> current == null
+                        ? CompletableFuture.completedFuture(null)
+                        : transformers[stage].transformAsync(event, inputFor(stage, current, envelope)));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Evaluates the filter group starting at {@code i} for the async path without blocking. Groups and
+     * cached rejections go through the async variants of the evaluator, every filter runs its async variant.
+     */
+    private CompletionStage<Boolean> testFiltersAsync(int i, String event, Envelope<S, T> envelope) {
+        int end = filterGroupEnd(i);
+        if (end - i > 1) {
+            return evaluator.testAllAsync(filters, i, end, event, envelope);
+        }
+        SignalFilter<S, T> filter = filters[i];
+        CompletionStage<Boolean> result = evaluator != null
+                ? evaluator.testAsync(filter, event, envelope) : filter.filterAsync(event, envelope);
+        return result.thenApply(pass -> {
+            if (!pass) {
+                log.debug("Signal [{}] filtered out by: {}", event, filter.getClass().getSimpleName());
+            }
+            return pass;
+        });
+    }
+
+    /**
+     * Returns the exclusive end of the filter group starting at {@code i}.
+     */
+    final int filterGroupEnd(int i) {
+        return groupEnd != null ? groupEnd[i] : i + 1;
+    }
+
+    /**
+     * Evaluates the filter group starting at {@code i}, concurrently if it has more than one filter.
+     */
+    final boolean testFilters(int i, String event, Envelope<S, T> envelope) {
+        int end = filterGroupEnd(i);
+        if (end - i > 1) {
+            return evaluator.testAll(filters, i, end, event, envelope);
+        }
+        boolean pass = evaluator != null ? evaluator.test(filters[i], event, envelope) : filters[i].filter(event, envelope);
+        if (!pass) {
+            log.debug("Signal [{}] filtered out by: {}", event, filters[i].getClass().getSimpleName());
+        }
+        return pass;
+    }
+
+    /**
+     * Runs the {@code afterHandle} callbacks of the interceptors.
+     */
+    public void postProcess(String event, Envelope<S, T> envelope) {
+        for (SignalInterceptor<S, T> interceptor : interceptors) {
+            try {
+                interceptor.afterHandle(event, envelope, null);  // 假设没有异常，传递 null
+            } catch (Exception ex) {
+                log.error("Error during afterHandle for signal [{}] by interceptor [{}]: {}", event, interceptor.getClass().getSimpleName(), ex.getMessage());
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return interceptors.length == 0 && filters.length == 0 && transformers.length == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PipelineChain)) {
+            return false;
+        }
+        PipelineChain<?, ?> other = (PipelineChain<?, ?>) o;
+        return Arrays.equals(interceptors, other.interceptors)
+                && Arrays.equals(filters, other.filters)
+                && Arrays.equals(transformers, other.transformers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(interceptors) + Arrays.hashCode(filters)) + Arrays.hashCode(transformers);
+    }
+
+    /**
+     * Chain that records a span per stage in the signal context. Span names are built once per chain, so
+     * unsampled traces only pay a sampling check per stage.
+     */
+    private static final class Traced<S, T> extends PipelineChain<S, T> {
+
+        private final String[] interceptorOps;
+        private final String[] filterOps;
+        private final String[] transformerOps;
+
+        private Traced(SignalInterceptor<S, T>[] interceptors, SignalFilter<S, T>[] filters,
+                       SignalTransformer<S, T>[] transformers, FilterEvaluator<S, T> evaluator) {
+            super(interceptors, filters, transformers, evaluator);
+            this.interceptorOps = new String[interceptors.length];
+            for (int i = 0; i < interceptors.length; i++) {
+                interceptorOps[i] = "Interceptor: " + interceptors[i].getClass().getSimpleName();
+            }
+            this.filterOps = new String[filters.length];
+            for (int i = 0; i < filters.length; i = filterGroupEnd(i)) {
+                int size = filterGroupEnd(i) - i;
+                filterOps[i] = size > 1 ? "Filters: parallel(" + size + ")" : "Filter: " + filters[i].getClass().getSimpleName();
+            }
+            this.transformerOps = new String[transformers.length];
+            for (int i = 0; i < transformers.length; i++) {
+                transformerOps[i] = "Transformer: " + transformers[i].getClass().getSimpleName();
+            }
+        }
+
+        @Override
+        public Envelope<S, T> process(String event, Envelope<S, T> envelope, SignalContext context) {
+            for (int i = 0; i < interceptors.length; i++) {
+                SignalContext.Span span = context.startSpan(interceptorOps[i]);
+                boolean allowed;
+                try {
+                    allowed = interceptors[i].beforeHandle(event, envelope);
+                } finally {
+                    context.endSpan(span);
+                }
+                if (!allowed) {
+                    log.debug("Signal [{}] blocked by interceptor: {}", event, interceptors[i].getClass().getSimpleName());
+                    return null;
+                }
+            }
+            for (int i = 0; i < filters.length; i = filterGroupEnd(i)) {
+                SignalContext.Span span = context.startSpan(filterOps[i]);
+                boolean pass;
+                try {
+                    pass = testFilters(i, event, envelope);
+                } finally {
+                    context.endSpan(span);
+                }
+                if (!pass) {
+                    return null;
+                }
+            }
+            Envelope<S, T> current = envelope;
+            for (int i = 0; i < transformers.length && current != null; i++) {
+                SignalContext.Span span = context.startSpan(transformerOps[i]);
+                try {
+                    current = transformers[i].transform(event, inputFor(i, current, envelope));
+                } finally {
+                    context.endSpan(span);
+                }
+            }
+            if (current == null) {
+                log.debug("Signal [{}] blocked by transformer", event);
+            }
+            return current;
+        }
+
+        @Override
+        public CompletableFuture<Envelope<S, T>> processAsync(String event, Envelope<S, T> envelope, SignalContext context) {
+            // 异步阶段可能在不同线程完成，整条管道记录为一个 span
+            SignalContext.Span span = context.startSpan("Pipeline: async");
+            return super.processAsync(event, envelope, context).whenComplete((result, error) -> context.endSpan(span));
+        }
+    }
+}
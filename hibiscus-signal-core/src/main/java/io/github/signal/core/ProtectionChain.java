@@ -0,0 +1,128 @@
+package io.github.signal.core;
+
+import io.github.signal.core.enums.SignalPriority;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable, pre-sorted chain of protection policies for one signal.
+ * Purpose:
+ * - Built once by {@link SignalProtectionManager} when the policies of a signal change.
+ * - Evaluated on every emit by iterating a plain array, without allocation.
+ */
+public final class ProtectionChain {
+
+    /**
+     * Chain without any policy, admits every signal
+     */
+    public static final ProtectionChain EMPTY = new ProtectionChain(new ProtectionPolicy[0]);
+
+    private final ProtectionPolicy[] policies;
+
+    private final boolean requiresRelease;
+
+    private ProtectionChain(ProtectionPolicy[] policies) {
+        this.policies = policies;
+        boolean release = false;
+        for (ProtectionPolicy policy : policies) {
+            release |= policy.requiresRelease();
+        }
+        this.requiresRelease = release;
+    }
+
+    /**
+     * Compiles the given policies into a chain sorted by {@link ProtectionPolicy#getOrder()}.
+     *
+     * @param global   policies shared by all signals, evaluated first on equal order
+     * @param policies policies of a single signal
+     * @return the compiled chain
+     */
+    static ProtectionChain compile(ProtectionPolicy[] global, ProtectionPolicy[] policies) {
+        if (global.length == 0 && policies.length == 0) {
+            return EMPTY;
+        }
+        ProtectionPolicy[] merged = new ProtectionPolicy[global.length + policies.length];
+        System.arraycopy(global, 0, merged, 0, global.length);
+        System.arraycopy(policies, 0, merged, global.length, policies.length);
+        // Arrays.sort on objects is stable, so global policies stay in front on equal order
+        Arrays.sort(merged, Comparator.comparingInt(ProtectionPolicy::getOrder));
+        return new ProtectionChain(merged);
+    }
+
+    /**
+     * Tries to admit a signal through every policy of the chain.
+     * If a policy rejects the signal, the policies that already admitted it are released.
+     *
+     * @param signal   the name of the signal
+     * @param priority the priority of the signal
+     * @return true if every policy admitted the signal
+     */
+    public boolean tryAcquire(String signal, SignalPriority priority) {
+        ProtectionPolicy[] p = policies;
+        for (int i = 0; i < p.length; i++) {
+            if (!p[i].tryAcquire(signal, priority)) {
+                for (int j = 0; j < i; j++) {
+                    p[j].release(signal);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Releases every policy of the chain, called once the emit has completed.
+     *
+     * @param signal the name of the signal
+     */
+    public void release(String signal) {
+        if (!requiresRelease) {
+            return;
+        }
+        for (ProtectionPolicy policy : policies) {
+            policy.release(signal);
+        }
+    }
+
+    /**
+     * Whether {@link #release} must be called once the emit has completed.
+     */
+    public boolean requiresRelease() {
+        return requiresRelease;
+    }
+
+    void update(String signal, long emitCount, long errorCount) {
+        for (ProtectionPolicy policy : policies) {
+            policy.update(signal, emitCount, errorCount);
+        }
+    }
+
+    void onResult(String signal, boolean success) {
+        for (ProtectionPolicy policy : policies) {
+            policy.onResult(signal, success);
+        }
+    }
+
+    /**
+     * Returns the first policy of the given type, or null if none is present.
+     */
+    <P extends ProtectionPolicy> P find(Class<P> type) {
+        for (ProtectionPolicy policy : policies) {
+            if (type.isInstance(policy)) {
+                return type.cast(policy);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the policies of the chain in evaluation order.
+     */
+    public List<ProtectionPolicy> getPolicies() {
+        return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(policies)));
+    }
+}
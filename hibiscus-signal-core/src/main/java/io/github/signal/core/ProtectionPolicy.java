@@ -0,0 +1,69 @@
+package io.github.signal.core;
+
+import io.github.signal.core.enums.SignalPriority;
+
+/**
+ * SPI for a single protection stage applied before a signal is emitted.
+ * Purpose:
+ * - Rate limiting, concurrency limiting, circuit breaking, load shedding and quotas are all
+ *   expressed as policies that are chained per signal by {@link SignalProtectionManager}.
+ * - The chain is compiled into an array whenever policies change, so evaluating it on emit
+ *   does not allocate.
+ */
+public interface ProtectionPolicy {
+
+    /**
+     * Tries to admit a signal.
+     *
+     * @param signal   the name of the signal
+     * @param priority the priority of the signal
+     * @return true if the signal may proceed, false if it should be blocked
+     */
+    boolean tryAcquire(String signal, SignalPriority priority);
+
+    /**
+     * Releases whatever {@link #tryAcquire} reserved.
+     * Called once the emit has completed, or when a later policy in the chain rejected the signal.
+     *
+     * @param signal the name of the signal
+     */
+    default void release(String signal) {
+    }
+
+    /**
+     * Whether {@link #release} must be called for this policy.
+     * The chain only tracks completion of an emit when at least one policy needs it.
+     *
+     * @return true if the policy holds a resource between acquire and release
+     */
+    default boolean requiresRelease() {
+        return false;
+    }
+
+    /**
+     * Called after a handler finished, with the current emit and error counts of the signal.
+     *
+     * @param signal     the name of the signal
+     * @param emitCount  total number of emits recorded for the signal
+     * @param errorCount total number of errors recorded for the signal
+     */
+    default void update(String signal, long emitCount, long errorCount) {
+    }
+
+    /**
+     * Called when the processing result of a signal is known.
+     *
+     * @param signal  the name of the signal
+     * @param success whether processing succeeded
+     */
+    default void onResult(String signal, boolean success) {
+    }
+
+    /**
+     * 获取策略执行顺序
+     * @return 顺序，数字越小越先执行
+     */
+    default int getOrder() {
+        return 0;
+    }
+}
@@ -1,13 +1,11 @@
 package io.github.signal.core;
 
-import java.util.Deque;
-import java.util.LinkedList;
-
 /**
  * A simple rate limiter that restricts the number of allowed requests per second.
  * Purpose:
  * - Prevents excessive requests from overwhelming the system.
  * - Uses a sliding window approach to track requests in the last 1 second.
+ * - Timestamps are kept in a fixed ring buffer, so checking a request does not allocate.
  */
 public class RateLimiter {
 
@@ -17,9 +15,19 @@ public class RateLimiter {
     private final int maxRequestsPerSecond;
 
     /**
-     * Timestamps of recent requests
+     * Timestamps of recent requests, oldest at {@code head}
+     */
+    private final long[] timestamps;
+
+    /**
+     * Index of the oldest timestamp in the ring
      */
-    private final Deque<Long> timestamps = new LinkedList<>();
+    private int head = 0;
+
+    /**
+     * Number of timestamps currently in the ring
+     */
+    private int size = 0;
 
     /**
      * Constructs a RateLimiter with the specified maximum requests per second.
@@ -28,6 +36,7 @@ public class RateLimiter {
      */
     public RateLimiter(int maxRequestsPerSecond) {
         this.maxRequestsPerSecond = maxRequestsPerSecond;
+        this.timestamps = new long[Math.max(maxRequestsPerSecond, 1)];
     }
 
     /**
@@ -39,23 +48,19 @@ public class RateLimiter {
      */
     public synchronized boolean allowRequest() {
         long now = System.currentTimeMillis();
-        long oneSecondAgo = now - 1000;
-
-        // Remove timestamps that are outside the 1-second window
-        while (!timestamps.isEmpty() && timestamps.peekFirst() < oneSecondAgo) {
-            timestamps.pollFirst();
-        }
+        evictExpired(now - 1000);
 
         // If the number of requests is below the threshold, allow the new request
-        if (timestamps.size() < maxRequestsPerSecond) {
-            timestamps.addLast(now);
+        if (size < maxRequestsPerSecond) {
+            timestamps[(head + size) % timestamps.length] = now;
+            size++;
             return true;
         } else {
             // Rate limit exceeded
             return false;
         }
     }
-    
+
     /**
      * Checks whether a request can be allowed without actually allowing it.
      * This is a read-only operation that doesn't change the internal state.
@@ -63,15 +68,26 @@ public class RateLimiter {
      * @return true if a request can be allowed, false otherwise
      */
     public synchronized boolean canAllowRequest() {
-        long now = System.currentTimeMillis();
-        long oneSecondAgo = now - 1000;
-
-        // Remove timestamps that are outside the 1-second window
-        while (!timestamps.isEmpty() && timestamps.peekFirst() < oneSecondAgo) {
-            timestamps.pollFirst();
-        }
+        evictExpired(System.currentTimeMillis() - 1000);
 
         // Return whether a request can be allowed (without adding the timestamp)
-        return timestamps.size() < maxRequestsPerSecond;
+        return size < maxRequestsPerSecond;
+    }
+
+    /**
+     * Returns the maximum number of allowed requests per second.
+     */
+    public int getMaxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+
+    /**
+     * Removes timestamps that are outside the 1-second window.
+     */
+    private void evictExpired(long oneSecondAgo) {
+        while (size > 0 && timestamps[head] < oneSecondAgo) {
+            head = (head + 1) % timestamps.length;
+            size--;
+        }
     }
 }
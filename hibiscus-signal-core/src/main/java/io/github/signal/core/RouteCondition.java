@@ -0,0 +1,84 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.Envelope;
+import io.github.signal.core.model.SignalContext;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * An indexable routing condition: a handler only receives signals whose named attribute equals a value.
+ * Purpose:
+ * - Replaces {@code handler.when(envelope -> region.equals(...))} predicates that every emit evaluates for
+ *   every handler. The registry groups routed handlers by attribute and value, so an emit extracts each
+ *   attribute once and looks the matching handlers up in a hash index.
+ * - The attribute is read from the {@link SignalContext} ({@link #contextAttribute}) or from the payload
+ *   through an extractor ({@link #payload}).
+ * - Conditions with the same attribute name must extract the attribute the same way; the registry uses the
+ *   extractor of the first condition registered under a name.
+ *
+ * @param <S> the type of the signal source
+ * @param <T> the type of the signal payload
+ */
+public final class RouteCondition<S, T> {
+
+    private final String attribute;
+    private final Function<Envelope<S, T>, ?> extractor;
+    private final Object value;
+
+    private RouteCondition(String attribute, Function<Envelope<S, T>, ?> extractor, Object value) {
+        this.attribute = Objects.requireNonNull(attribute, "attribute");
+        this.extractor = Objects.requireNonNull(extractor, "extractor");
+        this.value = Objects.requireNonNull(value, "value");
+    }
+
+    /**
+     * Matches signals whose context attribute {@code name} equals {@code value}.
+     */
+    public static <S, T> RouteCondition<S, T> contextAttribute(String name, Object value) {
+        return new RouteCondition<>("context:" + name, envelope -> {
+            SignalContext context = envelope.getContext();
+            return context != null ? context.getAttribute(name) : null;
+        }, value);
+    }
+
+    /**
+     * Matches signals whose payload field, read by {@code extractor}, equals {@code value}.
+     *
+     * @param name      the name of the payload field, identifies the extractor in the routing index
+     * @param extractor reads the field from a non-null payload
+     * @param value     the value to match
+     */
+    public static <S, T> RouteCondition<S, T> payload(String name, Function<? super T, ?> extractor, Object value) {
+        return new RouteCondition<>("payload:" + name, envelope -> {
+            T payload = envelope.getPayload();
+            return payload != null ? extractor.apply(payload) : null;
+        }, value);
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Reads the routed attribute of an envelope.
+     *
+     * @return the attribute value, null if the envelope does not have it
+     */
+    public Object extract(Envelope<S, T> envelope) {
+        return extractor.apply(envelope);
+    }
+
+    public boolean matches(Envelope<S, T> envelope) {
+        return value.equals(extract(envelope));
+    }
+
+    @Override
+    public String toString() {
+        return attribute + "=" + value;
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.Envelope;
+import io.github.signal.core.model.Sig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index over the routed handlers of one handler array.
+ * Purpose:
+ * - Splits the handlers into unrouted ones (always selected) and routed ones grouped by
+ *   {@link RouteCondition#getAttribute() attribute} and value.
+ * - Selecting the handlers of an envelope extracts each attribute once and looks the value up,
+ *   instead of evaluating one predicate per handler.
+ * - The selection keeps the order of the source array (priority, then registration order), by merging
+ *   the positions of the selected handlers.
+ * - Built lazily by the registry for a handler array and discarded when the array changes.
+ *
+ * @param <S> the type of the signal source
+ * @param <T> the type of the signal payload
+ */
+final class RoutingIndex<S, T> {
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    // The handler array this index was built for
+    final Sig<S, T>[] source;
+
+    // Positions of the handlers without a route
+    private final int[] unrouted;
+
+    // The handlers without a route, selected when no route matches
+    private final Sig<S, T>[] unroutedSigs;
+
+    private final Route<S, T>[] routes;
+
+    RoutingIndex(Sig<S, T>[] source) {
+        this.source = source;
+        Map<String, Route<S, T>> byAttribute = new LinkedHashMap<>();
+        int[] plain = new int[source.length];
+        int plainCount = 0;
+        for (int i = 0; i < source.length; i++) {
+            RouteCondition<S, T> condition = source[i].getRoute();
+            if (condition == null) {
+                plain[plainCount++] = i;
+            } else {
+                byAttribute.computeIfAbsent(condition.getAttribute(), k -> new Route<>(condition))
+                        .add(condition.getValue(), i);
+            }
+        }
+        this.unrouted = Arrays.copyOf(plain, plainCount);
+        this.unroutedSigs = pick(unrouted, plainCount);
+        this.routes = byAttribute.values().toArray(newRoutes(byAttribute.size()));
+        for (Route<S, T> route : routes) {
+            route.seal();
+        }
+    }
+
+    /**
+     * Checks whether any handler of the source array has a route.
+     */
+    boolean isRouted() {
+        return routes.length > 0;
+    }
+
+    /**
+     * Selects the handlers that receive an envelope: every unrouted handler plus the routed handlers whose
+     * condition matches.
+     */
+    Sig<S, T>[] select(Envelope<S, T> envelope) {
+        int[][] matched = null;
+        int total = unrouted.length;
+        for (int r = 0; r < routes.length; r++) {
+            int[] positions = routes[r].lookup(envelope);
+            if (positions.length > 0) {
+                if (matched == null) {
+                    matched = new int[routes.length][];
+                }
+                matched[r] = positions;
+                total += positions.length;
+            }
+        }
+        if (matched == null) {
+            return unroutedSigs;
+        }
+        int[] selected = Arrays.copyOf(unrouted, total);
+        int n = unrouted.length;
+        for (int[] positions : matched) {
+            if (positions != null) {
+                System.arraycopy(positions, 0, selected, n, positions.length);
+                n += positions.length;
+            }
+        }
+        Arrays.sort(selected);
+        return pick(selected, n);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, T> Route<S, T>[] newRoutes(int size) {
+        return (Route<S, T>[]) new Route<?, ?>[size];
+    }
+
+    private Sig<S, T>[] pick(int[] positions, int count) {
+        Sig<S, T>[] sigs = HandlerSet.newArray(count);
+        for (int i = 0; i < count; i++) {
+            sigs[i] = source[positions[i]];
+        }
+        return sigs;
+    }
+
+    /**
+     * The routed handlers of one attribute, by value.
+     */
+    private static final class Route<S, T> {
+        private final RouteCondition<S, T> extractor;
+        private final Map<Object, List<Integer>> building = new HashMap<>();
+        private Map<Object, int[]> positions;
+
+        private Route(RouteCondition<S, T> extractor) {
+            this.extractor = extractor;
+        }
+
+        private void add(Object value, int position) {
+            building.computeIfAbsent(value, k -> new ArrayList<>()).add(position);
+        }
+
+        private void seal() {
+            positions = new HashMap<>(building.size() * 2);
+            building.forEach((value, list) -> {
+                int[] array = new int[list.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = list.get(i);
+                }
+                positions.put(value, array);
+            });
+            building.clear();
+        }
+
+        private int[] lookup(Envelope<S, T> envelope) {
+            Object value = extractor.extract(envelope);
+            if (value == null) {
+                return NO_POSITIONS;
+            }
+            int[] found = positions.get(value);
+            return found != null ? found : NO_POSITIONS;
+        }
+    }
+}
@@ -7,7 +7,6 @@ import io.github.signal.core.model.SignalContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
@@ -47,24 +46,24 @@ public class SignalEmitter<S, T> {
     /**
      * 同步发射信号
      */
-    public void emitSync(String event, Envelope<S, T> envelope, List<Sig<S, T>> sigs,
-                         SignalConfig config, Consumer<Throwable> errorHandler,
+    public void emitSync(String event, Envelope<S, T> envelope, Sig<S, T>[] sigs,
+                         SignalConfig config, SignalContext context, Consumer<Throwable> errorHandler,
                          SignalCallback<S, T> callback,  SignalProtectionManager protectionManager) {
-        for (Sig<S, T> sig : sigs) {
-            long startTime = System.currentTimeMillis();
-            SignalContext context = new SignalContext();
+        for (int i = 0; i < sigs.length; i++) {
+            Sig<S, T> sig = sigs[i];
+            if (sig.isExpired()) {
+                continue;
+            }
+            long startTime = System.nanoTime();
+            SignalContext handlerContext = handlerContext(context);
             try {
-                signalProcessor.executeWithTracingAndProtection(event, sig, envelope, config, context, protectionManager, metrics);
-                if (config.isRecordMetrics()) {
-                    // 记录处理时间
-                    long processingTime = System.currentTimeMillis() - startTime;
-                    metrics.recordProcessingTime(event, processingTime);
-                    log.debug("Signal [{}] processed in {}ms", event, processingTime);
-                }
+                signalProcessor.executeWithTracingAndProtection(event, sig, envelope, config, handlerContext, protectionManager, metrics);
+                recordHandlerLatency(event, sig, config, startTime);
                 if (callback != null) {
                     callback.onSuccess(event, envelope);
                 }
             } catch (Exception e) {
+                recordHandlerLatency(event, sig, config, startTime);
                 handleError(event, config, errorHandler, e);
                 if (callback != null) {
                     callback.onError(event, envelope, e);
@@ -79,26 +78,41 @@ public class SignalEmitter<S, T> {
 
     /**
      * 异步发射信号
+     *
+     * @return 所有处理器执行完成时完成的 future
      */
-    public void emitAsync(String event, Envelope<S, T> envelope, List<Sig<S, T>> sigs,
-                          SignalConfig config, Consumer<Throwable> errorHandler,
-                          SignalCallback<S, T> callback, SignalProtectionManager protectionManager) {
-        for (Sig<S, T> sig : sigs) {
-            CompletableFuture.runAsync(() -> {
-                long startTime = System.currentTimeMillis();
-                SignalContext context = new SignalContext();
+    public CompletableFuture<Void> emitAsync(String event, Envelope<S, T> envelope, Sig<S, T>[] sigs,
+                                             SignalConfig config, SignalContext context, Consumer<Throwable> errorHandler,
+                                             SignalCallback<S, T> callback, SignalProtectionManager protectionManager) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[sigs.length];
+        for (int i = 0; i < sigs.length; i++) {
+            Sig<S, T> sig = sigs[i];
+            if (sig.isExpired()) {
+                futures[i] = CompletableFuture.completedFuture(null);
+                continue;
+            }
+            long enqueuedAt = System.nanoTime();
+            futures[i] = CompletableFuture.runAsync(() -> {
+                long startTime = System.nanoTime();
+                // 记录排队时间，供负载削减判断执行器是否积压
+                long queueDelay = startTime - enqueuedAt;
+                if (protectionManager != null) {
+                    protectionManager.recordQueueDelay(queueDelay);
+                }
+                if (config.isRecordMetrics()) {
+                    metrics.recordLatency(event, SignalMetrics.Phase.QUEUE_WAIT, queueDelay);
+                }
+                SignalContext handlerContext = handlerContext(context);
                 try {
-                    signalProcessor.executeWithTracingAndProtection(event, sig, envelope, config, context,
+                    // 超时与重试已由 executeWithTracingAndProtection 处理，处理器只执行一次
+                    signalProcessor.executeWithTracingAndProtection(event, sig, envelope, config, handlerContext,
                             protectionManager, metrics);
-                    signalProcessor.executeWithTimeout(sig, envelope, 1000L);
-                    if (config.isRecordMetrics()) {
-                        long processingTime = System.currentTimeMillis() - startTime;
-                        log.debug("Signal [{}] processed asynchronously in {}ms", event, processingTime);
-                    }
+                    recordHandlerLatency(event, sig, config, startTime);
                     if (callback != null) {
                         callback.onSuccess(event, envelope);
                     }
                 } catch (Exception e) {
+                    recordHandlerLatency(event, sig, config, startTime);
                     handleError(event, config, errorHandler, e);
                     if (callback != null) {
                         callback.onError(event, envelope, e);
@@ -110,6 +124,29 @@ public class SignalEmitter<S, T> {
                 }
             }, executorService);
         }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * 处理器的追踪上下文：继承发射上下文的采样决定和父 span，span 记录到同一条追踪中，
+     * 未采样的追踪不创建 span
+     */
+    private static SignalContext handlerContext(SignalContext context) {
+        return context != null ? context.child() : new SignalContext();
+    }
+
+    /**
+     * 记录处理器执行时间（纳秒精度）
+     */
+    private void recordHandlerLatency(String event, Sig<S, T> sig, SignalConfig config, long startTime) {
+        if (!config.isRecordMetrics()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startTime;
+        metrics.recordHandlerLatency(event, sig.getId(), elapsed);
+        if (log.isDebugEnabled()) {
+            log.debug("Signal [{}] handler {} processed in {}us", event, sig.getId(), elapsed / 1000);
+        }
     }
 
     /**
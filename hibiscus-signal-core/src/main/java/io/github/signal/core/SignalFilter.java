@@ -2,6 +2,9 @@ package io.github.signal.core;
 
 import io.github.signal.core.model.Envelope;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 @FunctionalInterface
 public interface SignalFilter<S, T> {
 
@@ -11,6 +14,16 @@ public interface SignalFilter<S, T> {
      */
     boolean filter(String event, Envelope<S, T> envelope);
 
+    /**
+     * 异步过滤信号，异步事件的管道使用该方法。
+     * 默认在当前线程调用 {@link #filter}，需要等待远程调用等耗时操作时可覆盖为非阻塞实现
+     *
+     * @return 完成值为 true 表示继续传播，false 表示阻止
+     */
+    default CompletionStage<Boolean> filterAsync(String event, Envelope<S, T> envelope) {
+        return CompletableFuture.completedFuture(filter(event, envelope));
+    }
+
     /**
      * 指定筛选器的优先级。
      * 优先级值较低的过滤器将首先执行。
@@ -20,4 +33,24 @@ public interface SignalFilter<S, T> {
     default int getPriority() {
         return 0;
     }
+
+    /**
+     * 过滤器是否独立（无副作用、不依赖其他过滤器的结果）。
+     * 优先级相邻的独立过滤器会被并发执行，任一过滤器拒绝时取消其余过滤器。
+     *
+     * @return 是否独立（默认为 false，按顺序执行）
+     */
+    default boolean isIndependent() {
+        return false;
+    }
+
+    /**
+     * 拒绝结果的缓存键。
+     * 返回非 null 时，该键被拒绝后在缓存有效期内直接拒绝，不再执行过滤器。
+     *
+     * @return 缓存键（默认为 null，不缓存）
+     */
+    default Object getCacheKey(String event, Envelope<S, T> envelope) {
+        return null;
+    }
 }
@@ -22,6 +22,8 @@ public interface SignalHandler<S, T> {
 
     /**
      * Filter a signal.
+     * The predicate runs for every emit; for equality on an attribute, register the handler with a
+     * {@link RouteCondition} instead so the registry can look it up in a hash index.
      */
     default SignalHandler<S, T> when(SignalPredicate<S, T> predicate) {
         return (envelope) -> {
@@ -2,6 +2,9 @@ package io.github.signal.core;
 
 import io.github.signal.core.model.Envelope;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 public interface SignalInterceptor<S, T> {
 
     /**
@@ -14,6 +17,17 @@ public interface SignalInterceptor<S, T> {
         return true;
     }
 
+    /**
+     * 信号处理前的异步拦截，异步事件的管道使用该方法
+     * 默认在当前线程调用 {@link #beforeHandle}，需要等待远程调用等耗时操作时可覆盖为非阻塞实现
+     * @param event 信号名称
+     * @param envelope 信号内容
+     * @return 完成值为 true 表示继续处理，false 表示中断处理
+     */
+    default CompletionStage<Boolean> beforeHandleAsync(String event, Envelope<S, T> envelope) {
+        return CompletableFuture.completedFuture(beforeHandle(event, envelope));
+    }
+
     /**
      * 信号处理后的拦截
      * @param event 信号名称
@@ -2,126 +2,386 @@ package io.github.signal.core;
 
 import io.github.signal.core.model.SignalContext;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
  * Signal Metrics
+ * 每个事件的指标保存在一个持有者对象中，记录时只查找一次；计数使用 LongAdder 分段累加，
+ * 时间戳使用 lazySet 写入，读取时按需生成快照
  */
 public class SignalMetrics {
 
     /**
-     * Signal EmitCount
+     * 延迟阶段
      */
-    private final Map<String, AtomicLong> emitCount = new ConcurrentHashMap<>();
-
-    /**
-     * Signal HandlerCount
-     */
-    private final Map<String, AtomicLong> handlerCount = new ConcurrentHashMap<>();
-
-    /**
-     * Signal ProcessingTime
-     */
-    private final Map<String, AtomicLong> processingTime = new ConcurrentHashMap<>();
+    public enum Phase {
+        /**
+         * 异步管道与异步处理器在线程池队列中的等待时间
+         */
+        QUEUE_WAIT,
+        /**
+         * 拦截器、过滤器与转换器管道的执行时间
+         */
+        PIPELINE,
+        /**
+         * 处理器的执行时间（含重试与保护策略）
+         */
+        HANDLER
+    }
 
     /**
-     * Signal ErrorCount
+     * 单个事件保留的处理器延迟直方图上限，超出时淘汰最近未记录的处理器
      */
-    private final Map<String, AtomicLong> errorCount = new ConcurrentHashMap<>();
+    private static final int MAX_HANDLER_HISTOGRAMS = 1000;
 
     /**
-     * Signal LastEmitTime
+     * Signal Metrics By Event
      */
-    private final Map<String, Long> lastEmitTime = new ConcurrentHashMap<>();
+    private final Map<String, EventMetrics> events = new ConcurrentHashMap<>();
 
     /**
-     * Signal Event Traces
+     * Signal Event Traces (bounded, sampled)
      */
-    private final Map<String, SignalContext> eventTraces = new ConcurrentHashMap<>();
+    private volatile TraceStore traceStore = TraceStore.builder().build();
 
     /**
      * Signal ProcessedCount
      */
-    private final AtomicLong processedCount = new AtomicLong();
+    private final LongAdder processedCount = new LongAdder();
 
     /**
-     * Signal ProcessedCountByEvent
+     * Cache Stats Suppliers (e.g. caching transformers)
      */
-    private final Map<String, AtomicLong> processedCountByEvent = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<Map<String, Object>>> cacheStats = new ConcurrentHashMap<>();
 
     /**
-     * Signal LastProcessTime
+     * 获取事件的指标持有者，不存在时创建
      */
-    private final Map<String, Long> lastProcessTime = new ConcurrentHashMap<>();
+    private EventMetrics holder(String signalName) {
+        EventMetrics holder = events.get(signalName);
+        return holder != null ? holder : events.computeIfAbsent(signalName, k -> new EventMetrics());
+    }
 
     public void recordEmit(String signalName) {
-        emitCount.computeIfAbsent(signalName, k -> new AtomicLong()).incrementAndGet();
-        lastEmitTime.put(signalName, System.currentTimeMillis());
+        EventMetrics holder = holder(signalName);
+        holder.emitCount.increment();
+        holder.lastEmitTime.lazySet(System.currentTimeMillis());
     }
 
     public void recordHandlerAdded(String signalName) {
-        handlerCount.computeIfAbsent(signalName, k -> new AtomicLong()).incrementAndGet();
+        holder(signalName).handlerCount.increment();
     }
 
     public void recordHandlerRemoved(String signalName) {
-        handlerCount.computeIfAbsent(signalName, k -> new AtomicLong()).decrementAndGet();
+        holder(signalName).handlerCount.decrement();
+    }
+
+    public void recordHandlersReaped(String signalName, int count) {
+        EventMetrics holder = holder(signalName);
+        holder.handlerCount.add(-count);
+        holder.reapedCount.add(count);
     }
 
     public void recordProcessingTime(String signalName, long timeInMillis) {
-        processingTime.computeIfAbsent(signalName, k -> new AtomicLong()).addAndGet(timeInMillis);
+        holder(signalName).processingTime.add(TimeUnit.MILLISECONDS.toNanos(timeInMillis));
+    }
+
+    /**
+     * 记录某个阶段的延迟
+     *
+     * @param nanos 延迟（纳秒）
+     */
+    public void recordLatency(String signalName, Phase phase, long nanos) {
+        holder(signalName).phases()[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * 记录处理器的执行时间：计入处理时间总和、事件的处理器阶段直方图和该处理器的直方图
+     *
+     * @param handlerId 处理器 ID，为 null 时只记录事件级别的延迟
+     * @param nanos     执行时间（纳秒）
+     */
+    public void recordHandlerLatency(String signalName, Long handlerId, long nanos) {
+        EventMetrics holder = holder(signalName);
+        holder.processingTime.add(nanos);
+        holder.phases()[Phase.HANDLER.ordinal()].record(nanos);
+        if (handlerId == null) {
+            return;
+        }
+        holder.handlers().computeIfAbsent(handlerId, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * 获取事件某个阶段的延迟直方图，可用于获取累计快照或区间快照
+     *
+     * @return 直方图，事件尚未记录延迟时返回 null
+     */
+    public LatencyHistogram getLatencyHistogram(String signalName, Phase phase) {
+        EventMetrics holder = events.get(signalName);
+        LatencyHistogram[] phases = holder != null ? holder.phases : null;
+        return phases != null ? phases[phase.ordinal()] : null;
+    }
+
+    /**
+     * 获取事件各处理器的延迟直方图
+     *
+     * @return 处理器 ID -> 直方图
+     */
+    public Map<Long, LatencyHistogram> getHandlerLatencyHistograms(String signalName) {
+        EventMetrics holder = events.get(signalName);
+        BoundedCache<Long, LatencyHistogram> byHandler = holder != null ? holder.handlers : null;
+        Map<Long, LatencyHistogram> histograms = new LinkedHashMap<>();
+        if (byHandler != null) {
+            byHandler.forEach(histograms::put);
+        }
+        return histograms;
     }
 
     public void recordError(String signalName) {
-        errorCount.computeIfAbsent(signalName, k -> new AtomicLong()).incrementAndGet();
+        holder(signalName).errorCount.increment();
+    }
+
+    public void recordShed(String signalName) {
+        holder(signalName).shedCount.increment();
+    }
+
+    public long getEmitCount(String signalName) {
+        EventMetrics holder = events.get(signalName);
+        return holder != null ? holder.emitCount.sum() : 0L;
+    }
+
+    public long getErrorCount(String signalName) {
+        EventMetrics holder = events.get(signalName);
+        return holder != null ? holder.errorCount.sum() : 0L;
+    }
+
+    public long getLiveHandlerCount(String signalName) {
+        EventMetrics holder = events.get(signalName);
+        return holder != null ? holder.handlerCount.sum() : 0L;
+    }
+
+    public long getReapedCount(String signalName) {
+        EventMetrics holder = events.get(signalName);
+        return holder != null ? holder.reapedCount.sum() : 0L;
+    }
+
+    public long getShedCount(String signalName) {
+        EventMetrics holder = events.get(signalName);
+        return holder != null ? holder.shedCount.sum() : 0L;
     }
 
     public Map<String, Object> getMetrics(String signalName) {
-        Map<String, Object> metrics = new ConcurrentHashMap<>();
-        metrics.put("emitCount", emitCount.getOrDefault(signalName, new AtomicLong()).get());
-        metrics.put("handlerCount", handlerCount.getOrDefault(signalName, new AtomicLong()).get());
-        metrics.put("totalProcessingTime", processingTime.getOrDefault(signalName, new AtomicLong()).get());
-        metrics.put("errorCount", errorCount.getOrDefault(signalName, new AtomicLong()).get());
-        metrics.put("lastEmitTime", lastEmitTime.getOrDefault(signalName, 0L));
-        return metrics;
+        EventMetrics holder = events.get(signalName);
+        return holder != null ? holder.snapshot() : EventMetrics.EMPTY.snapshot();
+    }
+
+    /**
+     * 获取有指标记录的事件名
+     */
+    public Set<String> getEventNames() {
+        return new HashSet<>(events.keySet());
     }
 
     public Map<String, Map<String, Object>> getAllMetrics() {
-        Map<String, Map<String, Object>> allMetrics = new ConcurrentHashMap<>();
-        emitCount.keySet().forEach(signalName ->
-                allMetrics.put(signalName, getMetrics(signalName))
-        );
+        Map<String, Map<String, Object>> allMetrics = new HashMap<>();
+        events.forEach((signalName, holder) -> {
+            // 被削减的信号可能从未成功发射
+            if (holder.emitCount.sum() > 0 || holder.shedCount.sum() > 0) {
+                allMetrics.put(signalName, holder.snapshot());
+            }
+        });
         return allMetrics;
     }
 
 
+    /**
+     * 移除事件的所有指标并返回计数快照，用于将空闲事件转入冷存储；延迟直方图不进入快照，直接丢弃
+     *
+     * @return 计数快照，可通过 {@link #restore(String, long[])} 恢复
+     */
+    public long[] evict(String signalName) {
+        EventMetrics holder = events.remove(signalName);
+        if (holder == null) {
+            return new long[7];
+        }
+        return new long[]{
+                holder.emitCount.sum(),
+                holder.handlerCount.sum(),
+                holder.processingTime.sum(),
+                holder.errorCount.sum(),
+                holder.shedCount.sum(),
+                holder.reapedCount.sum(),
+                holder.processedCount.sum()
+        };
+    }
+
+    /**
+     * 恢复 {@link #evict(String)} 返回的计数快照
+     */
+    public void restore(String signalName, long[] snapshot) {
+        EventMetrics holder = holder(signalName);
+        holder.emitCount.add(snapshot[0]);
+        holder.handlerCount.add(snapshot[1]);
+        holder.processingTime.add(snapshot[2]);
+        holder.errorCount.add(snapshot[3]);
+        holder.shedCount.add(snapshot[4]);
+        holder.reapedCount.add(snapshot[5]);
+        holder.processedCount.add(snapshot[6]);
+    }
+
+    /**
+     * 注册缓存统计信息，与信号指标一起输出
+     */
+    public void registerCacheStats(String cacheName, Supplier<Map<String, Object>> stats) {
+        cacheStats.put(cacheName, stats);
+    }
+
+    public void unregisterCacheStats(String cacheName) {
+        cacheStats.remove(cacheName);
+    }
+
+    /**
+     * 获取所有已注册缓存的统计信息（命中数、未命中数、淘汰数、命中率等）
+     */
+    public Map<String, Map<String, Object>> getCacheStats() {
+        Map<String, Map<String, Object>> stats = new HashMap<>();
+        cacheStats.forEach((name, supplier) -> stats.put(name, supplier.get()));
+        return stats;
+    }
+
     public void recordTrace(SignalContext context) {
-        eventTraces.put(context.getTraceId(), context);
+        traceStore.record(context);
     }
 
+    /**
+     * 获取保留的追踪，未被采样、已被覆盖或已过期时返回 null
+     */
     public SignalContext getTrace(String traceId) {
-        return eventTraces.get(traceId);
+        return traceStore.get(traceId);
+    }
+
+    public TraceStore getTraceStore() {
+        return traceStore;
+    }
+
+    /**
+     * 替换追踪存储（容量、保留时间与采样策略），已记录的追踪被丢弃
+     */
+    public void setTraceStore(TraceStore traceStore) {
+        this.traceStore = traceStore;
     }
 
     public void recordProcessed() {
-        processedCount.incrementAndGet();
+        processedCount.increment();
     }
 
     public void recordProcessed(String event) {
-        processedCountByEvent.computeIfAbsent(event, k -> new AtomicLong()).incrementAndGet();
-        lastProcessTime.put(event, System.currentTimeMillis());
+        EventMetrics holder = holder(event);
+        holder.processedCount.increment();
+        holder.lastProcessTime.lazySet(System.currentTimeMillis());
     }
 
     public long getProcessedCount() {
-        return processedCount.get();
+        return processedCount.sum();
     }
 
     public long getProcessedCount(String event) {
-        return processedCountByEvent.getOrDefault(event, new AtomicLong()).get();
+        EventMetrics holder = events.get(event);
+        return holder != null ? holder.processedCount.sum() : 0L;
     }
 
     public Long getLastProcessTime(String event) {
-        return lastProcessTime.get(event);
+        EventMetrics holder = events.get(event);
+        long time = holder != null ? holder.lastProcessTime.get() : 0L;
+        return time != 0L ? time : null;
+    }
+
+    /**
+     * 单个事件的指标
+     */
+    private static final class EventMetrics {
+
+        private static final EventMetrics EMPTY = new EventMetrics();
+
+        private final LongAdder emitCount = new LongAdder();
+        private final LongAdder handlerCount = new LongAdder();
+        private final LongAdder reapedCount = new LongAdder();
+        // 纳秒
+        private final LongAdder processingTime = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder shedCount = new LongAdder();
+        private final LongAdder processedCount = new LongAdder();
+        private final AtomicLong lastEmitTime = new AtomicLong();
+        private final AtomicLong lastProcessTime = new AtomicLong();
+
+        // 首次记录延迟时创建，按 Phase.ordinal() 索引
+        private volatile LatencyHistogram[] phases;
+        private volatile BoundedCache<Long, LatencyHistogram> handlers;
+
+        private LatencyHistogram[] phases() {
+            LatencyHistogram[] current = phases;
+            if (current == null) {
+                synchronized (this) {
+                    current = phases;
+                    if (current == null) {
+                        current = new LatencyHistogram[Phase.values().length];
+                        for (int i = 0; i < current.length; i++) {
+                            current[i] = new LatencyHistogram();
+                        }
+                        phases = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        private BoundedCache<Long, LatencyHistogram> handlers() {
+            BoundedCache<Long, LatencyHistogram> current = handlers;
+            if (current == null) {
+                synchronized (this) {
+                    current = handlers;
+                    if (current == null) {
+                        current = new BoundedCache<>(MAX_HANDLER_HISTOGRAMS);
+                        handlers = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        private Map<String, Object> snapshot() {
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("emitCount", emitCount.sum());
+            metrics.put("handlerCount", handlerCount.sum());
+            metrics.put("totalProcessingTime", TimeUnit.NANOSECONDS.toMillis(processingTime.sum()));
+            metrics.put("errorCount", errorCount.sum());
+            metrics.put("reapedCount", reapedCount.sum());
+            metrics.put("shedCount", shedCount.sum());
+            metrics.put("lastEmitTime", lastEmitTime.get());
+            LatencyHistogram[] histograms = phases;
+            if (histograms != null) {
+                Map<String, Object> latency = new LinkedHashMap<>();
+                for (Phase phase : Phase.values()) {
+                    latency.put(phase.name(), histograms[phase.ordinal()].snapshot().toMap());
+                }
+                metrics.put("latency", latency);
+            }
+            BoundedCache<Long, LatencyHistogram> byHandler = handlers;
+            if (byHandler != null && !byHandler.isEmpty()) {
+                Map<String, Object> latency = new LinkedHashMap<>();
+                byHandler.forEach((id, histogram) -> latency.put(String.valueOf(id), histogram.snapshot().toMap()));
+                metrics.put("handlerLatency", latency);
+            }
+            return metrics;
+        }
     }
 }
@@ -7,11 +7,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 信号管道处理器
  * 负责拦截器、过滤器、转换器的链式处理
+ * <p>
+ * 注册时的事件名可以是通配模式（{@code user.*}、{@code order.#}），
+ * 这样后注册的事件也会自动应用这些组件。
+ * <p>
+ * 组件变化后，每个事件的组件在下次发射时编译为一条 {@link PipelineChain}（预排序的数组），
+ * 发射时只需一次查找，不再复制和排序组件列表。
+ * <p>
+ * 全局组件（{@code addGlobalXxx} 或模式 {@code #}）只保存一份，编译时合并到每个事件的管道。
+ * 合并顺序：全局组件、精确事件组件、通配模式组件；拦截器再按 getOrder、过滤器按 getPriority 稳定排序，
+ * 因此顺序值相同时全局组件先执行；转换器保持合并顺序，全局转换器最先执行。
  */
 public class SignalPipeline<S, T> {
 
@@ -23,198 +34,342 @@ public class SignalPipeline<S, T> {
     /**
      * 拦截器
      */
-    private final Map<String, List<SignalInterceptor<S, T>>> signalInterceptors = new ConcurrentHashMap<>();
+    private final StageIndex<SignalInterceptor<S, T>> signalInterceptors = new StageIndex<>();
 
     /**
      * 过滤器
      */
-    private final Map<String, List<SignalFilter<S, T>>> signalFilters = new ConcurrentHashMap<>();
+    private final StageIndex<SignalFilter<S, T>> signalFilters = new StageIndex<>();
 
     /**
      * 转换器
      */
-    private final Map<String, List<SignalTransformer<S, T>>> signalTransformers = new ConcurrentHashMap<>();
+    private final StageIndex<SignalTransformer<S, T>> signalTransformers = new StageIndex<>();
+
+    /**
+     * 每个事件编译后的管道，组件变化时按版本号失效并在下次发射时重新编译
+     */
+    private final BoundedCache<String, CompiledEntry<S, T>> compiledEntries = new BoundedCache<>(MAX_COMPILED_EVENTS);
+
+    /**
+     * 编译后管道的最大缓存事件数，超出后淘汰最近未使用的事件
+     */
+    private static final int MAX_COMPILED_EVENTS = 10000;
+
+    /**
+     * 组件版本号，每次添加组件或切换追踪时递增
+     */
+    private volatile long generation;
+
+    /**
+     * 是否为每个管道组件记录追踪 span
+     */
+    private volatile boolean tracingEnabled = true;
+
+    /**
+     * 过滤器执行器：并发执行独立过滤器，缓存拒绝结果
+     */
+    private final FilterEvaluator<S, T> filterEvaluator = new FilterEvaluator<>();
 
     /**
      * 执行信号管道处理
      */
     public Envelope<S, T> processPipeline(String event, Envelope<S, T> envelope, SignalContext context) {
-        // 1. 执行拦截器
-        if (!executeInterceptors(event, envelope, context)) {
-            return null; // 被拦截器阻止
-        }
-        // 2. 执行过滤器
-        if (!executeFilters(event, envelope, context)) {
-            return null; // 被过滤器阻止
-        }
-        // 3. 执行转换器
-        return executeTransformers(event, envelope, context);
+        return chain(event).process(event, envelope, context);
+    }
+
+    /**
+     * 异步执行信号管道处理，使用组件的异步方法，前一个组件完成后才执行下一个
+     *
+     * @return 完成值为处理后的信号，被拦截器或过滤器阻止时为 null
+     */
+    public CompletableFuture<Envelope<S, T>> processPipelineAsync(String event, Envelope<S, T> envelope, SignalContext context) {
+        return chain(event).processAsync(event, envelope, context);
     }
 
+    /**
+     * 获取事件的管道标识：拦截器、过滤器、转换器完全相同的事件标识相等，
+     * 广播时同一管道只执行一次
+     */
+    public Object pipelineKey(String event) {
+        return chain(event);
+    }
 
     /**
      * 执行所有拦截器的后置处理
      */
     public void executePostProcessing(String event, Envelope<S, T> envelope) {
-        List<SignalInterceptor<S, T>> interceptors = signalInterceptors.get(event);
-        if (interceptors == null || interceptors.isEmpty()) {
-            return;
-        }
-
-        for (SignalInterceptor<S, T> interceptor : interceptors) {
-            try {
-                interceptor.afterHandle(event, envelope, null);  // 假设没有异常，传递 null
-            } catch (Exception ex) {
-                log.error("Error during afterHandle for signal [{}] by interceptor [{}]: {}", event, interceptor.getClass().getSimpleName(), ex.getMessage());
-            }
-        }
+        chain(event).postProcess(event, envelope);
     }
 
     /**
-     * 执行拦截器链
+     * 获取事件编译后的管道
      */
-    private boolean executeInterceptors(String event, Envelope<S, T> envelope, SignalContext context) {
-        List<SignalInterceptor<S, T>> interceptors = signalInterceptors.get(event);
-        if (interceptors == null || interceptors.isEmpty()) {
-            return true;
+    public PipelineChain<S, T> chain(String event) {
+        long current = generation;
+        CompiledEntry<S, T> cached = compiledEntries.get(event);
+        if (cached != null && cached.generation == current) {
+            return cached.chain;
         }
+        PipelineChain<S, T> chain = PipelineChain.compile(signalInterceptors.get(event), signalFilters.get(event),
+                signalTransformers.get(event), filterEvaluator, tracingEnabled);
+        // 以编译前读取的版本号缓存，若期间组件发生变化，下次发射会重新编译
+        compiledEntries.put(event, new CompiledEntry<>(current, chain));
+        return chain;
+    }
 
-        for (SignalInterceptor<S, T> interceptor : interceptors) {
-            String spanId = UUID.randomUUID().toString();
-            String parentSpanId = context.getParentSpanId() != null ? context.getParentSpanId() : context.getEventId();
+    /**
+     * 开启或关闭管道追踪，关闭后管道不再记录 span
+     */
+    public synchronized void setTracingEnabled(boolean tracingEnabled) {
+        this.tracingEnabled = tracingEnabled;
+        generation++;
+    }
 
-            SignalContext.Span span = new SignalContext.Span();
-            span.setSpanId(spanId);
-            span.setParentSpanId(parentSpanId);
-            span.setOperation("Interceptor: " + interceptor.getClass().getSimpleName());
-            span.setStartTime(System.currentTimeMillis());
+    public boolean isTracingEnabled() {
+        return tracingEnabled;
+    }
 
-            context.setParentSpanId(spanId);
-            boolean allowed = interceptor.beforeHandle(event, envelope);
-            span.setEndTime(System.currentTimeMillis());
-            context.addSpan(span);
+    /**
+     * 设置过滤器拒绝结果的缓存时间，0 表示不缓存
+     * 仅对 {@link SignalFilter#getCacheKey} 返回非 null 的过滤器生效
+     */
+    public synchronized void setFilterRejectionTtlMillis(long ttlMillis) {
+        filterEvaluator.setRejectionTtlMillis(ttlMillis);
+        generation++;
+    }
 
-            if (!allowed) {
-                log.debug("Signal [{}] blocked by interceptor: {}", event, interceptor.getClass().getSimpleName());
-                return false;
-            }
-        }
+    /**
+     * 关闭并发过滤线程池
+     */
+    public void shutdown() {
+        filterEvaluator.shutdown();
+    }
 
-        return true;
+    /**
+     * 添加拦截器
+     */
+    public synchronized void addInterceptor(String event, SignalInterceptor<S, T> interceptor) {
+        signalInterceptors.add(event, interceptor);
+        generation++;
+        log.info("Interceptor [{}] added to event [{}]", interceptor.getClass().getSimpleName(), event);
     }
 
     /**
-     * 执行过滤器链
+     * 移除拦截器
+     *
+     * @return 是否移除成功
      */
-    private boolean executeFilters(String event, Envelope<S, T> envelope, SignalContext context) {
-        List<SignalFilter<S, T>> filters = getSortedFilters(event);
-        if (filters.isEmpty()) {
-            return true;
+    public synchronized boolean removeInterceptor(String event, SignalInterceptor<S, T> interceptor) {
+        if (!signalInterceptors.remove(event, interceptor)) {
+            return false;
         }
+        generation++;
+        log.info("Interceptor [{}] removed from event [{}]", interceptor.getClass().getSimpleName(), event);
+        return true;
+    }
 
-        for (SignalFilter<S, T> filter : filters) {
-            String spanId = UUID.randomUUID().toString();
-            String parentSpanId = context.getParentSpanId() != null ? context.getParentSpanId() : context.getEventId();
-
-            SignalContext.Span span = new SignalContext.Span();
-            span.setSpanId(spanId);
-            span.setParentSpanId(parentSpanId);
-            span.setOperation("Filter: " + filter.getClass().getSimpleName());
-            span.setStartTime(System.currentTimeMillis());
-
-            context.setParentSpanId(spanId);
-            boolean pass = filter.filter(event, envelope);
-            span.setEndTime(System.currentTimeMillis());
-            context.addSpan(span);
+    /**
+     * 添加过滤器
+     */
+    public synchronized void addFilter(String event, SignalFilter<S, T> filter) {
+        signalFilters.add(event, filter);
+        generation++;
+    }
 
-            if (!pass) {
-                log.debug("Signal [{}] filtered out by: {}", event, filter.getClass().getSimpleName());
-                return false;
-            }
+    /**
+     * 移除过滤器
+     *
+     * @return 是否移除成功
+     */
+    public synchronized boolean removeFilter(String event, SignalFilter<S, T> filter) {
+        if (!signalFilters.remove(event, filter)) {
+            return false;
         }
-
+        generation++;
         return true;
     }
 
     /**
-     * 执行转换器链
+     * 添加转换器
      */
-    private Envelope<S, T> executeTransformers(String event, Envelope<S, T> envelope, SignalContext context) {
-        List<SignalTransformer<S, T>> transformers = signalTransformers.get(event);
-        if (transformers == null || transformers.isEmpty()) {
-            return envelope;
-        }
+    public synchronized void addTransformer(String event, SignalTransformer<S, T> transformer) {
+        signalTransformers.add(event, transformer);
+        generation++;
+    }
 
-        Envelope<S, T> transformedParams = null;
-        for (SignalTransformer<S, T> transformer : transformers) {
-            String spanId = UUID.randomUUID().toString();
-            String parentSpanId = context.getParentSpanId() != null ? context.getParentSpanId() : context.getEventId();
-
-            SignalContext.Span span = new SignalContext.Span();
-            span.setSpanId(spanId);
-            span.setParentSpanId(parentSpanId);
-            span.setOperation("Transformer: " + transformer.getClass().getSimpleName());
-            span.setStartTime(System.currentTimeMillis());
-
-            context.setParentSpanId(spanId);
-            transformedParams = transformer.transform(event, envelope);
-            span.setEndTime(System.currentTimeMillis());
-            context.addSpan(span);
+    /**
+     * 移除转换器
+     *
+     * @return 是否移除成功
+     */
+    public synchronized boolean removeTransformer(String event, SignalTransformer<S, T> transformer) {
+        if (!signalTransformers.remove(event, transformer)) {
+            return false;
         }
+        generation++;
+        return true;
+    }
 
-        return transformedParams;
+    /**
+     * 添加全局拦截器，作用于所有事件（包括之后才注册的事件）
+     */
+    public void addGlobalInterceptor(SignalInterceptor<S, T> interceptor) {
+        addInterceptor(TopicTrie.MULTI_WILDCARD, interceptor);
     }
 
     /**
-     * 获取排序后的过滤器列表
+     * 移除全局拦截器
      */
-    private List<SignalFilter<S, T>> getSortedFilters(String event) {
-        List<SignalFilter<S, T>> filters = signalFilters.getOrDefault(event, Collections.emptyList());
-        List<SignalFilter<S, T>> copy = new ArrayList<>(filters);
-        copy.sort(Comparator.comparingInt(SignalFilter::getPriority));
-        return copy;
+    public boolean removeGlobalInterceptor(SignalInterceptor<S, T> interceptor) {
+        return removeInterceptor(TopicTrie.MULTI_WILDCARD, interceptor);
     }
 
     /**
-     * 添加拦截器
+     * 添加全局过滤器，作用于所有事件（包括之后才注册的事件）
      */
-    public void addInterceptor(String event, SignalInterceptor<S, T> interceptor) {
-        signalInterceptors.computeIfAbsent(event, k -> new ArrayList<>()).add(interceptor);
-        log.info("Interceptor [{}] added to event [{}]", interceptor.getClass().getSimpleName(), event);
+    public void addGlobalFilter(SignalFilter<S, T> filter) {
+        addFilter(TopicTrie.MULTI_WILDCARD, filter);
     }
 
     /**
-     * 添加过滤器
+     * 移除全局过滤器
      */
-    public void addFilter(String event, SignalFilter<S, T> filter) {
-        signalFilters.computeIfAbsent(event, k -> new ArrayList<>()).add(filter);
+    public boolean removeGlobalFilter(SignalFilter<S, T> filter) {
+        return removeFilter(TopicTrie.MULTI_WILDCARD, filter);
     }
 
     /**
-     * 添加转换器
+     * 添加全局转换器，作用于所有事件（包括之后才注册的事件）
+     */
+    public void addGlobalTransformer(SignalTransformer<S, T> transformer) {
+        addTransformer(TopicTrie.MULTI_WILDCARD, transformer);
+    }
+
+    /**
+     * 移除全局转换器
      */
-    public void addTransformer(String event, SignalTransformer<S, T> transformer) {
-        signalTransformers.computeIfAbsent(event, k -> new ArrayList<>()).add(transformer);
+    public boolean removeGlobalTransformer(SignalTransformer<S, T> transformer) {
+        return removeTransformer(TopicTrie.MULTI_WILDCARD, transformer);
     }
 
     /**
      * 获取拦截器
      */
     public Map<String, List<SignalInterceptor<S, T>>> getSignalInterceptors() {
-        return new ConcurrentHashMap<>(signalInterceptors);
+        return signalInterceptors.snapshot();
     }
 
     /**
      * 获取过滤器
      */
     public Map<String, List<SignalFilter<S, T>>> getSignalFilters() {
-        return new ConcurrentHashMap<>(signalFilters);
+        return signalFilters.snapshot();
     }
 
     /**
      * 获取转换器
      */
     public Map<String, List<SignalTransformer<S, T>>> getSignalTransformers() {
-        return new ConcurrentHashMap<>(signalTransformers);
+        return signalTransformers.snapshot();
+    }
+
+    /**
+     * 某类管道组件的索引：精确事件 + 通配模式，合并结果由编译后的管道缓存
+     * 写入由管道加锁串行化，每次写入发布一个新的不可变列表，读取无锁
+     */
+    private static final class StageIndex<V> {
+
+        private final Map<String, List<V>> exact = new ConcurrentHashMap<>();
+        private final TopicTrie<V> patterns = new TopicTrie<>();
+
+        // 全局组件（模式 "#"）只保存一份，编译时合并到每个事件的管道
+        private volatile List<V> global = Collections.emptyList();
+
+        void add(String event, V stage) {
+            if (TopicTrie.MULTI_WILDCARD.equals(event)) {
+                List<V> updated = new ArrayList<>(global.size() + 1);
+                updated.addAll(global);
+                updated.add(stage);
+                global = Collections.unmodifiableList(updated);
+                return;
+            }
+            if (TopicTrie.isPattern(event)) {
+                patterns.add(event, stage);
+                return;
+            }
+            List<V> current = exact.getOrDefault(event, Collections.emptyList());
+            List<V> updated = new ArrayList<>(current.size() + 1);
+            updated.addAll(current);
+            updated.add(stage);
+            exact.put(event, Collections.unmodifiableList(updated));
+        }
+
+        boolean remove(String event, V stage) {
+            if (TopicTrie.MULTI_WILDCARD.equals(event)) {
+                List<V> updated = new ArrayList<>(global);
+                if (!updated.removeIf(v -> v == stage)) {
+                    return false;
+                }
+                global = updated.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(updated);
+                return true;
+            }
+            if (TopicTrie.isPattern(event)) {
+                return patterns.removeIf(event, v -> v == stage) > 0;
+            }
+            List<V> current = exact.get(event);
+            if (current == null) {
+                return false;
+            }
+            List<V> updated = new ArrayList<>(current);
+            if (!updated.removeIf(v -> v == stage)) {
+                return false;
+            }
+            if (updated.isEmpty()) {
+                exact.remove(event);
+            } else {
+                exact.put(event, Collections.unmodifiableList(updated));
+            }
+            return true;
+        }
+
+        /**
+         * 合并事件的组件：全局组件在前，其次是精确事件的组件，最后是通配模式的组件
+         */
+        List<V> get(String event) {
+            List<V> globals = global;
+            List<V> stages = exact.getOrDefault(event, Collections.emptyList());
+            List<V> matched = patterns.isEmpty() || TopicTrie.isPattern(event)
+                    ? Collections.emptyList() : patterns.match(event);
+            if (globals.isEmpty() && matched.isEmpty()) {
+                return stages;
+            }
+            List<V> merged = new ArrayList<>(globals.size() + stages.size() + matched.size());
+            merged.addAll(globals);
+            merged.addAll(stages);
+            merged.addAll(matched);
+            return merged;
+        }
+
+        Map<String, List<V>> snapshot() {
+            Map<String, List<V>> copy = new ConcurrentHashMap<>(exact);
+            for (String pattern : patterns.patterns()) {
+                copy.put(pattern, patterns.get(pattern));
+            }
+            if (!global.isEmpty()) {
+                copy.put(TopicTrie.MULTI_WILDCARD, global);
+            }
+            return copy;
+        }
+    }
+
+    private static final class CompiledEntry<S, T> {
+        private final long generation;
+        private final PipelineChain<S, T> chain;
+
+        private CompiledEntry(long generation, PipelineChain<S, T> chain) {
+            this.generation = generation;
+            this.chain = chain;
+        }
     }
 }
@@ -8,7 +8,6 @@ import io.github.signal.exception.SignalProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -59,16 +58,7 @@ public class SignalProcessor<S, T> {
                                                 SignalConfig config, SignalContext context,
                                                 SignalProtectionManager protectionManager,
                                                 SignalMetrics metrics) throws Exception {
-        String spanId = UUID.randomUUID().toString();
-        String parentSpanId = context.getParentSpanId() != null ? context.getParentSpanId() : context.getEventId();
-
-        SignalContext.Span span = new SignalContext.Span();
-        span.setSpanId(spanId);
-        span.setParentSpanId(parentSpanId);
-        String op = sig.getSignalName() != null ? sig.getSignalName() : "Handler: Unknown";
-        span.setOperation(op);
-        span.setStartTime(System.currentTimeMillis());
-        context.setParentSpanId(spanId);
+        SignalContext.Span span = context.startSpan(sig.getSignalName() != null ? sig.getSignalName() : "Handler: Unknown");
 
         try {
             executeWithRetry(sig, envelope, config);
@@ -81,8 +71,7 @@ public class SignalProcessor<S, T> {
             log.error("Signal handler execution failed: {} - {}", event, e.getMessage(), e);
             throw e;
         } finally {
-            span.setEndTime(System.currentTimeMillis());
-            context.addSpan(span);
+            context.endSpan(span);
         }
     }
 
@@ -135,6 +124,77 @@ public class SignalProcessor<S, T> {
         }
     }
 
+    /**
+     * 执行对冲处理
+     * 处理器在其 p95 耗时内未完成且对冲预算充足时，并行发起第二次尝试，取最先成功的结果并取消另一个
+     */
+    public void executeWithHedging(Sig<S, T> sig, Envelope<S, T> envelope, SignalConfig config) throws Exception {
+        HedgeTracker tracker = sig.getHedgeTracker();
+        tracker.earn(config.getHedgeBudgetPercent());
+
+        long hedgeDelayNanos = Math.max(tracker.getP95Nanos(), TimeUnit.MILLISECONDS.toNanos(config.getHedgeMinDelayMs()));
+        long deadline = config.getTimeoutMs() > 0
+                ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getTimeoutMs())
+                : Long.MAX_VALUE;
+
+        Callable<Void> attempt = () -> {
+            long start = System.nanoTime();
+            executeHandler(sig, envelope);
+            tracker.record(System.nanoTime() - start);
+            return null;
+        };
+
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(executorService);
+        Future<Void> primary = completionService.submit(attempt);
+        Future<Void> hedge = null;
+        int running = 1;
+        Exception lastFailure = null;
+        try {
+            // 1. 等待主尝试至 p95，超过则在预算内发起对冲
+            Future<Void> done = completionService.poll(Math.min(hedgeDelayNanos, remaining(deadline)), TimeUnit.NANOSECONDS);
+            if (done == null && remaining(deadline) > 0 && tracker.trySpend()) {
+                hedge = completionService.submit(attempt);
+                running++;
+                log.debug("Event: {}, handler {} exceeded p95 {}ns, hedged", sig.getSignalName(), sig.getId(), hedgeDelayNanos);
+            }
+            // 2. 取第一个成功的结果
+            while (running > 0) {
+                if (done == null) {
+                    done = completionService.poll(remaining(deadline), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        metrics.recordError(sig.getSignalName());
+                        throw new SignalProcessingException("Signal handler execution timed out", 1001);
+                    }
+                }
+                running--;
+                try {
+                    done.get();
+                    return;
+                } catch (ExecutionException ee) {
+                    Throwable cause = ee.getCause();
+                    lastFailure = cause instanceof Exception
+                            ? (Exception) cause
+                            : new SignalProcessingException("Unexpected signal handler error", 1003);
+                }
+                done = null;
+            }
+            throw lastFailure;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new SignalProcessingException("Signal handler interrupted", 1002);
+        } finally {
+            // 取消仍在运行的尝试
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, deadline - System.nanoTime());
+    }
+
     /**
      * 执行信号处理，包含重试逻辑
      */
@@ -144,7 +204,9 @@ public class SignalProcessor<S, T> {
         Exception lastException = null;
         while (retries <= config.getMaxRetries()) {
             try {
-                if (config.getTimeoutMs() > 0) {
+                if (config.isHedgingEnabled()) {
+                    executeWithHedging(sig, envelope, config);
+                } else if (config.getTimeoutMs() > 0) {
                     executeWithTimeout(sig, envelope, config.getTimeoutMs());
                 } else {
                     executeHandler(sig, envelope);
@@ -177,23 +239,12 @@ public class SignalProcessor<S, T> {
      */
     public void executeWithTracing(Sig<S, T> sig,  Envelope<S, T> envelope,
                                    SignalConfig config, SignalContext context) throws Exception {
-        String spanId = UUID.randomUUID().toString();
-        String parentSpanId = context.getParentSpanId() != null ? context.getParentSpanId() : context.getEventId();
-
-        SignalContext.Span span = new SignalContext.Span();
-        span.setSpanId(spanId);
-        span.setParentSpanId(parentSpanId);
-        String op = sig.getSignalName() != null ? sig.getSignalName() : "Handler: Unknown";
-        span.setOperation(op);
-        span.setStartTime(System.currentTimeMillis());
-
-        context.setParentSpanId(spanId);
+        SignalContext.Span span = context.startSpan(sig.getSignalName() != null ? sig.getSignalName() : "Handler: Unknown");
 
         try {
             executeWithRetry(sig, envelope, config);
         } finally {
-            span.setEndTime(System.currentTimeMillis());
-            context.addSpan(span);
+            context.endSpan(span);
         }
     }
 }
@@ -1,101 +1,142 @@
 package io.github.signal.core;
 
+import io.github.signal.core.enums.SignalPriority;
+import io.github.signal.core.protection.CircuitBreakerPolicy;
+import io.github.signal.core.protection.LoadSheddingPolicy;
+import io.github.signal.core.protection.RateLimitPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
- * Manages circuit breakers and rate limiters for signals.
+ * Manages the protection policies (circuit breakers, rate limiters, load shedding, ...) of signals.
  * Purpose:
  * - Protects the system from overload (rate limiting) and repeated errors (circuit breaker).
- * - Tracks protection mechanisms for each signal individually.
+ * - Tracks protection mechanisms for each signal individually as a chain of {@link ProtectionPolicy}.
+ * - Chains are compiled into a {@link ProtectionChain} when policies change, so checking a signal
+ *   on emit is a single map lookup followed by an array walk.
  */
 public class SignalProtectionManager {
-    
+
     private static final Logger log = LoggerFactory.getLogger(SignalProtectionManager.class);
 
-    // Map of signal names to their CircuitBreaker instances
-    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    // Policies registered per signal, in registration order
+    private final Map<String, ProtectionPolicy[]> policies = new ConcurrentHashMap<>();
+
+    // Compiled chain per signal (global policies + signal policies)
+    private final Map<String, ProtectionChain> chains = new ConcurrentHashMap<>();
+
+    // Policies applied to every signal
+    private volatile ProtectionPolicy[] globalPolicies = new ProtectionPolicy[0];
+
+    // Chain used for signals without policies of their own
+    private volatile ProtectionChain globalChain = ProtectionChain.EMPTY;
 
-    // Map of signal names to their RateLimiter instances
-    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+    // Load shedder shared by all signals, null when load shedding is disabled
+    private volatile LoadShedder loadShedder;
+
+    // Error rate threshold used by circuit breakers registered without an explicit threshold
+    private volatile double errorRateThreshold;
+
+    public SignalProtectionManager() {
+        this.errorRateThreshold = readErrorRateThreshold();
+    }
+
+    /**
+     * Runs a signal through its protection chain.
+     * If the chain admits the signal, {@link ProtectionChain#release} must be called once the emit completed.
+     *
+     * @param signal   the name of the signal
+     * @param priority the priority of the signal
+     * @return the chain that admitted the signal, or null if the signal is blocked
+     */
+    public ProtectionChain acquire(String signal, SignalPriority priority) {
+        ProtectionChain chain = getChain(signal);
+        if (chain.tryAcquire(signal, priority)) {
+            return chain;
+        }
+        log.debug("Signal [{}] blocked by protection policy", signal);
+        return null;
+    }
 
     /**
      * Checks if a signal is currently blocked by a circuit breaker or rate limiter.
+     * This check does not consume any permit.
      *
      * @param signal the name of the signal
      * @return true if the signal is blocked (either by circuit breaker or rate limiter), false otherwise
      */
     public boolean isBlocked(String signal) {
-        CircuitBreaker cb = breakers.get(signal);
-        RateLimiter rl = limiters.get(signal);
-        
+        CircuitBreaker cb = getCircuitBreaker(signal);
+        RateLimiter rl = getRateLimiter(signal);
+
         // 检查熔断器状态
         boolean circuitBreakerBlocked = (cb != null && cb.isOpen());
-        
+
         // 检查限流器状态 - 使用只读方法检查状态
         boolean rateLimiterBlocked = (rl != null && !rl.canAllowRequest());
-        
+
         return circuitBreakerBlocked || rateLimiterBlocked;
     }
 
     /**
-     * Updates the state of the circuit breaker for a signal based on its error and emit metrics.
+     * Records how long an async signal task waited in the executor queue before it started.
+     *
+     * @param sojournNanos enqueue-to-start time in nanoseconds
+     */
+    public void recordQueueDelay(long sojournNanos) {
+        LoadShedder shedder = loadShedder;
+        if (shedder != null) {
+            shedder.recordSojourn(sojournNanos);
+        }
+    }
+
+    /**
+     * Updates the state of the policies of a signal based on its error and emit metrics.
      *
      * @param signal  the name of the signal
      * @param metrics the SignalMetrics object tracking signal statistics
      */
     public void update(String signal, SignalMetrics metrics) {
-        Map<String, Object> m = metrics.getMetrics(signal);
-        long errorCount = (Long) m.getOrDefault("errorCount", 0L);
-        long emitCount = (Long) m.getOrDefault("emitCount", 0L);
-
-        CircuitBreaker cb = breakers.get(signal);
-        if (cb != null) {
-            if (emitCount == 0) return; // No emit data yet, skip
-            double errorRate = (double) errorCount / emitCount;
-            // 使用配置的错误率阈值，默认为0.5
-            double threshold = getErrorRateThreshold();
-            if (errorRate > threshold) {
-                cb.recordFailure();
-            } else {
-                cb.recordSuccess();
-            }
+        ProtectionChain chain = chains.get(signal);
+        if (chain == null) {
+            return;
         }
-
-        // Rate limiter does not depend on metrics; it uses allowRequest directly
+        chain.update(signal, metrics.getEmitCount(signal), metrics.getErrorCount(signal));
     }
-    
+
     /**
      * 记录信号处理成功
      */
     public void recordSuccess(String signal) {
-        CircuitBreaker cb = breakers.get(signal);
-        if (cb != null) {
-            cb.recordSuccess();
+        ProtectionChain chain = chains.get(signal);
+        if (chain != null) {
+            chain.onResult(signal, true);
         }
     }
-    
+
     /**
      * 记录信号处理失败
      */
     public void recordFailure(String signal) {
-        CircuitBreaker cb = breakers.get(signal);
-        if (cb != null) {
-            cb.recordFailure();
+        ProtectionChain chain = chains.get(signal);
+        if (chain != null) {
+            chain.onResult(signal, false);
         }
     }
-    
+
     /**
-     * 获取错误率阈值，支持配置化
+     * 读取错误率阈值，仅在创建时解析一次系统属性
      */
-    private double getErrorRateThreshold() {
-        // 从配置中读取错误率阈值，如果没有配置则使用默认值
+    private static double readErrorRateThreshold() {
         try {
-            // 这里可以通过Spring的配置属性获取
-            // 暂时使用系统属性，后续可以集成Spring配置
             String thresholdStr = System.getProperty("hibiscus.signal.circuit-breaker.error-rate-threshold");
             if (thresholdStr != null) {
                 return Double.parseDouble(thresholdStr);
@@ -107,23 +148,193 @@ public class SignalProtectionManager {
     }
 
     /**
-     * Registers a circuit breaker for a specific signal.
+     * Sets the error rate threshold used by circuit breakers registered through
+     * {@link #registerCircuitBreaker(String, CircuitBreaker)}.
+     *
+     * @param errorRateThreshold error rate (0..1) above which a breaker records a failure
+     */
+    public void setErrorRateThreshold(double errorRateThreshold) {
+        this.errorRateThreshold = errorRateThreshold;
+    }
+
+    public double getErrorRateThreshold() {
+        return errorRateThreshold;
+    }
+
+    // ---------- Policy management ----------
+
+    /**
+     * Installs the policies of a signal unless it already has some.
+     * The supplier is only invoked when the signal has no policies yet.
+     *
+     * @param signal   the name of the signal
+     * @param supplier supplies the policies to install
+     * @return true if the policies were installed, false if the signal already had policies
+     */
+    public boolean installPoliciesIfAbsent(String signal, Supplier<? extends Collection<ProtectionPolicy>> supplier) {
+        if (policies.containsKey(signal)) {
+            return false;
+        }
+        synchronized (this) {
+            if (policies.containsKey(signal)) {
+                return false;
+            }
+            setPolicies(signal, supplier.get().toArray(new ProtectionPolicy[0]));
+            return true;
+        }
+    }
+
+    /**
+     * Adds a policy to the chain of a signal.
+     *
+     * @param signal the name of the signal
+     * @param policy the policy to add
+     */
+    public synchronized void addPolicy(String signal, ProtectionPolicy policy) {
+        ProtectionPolicy[] current = policies.getOrDefault(signal, new ProtectionPolicy[0]);
+        ProtectionPolicy[] updated = new ProtectionPolicy[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = policy;
+        setPolicies(signal, updated);
+    }
+
+    /**
+     * Removes a policy from the chain of a signal.
+     *
+     * @param signal the name of the signal
+     * @param policy the policy to remove
+     */
+    public synchronized void removePolicy(String signal, ProtectionPolicy policy) {
+        removePolicies(signal, p -> p == policy);
+    }
+
+    /**
+     * Returns the policies of a signal in evaluation order, including global policies.
+     *
+     * @param signal the name of the signal
+     * @return the policies of the compiled chain
+     */
+    public List<ProtectionPolicy> getPolicies(String signal) {
+        return getChain(signal).getPolicies();
+    }
+
+    /**
+     * Adds a policy that applies to every signal.
+     *
+     * @param policy the policy to add
+     */
+    public synchronized void addGlobalPolicy(ProtectionPolicy policy) {
+        ProtectionPolicy[] current = globalPolicies;
+        ProtectionPolicy[] updated = new ProtectionPolicy[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = policy;
+        setGlobalPolicies(updated);
+    }
+
+    /**
+     * Removes a policy that applies to every signal.
+     *
+     * @param policy the policy to remove
+     */
+    public synchronized void removeGlobalPolicy(ProtectionPolicy policy) {
+        List<ProtectionPolicy> kept = new ArrayList<>();
+        for (ProtectionPolicy p : globalPolicies) {
+            if (p != policy) {
+                kept.add(p);
+            }
+        }
+        setGlobalPolicies(kept.toArray(new ProtectionPolicy[0]));
+    }
+
+    /**
+     * Returns the compiled chain of a signal.
+     */
+    private ProtectionChain getChain(String signal) {
+        ProtectionChain chain = chains.get(signal);
+        return chain != null ? chain : globalChain;
+    }
+
+    private void setPolicies(String signal, ProtectionPolicy[] signalPolicies) {
+        if (signalPolicies.length == 0) {
+            policies.remove(signal);
+            chains.remove(signal);
+            return;
+        }
+        policies.put(signal, signalPolicies);
+        chains.put(signal, ProtectionChain.compile(globalPolicies, signalPolicies));
+    }
+
+    private void setGlobalPolicies(ProtectionPolicy[] updated) {
+        globalPolicies = updated;
+        globalChain = ProtectionChain.compile(updated, new ProtectionPolicy[0]);
+        // Recompile every chain so the new global policies are merged in
+        policies.forEach((signal, signalPolicies) ->
+                chains.put(signal, ProtectionChain.compile(updated, signalPolicies)));
+    }
+
+    private void removePolicies(String signal, Predicate<ProtectionPolicy> filter) {
+        ProtectionPolicy[] current = policies.get(signal);
+        if (current == null) {
+            return;
+        }
+        List<ProtectionPolicy> kept = new ArrayList<>();
+        for (ProtectionPolicy p : current) {
+            if (!filter.test(p)) {
+                kept.add(p);
+            }
+        }
+        setPolicies(signal, kept.toArray(new ProtectionPolicy[0]));
+    }
+
+    // ---------- Built-in policies ----------
+
+    /**
+     * Registers a circuit breaker for a specific signal, replacing any existing one.
      *
      * @param signal   the name of the signal
      * @param breaker  the CircuitBreaker instance
      */
-    public void registerCircuitBreaker(String signal, CircuitBreaker breaker) {
-        breakers.put(signal, breaker);
+    public synchronized void registerCircuitBreaker(String signal, CircuitBreaker breaker) {
+        removePolicies(signal, p -> p instanceof CircuitBreakerPolicy);
+        addPolicy(signal, new CircuitBreakerPolicy(breaker, errorRateThreshold));
     }
 
     /**
-     * Registers a rate limiter for a specific signal.
+     * Registers a rate limiter for a specific signal, replacing any existing one.
      *
      * @param signal   the name of the signal
      * @param limiter  the RateLimiter instance
      */
-    public void registerRateLimiter(String signal, RateLimiter limiter) {
-        limiters.put(signal, limiter);
+    public synchronized void registerRateLimiter(String signal, RateLimiter limiter) {
+        removePolicies(signal, p -> p instanceof RateLimitPolicy);
+        addPolicy(signal, new RateLimitPolicy(limiter));
+    }
+
+    /**
+     * Sets the load shedder shared by all signals.
+     *
+     * @param loadShedder the LoadShedder instance, or null to disable load shedding
+     * @param metrics     metrics used to count shed signals
+     */
+    public synchronized void setLoadShedder(LoadShedder loadShedder, SignalMetrics metrics) {
+        for (ProtectionPolicy p : globalPolicies) {
+            if (p instanceof LoadSheddingPolicy) {
+                removeGlobalPolicy(p);
+            }
+        }
+        this.loadShedder = loadShedder;
+        if (loadShedder != null) {
+            addGlobalPolicy(new LoadSheddingPolicy(loadShedder, metrics));
+        }
+    }
+
+    /**
+     * Retrieves the load shedder.
+     *
+     * @return the LoadShedder or null if load shedding is disabled
+     */
+    public LoadShedder getLoadShedder() {
+        return loadShedder;
     }
 
     /**
@@ -133,7 +344,9 @@ public class SignalProtectionManager {
      * @return the CircuitBreaker or null if none is registered
      */
     public CircuitBreaker getCircuitBreaker(String signal) {
-        return breakers.get(signal);
+        ProtectionChain chain = chains.get(signal);
+        CircuitBreakerPolicy policy = chain != null ? chain.find(CircuitBreakerPolicy.class) : null;
+        return policy != null ? policy.getBreaker() : null;
     }
 
     /**
@@ -143,24 +356,26 @@ public class SignalProtectionManager {
      * @return the RateLimiter or null if none is registered
      */
     public RateLimiter getRateLimiter(String signal) {
-        return limiters.get(signal);
+        ProtectionChain chain = chains.get(signal);
+        RateLimitPolicy policy = chain != null ? chain.find(RateLimitPolicy.class) : null;
+        return policy != null ? policy.getLimiter() : null;
     }
 
     /**
-     * Removes protection (both CircuitBreaker and RateLimiter) for a specific signal.
+     * Removes all protection policies of a specific signal.
      *
      * @param signal the name of the signal
      */
-    public void removeProtection(String signal) {
-        breakers.remove(signal);
-        limiters.remove(signal);
+    public synchronized void removeProtection(String signal) {
+        policies.remove(signal);
+        chains.remove(signal);
     }
 
     /**
-     * Clears all circuit breakers and rate limiters for all signals.
+     * Clears the protection policies of all signals.
      */
-    public void clearAll() {
-        breakers.clear();
-        limiters.clear();
+    public synchronized void clearAll() {
+        policies.clear();
+        chains.clear();
     }
 }
@@ -2,6 +2,7 @@ package io.github.signal.core;
 
 import io.github.signal.core.config.SignalConfig;
 import io.github.signal.core.enums.SignalPriority;
+import io.github.signal.core.model.Envelope;
 import io.github.signal.core.model.Sig;
 import io.github.signal.core.model.SignalContext;
 import io.github.signal.utils.SnowflakeIdGenerator;
@@ -9,31 +10,96 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static io.github.signal.core.enums.EventType.ADD_HANDLER;
+import static io.github.signal.core.enums.EventType.CLEAR_SIGNAL;
+import static io.github.signal.core.enums.EventType.PAUSE_SIGNAL;
+import static io.github.signal.core.enums.EventType.REFRESH_CONFIG;
 import static io.github.signal.core.enums.EventType.REMOVE_HANDLER;
+import static io.github.signal.core.enums.EventType.RESUME_SIGNAL;
 
 /**
  * 信号注册管理器
- * 负责信号的注册、解绑和队列管理
+ * 负责信号的注册、解绑和命令日志管理
+ * <p>
+ * 事件名支持通配订阅：{@code user.*} 匹配一级子事件，{@code order.#} 匹配任意层级的子事件。
+ * 通配订阅保存在 {@link TopicTrie} 中，每个事件的匹配结果会被缓存，订阅变化时失效。
+ * <p>
+ * 注册与解绑以命令形式写入一个多生产者单消费者的命令日志，同一时刻只有一个线程（持有应用锁的线程）
+ * 批量应用这些命令，发射线程只读取处理器列表，不参与竞争。
+ * <p>
+ * 每个事件的状态保存在一个 {@link EventSlot} 中。紧凑模式下，长时间未访问的事件会被转入冷存储，
+ * 释放处理器索引和指标计数器，适合按租户动态生成大量事件名的场景。
  */
 public class SignalRegistry<S, T> {
 
     private static final Logger log = LoggerFactory.getLogger(SignalRegistry.class);
 
     /**
-     * 监听器集合
+     * 命令被准入控制拒绝时返回的处理器 ID
      */
-    private final Map<String, List<Sig<S, T>>> sigHandlers = new ConcurrentHashMap<>();
+    public static final long REJECTED_ID = -1L;
 
     /**
-     * 信号配置
+     * 默认最多积压的命令数
      */
-    private final Map<String, SignalConfig> signalConfigs = new ConcurrentHashMap<>();
+    private static final int DEFAULT_MAX_PENDING_COMMANDS = 100000;
+
+    /**
+     * 通配匹配结果与路由索引缓存的最大事件数，超出后淘汰最近未使用的事件
+     */
+    private static final int MAX_RESOLVED_EVENTS = 10000;
+
+    /**
+     * 未注册事件使用的默认配置（共享实例，不可修改）
+     */
+    private static final SignalConfig DEFAULT_CONFIG = new SignalConfig.Builder().build();
+
+    /**
+     * 合并通配处理器时的排序规则
+     */
+    private static final Comparator<Sig<?, ?>> HANDLER_ORDER =
+            Comparator.comparingInt(sig -> sig.getPriority() != null ? sig.getPriority().getValue() : SignalPriority.MEDIUM.getValue());
+
+    /**
+     * 事件状态（配置 + 处理器）
+     */
+    private final Map<String, EventSlot<S, T>> slots = new ConcurrentHashMap<>();
+
+    /**
+     * 是否启用紧凑模式（记录访问时间并允许空闲事件转入冷存储）
+     */
+    private volatile boolean compactMode;
+
+    /**
+     * 通配订阅的处理器
+     */
+    private final TopicTrie<Sig<S, T>> wildcardHandlers = new TopicTrie<>();
+
+    /**
+     * 每个事件合并后的处理器列表（精确订阅 + 通配订阅）
+     */
+    private final BoundedCache<String, ResolvedHandlers<S, T>> resolvedHandlers = new BoundedCache<>(MAX_RESOLVED_EVENTS);
+
+    /**
+     * 每个事件处理器数组的路由索引，处理器数组变化后重建
+     */
+    private final BoundedCache<String, RoutingIndex<S, T>> routingIndexes = new BoundedCache<>(MAX_RESOLVED_EVENTS);
+
+    /**
+     * 是否注册过带路由条件的处理器，未注册时发射跳过路由索引
+     */
+    private volatile boolean routed;
+
+    /**
+     * 处理器版本号，订阅变化时递增，使缓存的匹配结果失效
+     */
+    private final AtomicLong handlerGeneration = new AtomicLong();
 
     /**
      * 监控器
@@ -41,9 +107,24 @@ public class SignalRegistry<S, T> {
     private final SignalMetrics metrics;
 
     /**
-     * 事件队列
+     * 命令日志（多生产者，单一应用者）
+     */
+    private final Queue<Sig<S, T>> commandLog = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 积压的命令数
+     */
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+
+    /**
+     * 应用锁，持有者是命令日志唯一的应用者
      */
-    private final EnumMap<SignalPriority, BlockingQueue<Sig<S, T>>> priorityQueues = new EnumMap<>(SignalPriority.class);
+    private final ReentrantLock applyLock = new ReentrantLock();
+
+    /**
+     * 最多积压的命令数，超过后按优先级拒绝新的注册
+     */
+    private volatile int maxPendingCommands = DEFAULT_MAX_PENDING_COMMANDS;
 
     /**
      * 事务管理器（可选，仅在 spring 模块中可用）
@@ -55,135 +136,225 @@ public class SignalRegistry<S, T> {
      */
     private final Object deadLetterQueueManager;
 
-    /**
-     * 是否在循环中
-     */
-    private volatile boolean inLoop = false;
-
     public SignalRegistry(SignalMetrics metrics, Object transactionManager, Object deadLetterQueueManager) {
         this.metrics = metrics;
         this.transactionManager = transactionManager;
         this.deadLetterQueueManager = deadLetterQueueManager;
-        for (SignalPriority p : SignalPriority.values()) {
-            priorityQueues.put(p, new LinkedBlockingQueue<>());
-        }
     }
 
     // 基础构造函数（无事务支持）
     public SignalRegistry(SignalMetrics metrics) {
-        this.metrics = metrics;
-        this.transactionManager = null;
-        this.deadLetterQueueManager = null;
-        for (SignalPriority p : SignalPriority.values()) {
-            priorityQueues.put(p, new LinkedBlockingQueue<>());
-        }
+        this(metrics, null, null);
     }
 
     /**
      * 注册信号处理器
+     *
+     * @return 处理器 ID，被准入控制拒绝时返回 {@link #REJECTED_ID}
      */
     public long registerHandler(String event, SignalHandler<S, T> handler, SignalConfig signalConfig) {
-        signalConfigs.computeIfAbsent(event, k -> signalConfig);
-        long id = SnowflakeIdGenerator.nextId();
+        return registerHandler(event, handler, signalConfig, new SignalContext());
+    }
 
-        SignalHandler<S, T> finalHandler = handler;
+    /**
+     * 注册信号处理器（带上下文）
+     *
+     * @return 处理器 ID，被准入控制拒绝时返回 {@link #REJECTED_ID}
+     */
+    public long registerHandler(String event, SignalHandler<S, T> handler, SignalConfig signalConfig, SignalContext context) {
+        return registerHandler(event, handler, signalConfig, context, null);
+    }
 
-        // 如果启用了事务支持，尝试通过反射包装为事务感知的处理器
-        if (transactionManager != null && deadLetterQueueManager != null &&
-                signalConfig.getTransactionConfig() != null &&
-                signalConfig.isTransactionEnabled()) {
-            try {
-                // 使用反射动态加载 TransactionalSignalHandler（在 spring 模块中）
-                Class<?> transactionalHandlerClass = Class.forName("io.github.signal.core.tractional.TransactionalSignalHandler");
-                finalHandler = (SignalHandler<S, T>) transactionalHandlerClass
-                        .getConstructor(SignalHandler.class, SignalConfig.class, Object.class, Object.class)
-                        .newInstance(handler, signalConfig, transactionManager, deadLetterQueueManager);
-                log.debug("为事件 {} 创建事务感知的处理器", event);
-            } catch (Exception e) {
-                log.warn("无法创建事务感知处理器，使用原始处理器: {}", e.getMessage());
+    /**
+     * 注册有生命周期的信号处理器
+     * 处理器过期后（弱引用被回收、作用域关闭或 TTL 到期）不再接收信号，并由 {@link #reapExpired()} 移除。
+     * 如果未指定生命周期而处理器本身实现了 {@link HandlerLifetime}（如 {@link WeakSignalHandler}），则使用处理器自身。
+     *
+     * @return 处理器 ID，被准入控制拒绝时返回 {@link #REJECTED_ID}
+     */
+    public long registerHandler(String event, SignalHandler<S, T> handler, SignalConfig signalConfig,
+                                SignalContext context, HandlerLifetime lifetime) {
+        return register(event, handler, signalConfig, context, lifetime, null);
+    }
+
+    /**
+     * 注册带路由条件的信号处理器
+     * 处理器只接收路由属性等于指定值的信号；发射时按属性值在哈希索引中查找处理器，
+     * 而不是像 {@link SignalHandler#when} 那样为每个处理器执行一次判断。
+     *
+     * @return 处理器 ID，被准入控制拒绝时返回 {@link #REJECTED_ID}
+     */
+    public long registerHandler(String event, SignalHandler<S, T> handler, SignalConfig signalConfig,
+                                RouteCondition<S, T> route) {
+        return register(event, handler, signalConfig, new SignalContext(), null, route);
+    }
+
+    private long register(String event, SignalHandler<S, T> handler, SignalConfig signalConfig,
+                          SignalContext context, HandlerLifetime lifetime, RouteCondition<S, T> route) {
+        if (lifetime == null && handler instanceof HandlerLifetime) {
+            lifetime = (HandlerLifetime) handler;
+        }
+        if (route != null) {
+            routed = true;
+        }
+        // 设置配置、预留名额、写入并应用命令在同一次持锁中完成
+        applyLock.lock();
+        try {
+            SignalConfig effective = ensureConfig(event, signalConfig);
+            long id = enqueueAdd(event, handler, signalConfig, effective, context, lifetime, route);
+            applyPendingCommands();
+            return id;
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    /**
+     * 在作用域内注册信号处理器，作用域关闭时自动解绑
+     *
+     * @return 处理器 ID，被准入控制拒绝时返回 {@link #REJECTED_ID}
+     */
+    public long registerHandler(String event, SignalHandler<S, T> handler, SignalConfig signalConfig, SignalScope scope) {
+        long id = registerHandler(event, handler, signalConfig, new SignalContext(), scope);
+        if (id != REJECTED_ID) {
+            scope.track(event, id);
+        }
+        return id;
+    }
+
+    /**
+     * 创建处理器作用域
+     */
+    public SignalScope openScope() {
+        return new SignalScope(this);
+    }
+
+    /**
+     * 批量注册信号处理器
+     * 所有处理器一次写入命令日志并一次性应用，同一事件的处理器列表只复制一次
+     *
+     * @return 每个处理器的 ID，被准入控制拒绝的位置为 {@link #REJECTED_ID}
+     */
+    public long[] registerHandlers(String event, List<? extends SignalHandler<S, T>> handlers, SignalConfig signalConfig) {
+        long[] ids = new long[handlers.size()];
+        applyLock.lock();
+        try {
+            SignalConfig effective = ensureConfig(event, signalConfig);
+            for (int i = 0; i < ids.length; i++) {
+                SignalHandler<S, T> handler = handlers.get(i);
+                HandlerLifetime lifetime = handler instanceof HandlerLifetime ? (HandlerLifetime) handler : null;
+                ids[i] = enqueueAdd(event, handler, signalConfig, effective, new SignalContext(), lifetime, null);
             }
+            applyPendingCommands();
+        } finally {
+            applyLock.unlock();
+        }
+        return ids;
+    }
+
+    /**
+     * 设置事件配置（已有配置时保留原配置），返回生效的配置，仅由持有应用锁的线程调用
+     */
+    private SignalConfig ensureConfig(String event, SignalConfig signalConfig) {
+        EventSlot<S, T> slot = slotForWrite(event);
+        if (slot.config == null) {
+            slot.config = signalConfig;
+        }
+        return slot.config;
+    }
+
+    /**
+     * 获取或创建事件状态，冷状态的事件会被恢复，仅由持有应用锁的线程调用
+     */
+    private EventSlot<S, T> slotForWrite(String event) {
+        EventSlot<S, T> slot = slots.computeIfAbsent(event, EventSlot::new);
+        if (slot.cold) {
+            warm(slot);
+        }
+        slot.touch(System.currentTimeMillis());
+        return slot;
+    }
+
+    /**
+     * 写入 ADD 命令，仅由持有应用锁的线程调用
+     */
+    private long enqueueAdd(String event, SignalHandler<S, T> handler, SignalConfig signalConfig, SignalConfig effective,
+                            SignalContext context, HandlerLifetime lifetime, RouteCondition<S, T> route) {
+        if (!admit(signalConfig.getPriority())) {
+            log.warn("Handler registration for event [{}] rejected: {} commands pending", event, pendingCommands.get());
+            return REJECTED_ID;
+        }
+        if (!TopicTrie.isPattern(event) && !reserveHandler(event, effective.getMaxHandlers())) {
+            log.warn("Handler registration for event [{}] rejected: maxHandlers {} reached", event, effective.getMaxHandlers());
+            return REJECTED_ID;
         }
+        long id = SnowflakeIdGenerator.nextId();
 
         Sig<S, T> signalHandler = Sig.<S, T>builder()
                 .id(id)
-                .evType(ADD_HANDLER)
                 .signalName(event)
-                .handler(finalHandler)
-                .signalContext(new SignalContext())
+                .evType(ADD_HANDLER)
+                .handler(wrapTransactional(event, handler, signalConfig))
+                .signalContext(context)
                 .priority(signalConfig.getPriority())
+                .lifetime(lifetime)
+                .route(route)
                 .build();
-        priorityQueues.get(signalConfig.getPriority()).offer(signalHandler);
+        append(signalHandler);
         if (signalConfig.isRecordMetrics()){
             metrics.recordHandlerAdded(event);
         }
-        processEvents();
         return id;
     }
 
     /**
-     * 注册信号处理器（带上下文）
+     * 在应用锁内为一个 ADD 预留处理器名额：已注册的处理器加上已准入但尚未应用的 ADD 不超过 maxHandlers，
+     * 因此准入的 ADD 在应用时不会被丢弃，仅由持有应用锁的线程调用
      */
-    public long registerHandler(String event, SignalHandler<S, T> handler, SignalConfig signalConfig, SignalContext context) {
-        signalConfigs.computeIfAbsent(event, k -> signalConfig);
-        long id = SnowflakeIdGenerator.nextId();
-
-        SignalHandler<S, T> finalHandler = handler;
+    private boolean reserveHandler(String event, int maxHandlers) {
+        EventSlot<S, T> slot = slotForWrite(event);
+        if (slot.handlerCount() + slot.reservedHandlers >= maxHandlers) {
+            return false;
+        }
+        slot.reservedHandlers++;
+        return true;
+    }
 
-        // 如果启用了事务支持，尝试通过反射包装为事务感知的处理器
+    /**
+     * 如果启用了事务支持，尝试通过反射包装为事务感知的处理器
+     */
+    @SuppressWarnings("unchecked")
+    private SignalHandler<S, T> wrapTransactional(String event, SignalHandler<S, T> handler, SignalConfig signalConfig) {
         if (transactionManager != null && deadLetterQueueManager != null &&
                 signalConfig.getTransactionConfig() != null &&
                 signalConfig.isTransactionEnabled()) {
             try {
                 // 使用反射动态加载 TransactionalSignalHandler（在 spring 模块中）
                 Class<?> transactionalHandlerClass = Class.forName("io.github.signal.core.tractional.TransactionalSignalHandler");
-                finalHandler = (SignalHandler<S, T>) transactionalHandlerClass
+                SignalHandler<S, T> wrapped = (SignalHandler<S, T>) transactionalHandlerClass
                         .getConstructor(SignalHandler.class, SignalConfig.class, Object.class, Object.class)
                         .newInstance(handler, signalConfig, transactionManager, deadLetterQueueManager);
                 log.debug("为事件 {} 创建事务感知的处理器", event);
+                return wrapped;
             } catch (Exception e) {
                 log.warn("无法创建事务感知处理器，使用原始处理器: {}", e.getMessage());
             }
         }
-
-
-        Sig<S, T> signalHandler = Sig.<S, T>builder()
-                .id(id)
-                .signalName(event)
-                .evType(ADD_HANDLER)
-                .handler(finalHandler)
-                .signalContext(context)
-                .priority(signalConfig.getPriority())
-                .build();
-        priorityQueues.get(signalConfig.getPriority()).offer(signalHandler);
-        if (signalConfig.isRecordMetrics()){
-            metrics.recordHandlerAdded(event);
-        }
-        processEvents();
-        return id;
+        return handler;
     }
 
     /**
      * 解绑信号处理器
      */
     public void unregisterHandler(String event, long id) {
-        SignalConfig config = signalConfigs.getOrDefault(event, new SignalConfig.Builder().build());
-        Sig<S, T> ev = Sig.<S, T>builder()
-                .id(id)
-                .signalName(event)
-                .evType(REMOVE_HANDLER)
-                .signalContext(new SignalContext())
-                .priority(config.getPriority())
-                .build();
-        priorityQueues.get(config.getPriority()).offer(ev);
-        metrics.recordHandlerRemoved(event);
-        processEvents();
+        unregisterHandler(event, id, new SignalContext());
     }
 
     /**
      * 解绑信号处理器（带上下文）
      */
     public void unregisterHandler(String event, long id, SignalContext context) {
-        SignalConfig config = signalConfigs.getOrDefault(event, new SignalConfig.Builder().build());
+        SignalConfig config = getConfig(event);
         Sig<S, T> ev = Sig.<S, T>builder()
                 .id(id)
                 .signalName(event)
@@ -191,62 +362,337 @@ public class SignalRegistry<S, T> {
                 .signalContext(context)
                 .priority(config.getPriority())
                 .build();
-        priorityQueues.get(config.getPriority()).offer(ev);
+        // 解绑总是被接受，它只会释放资源
+        append(ev);
         metrics.recordHandlerRemoved(event);
         processEvents();
     }
 
     /**
-     * 处理事件队列
+     * 替换事件配置（异步、重试、超时、优先级等），已注册的处理器保持不变
+     * 新配置以原子方式替换，之后开始的发射使用新配置，进行中的发射继续使用旧配置。
      */
-    public void processEvents() {
-        if (inLoop) return;
-        synchronized (this) {
-            if (allQueuesEmpty()) return;
-            inLoop = true;
+    public void refreshConfig(String event, SignalConfig signalConfig) {
+        appendControl(Sig.<S, T>builder()
+                .signalName(event)
+                .evType(REFRESH_CONFIG)
+                .priority(signalConfig.getPriority())
+                .config(signalConfig)
+                .build());
+    }
+
+    /**
+     * 暂停事件投递
+     */
+    public void pause(String event) {
+        appendControl(Sig.<S, T>builder().signalName(event).evType(PAUSE_SIGNAL).build());
+    }
+
+    /**
+     * 恢复事件投递
+     */
+    public void resume(String event) {
+        appendControl(Sig.<S, T>builder().signalName(event).evType(RESUME_SIGNAL).build());
+    }
+
+    /**
+     * 事件是否已暂停投递
+     */
+    public boolean isPaused(String event) {
+        EventSlot<S, T> slot = slots.get(event);
+        return slot != null && slot.paused;
+    }
+
+    /**
+     * 写入控制命令，控制命令总是被接受
+     */
+    private void appendControl(Sig<S, T> command) {
+        append(command);
+        processEvents();
+    }
+
+    /**
+     * 准入控制：积压越多，越早拒绝低优先级的注册
+     * LOW 在积压达到 50% 时被拒绝，MEDIUM 在 80% 时被拒绝，HIGH 在达到上限时被拒绝
+     */
+    private boolean admit(SignalPriority priority) {
+        int pending = pendingCommands.get();
+        int max = maxPendingCommands;
+        // 未指定优先级按默认的 MEDIUM 处理
+        switch (priority != null ? priority : SignalPriority.MEDIUM) {
+            case LOW:
+                return pending < max / 2;
+            case MEDIUM:
+                return pending < max - max / 5;
+            default:
+                return pending < max;
         }
+    }
+
+    private void append(Sig<S, T> command) {
+        pendingCommands.incrementAndGet();
+        commandLog.offer(command);
+    }
+
+    /**
+     * 处理命令日志
+     * 调用线程获取应用锁后批量应用所有积压的命令；若其他线程正在应用，则等待其完成，
+     * 保证方法返回时调用线程写入的命令已经生效。
+     * <p>
+     * 即使命令日志已为空也必须获取一次应用锁：其他应用者可能已取走调用线程的命令但尚未应用完成
+     * （ADD 在批次末尾才应用），应用者在释放锁之前会应用完它取走的所有命令。
+     */
+    public void processEvents() {
+        applyLock.lock();
         try {
-            // 按优先级顺序处理：HIGH -> MEDIUM -> LOW
-            processPriorityQueue(SignalPriority.HIGH);
-            processPriorityQueue(SignalPriority.MEDIUM);
-            processPriorityQueue(SignalPriority.LOW);
+            applyPendingCommands();
         } finally {
-            inLoop = false;
+            applyLock.unlock();
         }
     }
 
     /**
-     * 处理优先级队列
+     * 批量应用积压的命令，同一事件连续的 ADD 合并为一次列表复制
      */
-    private void processPriorityQueue(SignalPriority priority) {
-        BlockingQueue<Sig<S, T>> queue = priorityQueues.get(priority);
-        Sig<S, T> sigHandler;
-        while ((sigHandler = queue.poll()) != null) {
-            List<Sig<S, T>> sigs = sigHandlers.computeIfAbsent(sigHandler.getSignalName(), k -> new CopyOnWriteArrayList<>());
-            SignalConfig config = signalConfigs.computeIfAbsent(sigHandler.getSignalName(), k -> new SignalConfig());
-            switch (sigHandler.getEvType()) {
+    private void applyPendingCommands() {
+        Map<String, List<Sig<S, T>>> pendingAdds = new LinkedHashMap<>();
+        Sig<S, T> command;
+        while ((command = commandLog.poll()) != null) {
+            pendingCommands.decrementAndGet();
+            String event = command.getSignalName();
+            switch (command.getEvType()) {
                 case ADD_HANDLER:
-                    if (sigs.size() < config.getMaxHandlers()) {
-                        sigs.add(sigHandler);
-                        log.debug("Handler registered for event: {}", sigHandler.getSignalName());
-                    }
+                    pendingAdds.computeIfAbsent(event, k -> new ArrayList<>()).add(command);
                     break;
                 case REMOVE_HANDLER:
-                    Sig<S, T> finalEvent = sigHandler;
-                    sigs.removeIf(sh -> Objects.equals(sh.getId(), finalEvent.getId()));
-                    log.debug("Handler unregistered for event: {}", sigHandler.getSignalName());
+                    // 先应用该事件之前的 ADD，保证命令顺序
+                    List<Sig<S, T>> adds = pendingAdds.remove(event);
+                    if (adds != null) {
+                        applyAdds(event, adds);
+                    }
+                    long id = command.getId();
+                    if (TopicTrie.isPattern(event)) {
+                        wildcardHandlers.removeIf(event, sh -> sh.getId() == id);
+                    } else {
+                        EventSlot<S, T> slot = slots.get(event);
+                        if (slot != null) {
+                            slotForWrite(event).handlersForWrite().remove(id);
+                        }
+                    }
+                    handlerGeneration.incrementAndGet();
+                    log.debug("Handler unregistered for event: {}", event);
+                    break;
+                case REFRESH_CONFIG:
+                    slotForWrite(event).config = command.getConfig();
+                    log.info("Config refreshed for event: {}", event);
+                    break;
+                case PAUSE_SIGNAL:
+                    slotForWrite(event).paused = true;
+                    log.info("Signal paused: {}", event);
+                    break;
+                case RESUME_SIGNAL:
+                    EventSlot<S, T> paused = slots.get(event);
+                    if (paused != null) {
+                        paused.paused = false;
+                    }
+                    log.info("Signal resumed: {}", event);
+                    break;
+                case CLEAR_SIGNAL:
+                    // 之前写入的 ADD 随事件一起清除
+                    pendingAdds.remove(event);
+                    if (TopicTrie.isPattern(event)) {
+                        wildcardHandlers.removeAll(event);
+                    }
+                    slots.remove(event);
+                    handlerGeneration.incrementAndGet();
+                    log.debug("已清除事件: {}", event);
                     break;
                 default:
-                    log.warn("Unknown event type: {}", sigHandler.getEvType());
+                    log.warn("Unknown event type: {}", command.getEvType());
             }
         }
+        pendingAdds.forEach(this::applyAdds);
     }
 
     /**
-     * 判断所有队列是否为空
+     * 一次性追加同一事件的多个处理器
+     * 名额已在写入命令时预留，这里不再按 maxHandlers 截断（与配置刷新后保留已注册处理器的行为一致）
      */
-    private boolean allQueuesEmpty() {
-        return priorityQueues.values().stream().allMatch(Queue::isEmpty);
+    private void applyAdds(String event, List<Sig<S, T>> adds) {
+        if (TopicTrie.isPattern(event)) {
+            for (Sig<S, T> sig : adds) {
+                wildcardHandlers.add(event, sig);
+            }
+            handlerGeneration.incrementAndGet();
+            log.debug("{} handler(s) subscribed to pattern: {}", adds.size(), event);
+            return;
+        }
+        EventSlot<S, T> slot = slotForWrite(event);
+        slot.reservedHandlers = Math.max(0, slot.reservedHandlers - adds.size());
+        int added = slot.handlersForWrite().addAll(adds.toArray(HandlerSet.newArray(adds.size())), Integer.MAX_VALUE);
+        if (added > 0) {
+            handlerGeneration.incrementAndGet();
+        }
+        log.debug("{} handler(s) registered for event: {}", added, event);
+    }
+
+    /**
+     * 移除所有已过期的处理器（弱引用被回收、作用域关闭或 TTL 到期）
+     * 作为命令日志的应用者执行，每个事件的处理器数组最多重建一次
+     *
+     * @return 移除的处理器数量
+     */
+    public int reapExpired() {
+        int total = 0;
+        applyLock.lock();
+        try {
+            for (EventSlot<S, T> slot : slots.values()) {
+                if (slot.cold) {
+                    // 冷状态的事件在恢复时再清理
+                    continue;
+                }
+                HandlerSet<S, T> set = slot.handlers;
+                int reaped = set != null ? set.removeExpired() : 0;
+                if (reaped > 0) {
+                    metrics.recordHandlersReaped(slot.event, reaped);
+                    total += reaped;
+                }
+            }
+            if (!wildcardHandlers.isEmpty()) {
+                for (String pattern : wildcardHandlers.patterns()) {
+                    int reaped = wildcardHandlers.removeIf(pattern, Sig::isExpired);
+                    if (reaped > 0) {
+                        metrics.recordHandlersReaped(pattern, reaped);
+                        total += reaped;
+                    }
+                }
+            }
+            if (total > 0) {
+                handlerGeneration.incrementAndGet();
+                log.debug("Reaped {} expired handler(s)", total);
+            }
+        } finally {
+            applyLock.unlock();
+        }
+        return total;
+    }
+
+    /**
+     * 将空闲的事件转入冷存储（仅紧凑模式）
+     * 冷状态的事件只保留配置、处理器数组和指标快照；没有处理器的事件会被直接移除。
+     *
+     * @param idleMillis 超过该时长未被访问的事件视为空闲
+     * @return 被转入冷存储或移除的事件名，调用方可据此释放保护策略等状态
+     */
+    public List<String> evictIdle(long idleMillis) {
+        if (!compactMode) {
+            return Collections.emptyList();
+        }
+        long deadline = System.currentTimeMillis() - idleMillis;
+        List<String> evicted = new ArrayList<>();
+        applyLock.lock();
+        try {
+            for (EventSlot<S, T> slot : slots.values()) {
+                if (slot.cold || slot.paused || slot.lastAccess > deadline || TopicTrie.isPattern(slot.event)
+                        || slot.reservedHandlers > 0) {
+                    continue;
+                }
+                Sig<S, T>[] sigs = slot.handlerArray();
+                long[] snapshot = metrics.evict(slot.event);
+                if (sigs.length == 0) {
+                    slots.remove(slot.event, slot);
+                } else {
+                    slot.coldMetrics = snapshot;
+                    slot.coldHandlers = sigs;
+                    slot.handlers = null;
+                    slot.cold = true;
+                }
+                resolvedHandlers.remove(slot.event);
+                evicted.add(slot.event);
+            }
+        } finally {
+            applyLock.unlock();
+        }
+        if (!evicted.isEmpty()) {
+            log.debug("{} idle event(s) moved to cold storage", evicted.size());
+        }
+        return evicted;
+    }
+
+    /**
+     * 将冷状态的事件恢复为热状态
+     */
+    private void warm(EventSlot<S, T> slot) {
+        applyLock.lock();
+        try {
+            if (!slot.cold) {
+                return;
+            }
+            if (slot.coldMetrics != null) {
+                metrics.restore(slot.event, slot.coldMetrics);
+                slot.coldMetrics = null;
+            }
+            int reaped = slot.handlersForWrite().removeExpired();
+            if (reaped > 0) {
+                metrics.recordHandlersReaped(slot.event, reaped);
+            }
+            slot.lastAccess = System.currentTimeMillis();
+            slot.cold = false;
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    /**
+     * 读取事件状态，紧凑模式下记录访问时间并恢复冷状态的事件
+     */
+    private EventSlot<S, T> slot(String event) {
+        EventSlot<S, T> slot = slots.get(event);
+        if (slot != null && compactMode) {
+            slot.touch(System.currentTimeMillis());
+            if (slot.cold) {
+                warm(slot);
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * 启用或关闭紧凑模式
+     */
+    public void setCompactMode(boolean compactMode) {
+        this.compactMode = compactMode;
+    }
+
+    public boolean isCompactMode() {
+        return compactMode;
+    }
+
+    /**
+     * 获取冷存储中的事件数量
+     */
+    public int getColdEventCount() {
+        int count = 0;
+        for (EventSlot<S, T> slot : slots.values()) {
+            if (slot.cold) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 设置最多积压的命令数
+     */
+    public void setMaxPendingCommands(int maxPendingCommands) {
+        this.maxPendingCommands = maxPendingCommands;
+    }
+
+    /**
+     * 获取当前积压的命令数
+     */
+    public int getPendingCommands() {
+        return pendingCommands.get();
     }
 
 
@@ -254,57 +700,158 @@ public class SignalRegistry<S, T> {
      * 获取信号配置
      */
     public SignalConfig getConfig(String event) {
-        return signalConfigs.getOrDefault(event, new SignalConfig.Builder().build());
+        EventSlot<S, T> slot = slot(event);
+        SignalConfig config = slot != null ? slot.config : null;
+        return config != null ? config : DEFAULT_CONFIG;
     }
 
     /**
      * 获取事件处理器列表
      */
     public List<Sig<S, T>> getHandlers(String event) {
-        return sigHandlers.getOrDefault(event, Collections.emptyList());
+        return Collections.unmodifiableList(Arrays.asList(getHandlerArray(event)));
+    }
+
+    /**
+     * 获取接收该信号的处理器数组：未设置路由的处理器，加上路由条件与信号匹配的处理器，顺序与
+     * {@link #getHandlerArray(String)} 一致。数组不可修改
+     */
+    public Sig<S, T>[] getHandlerArray(String event, Envelope<S, T> envelope) {
+        Sig<S, T>[] handlers = getHandlerArray(event);
+        if (!routed || handlers.length == 0) {
+            return handlers;
+        }
+        RoutingIndex<S, T> index = routingIndexes.get(event);
+        if (index == null || index.source != handlers) {
+            index = new RoutingIndex<>(handlers);
+            routingIndexes.put(event, index);
+        }
+        return index.isRouted() ? index.select(envelope) : handlers;
+    }
+
+    /**
+     * 获取事件处理器数组（按优先级排序），发射时按下标遍历，数组不可修改
+     * 与 {@link #getConfig(String)} 一样记录访问时间并恢复冷状态的事件
+     */
+    public Sig<S, T>[] getHandlerArray(String event) {
+        EventSlot<S, T> slot = slot(event);
+        Sig<S, T>[] exact = slot != null ? slot.handlerArray() : HandlerSet.emptySigs();
+        if (wildcardHandlers.isEmpty() || TopicTrie.isPattern(event)) {
+            return exact;
+        }
+        long generation = handlerGeneration.get();
+        ResolvedHandlers<S, T> resolved = resolvedHandlers.get(event);
+        if (resolved != null && resolved.generation == generation) {
+            return resolved.handlers;
+        }
+
+        List<Sig<S, T>> matched = wildcardHandlers.match(event);
+        Sig<S, T>[] handlers = exact;
+        if (!matched.isEmpty()) {
+            handlers = Arrays.copyOf(exact, exact.length + matched.size());
+            for (int i = 0; i < matched.size(); i++) {
+                handlers[exact.length + i] = matched.get(i);
+            }
+            // 稳定排序，保持同优先级处理器的注册顺序
+            Arrays.sort(handlers, HANDLER_ORDER);
+        }
+        // 以计算前读取的版本号缓存，若期间订阅发生变化，下次访问会重新计算
+        resolvedHandlers.put(event, new ResolvedHandlers<>(generation, handlers));
+        return handlers;
     }
 
     /**
      * 检查事件是否有处理器
      */
     public boolean hasHandlers(String event) {
-        List<Sig<S, T>> handlers = sigHandlers.get(event);
-        return handlers != null && !handlers.isEmpty();
+        return getHandlerArray(event).length > 0;
     }
 
     /**
      * 清除所有事件（用于应用关闭时清理资源）
      */
     public void clearAll() {
-        int handlerCount = sigHandlers.size();
-        int configCount = signalConfigs.size();
-
-        sigHandlers.clear();
-        signalConfigs.clear();
-
-        // 清空所有优先级队列
-        for (SignalPriority priority : SignalPriority.values()) {
-            priorityQueues.get(priority).clear();
+        int eventCount;
+        // 与命令日志的应用者互斥，并丢弃尚未应用的命令
+        applyLock.lock();
+        try {
+            eventCount = slots.size();
+            commandLog.clear();
+            pendingCommands.set(0);
+            slots.clear();
+            wildcardHandlers.clear();
+            resolvedHandlers.clear();
+            routingIndexes.clear();
+            handlerGeneration.incrementAndGet();
+        } finally {
+            applyLock.unlock();
         }
 
-        log.info("All signal handlers cleared: {} handlers, {} configs", handlerCount, configCount);
+        log.info("All signal handlers cleared: {} events", eventCount);
     }
 
     /**
      * 清除指定事件
+     * 与其他写操作一样写入命令日志，按写入顺序应用
      */
     public void clear(String... events) {
         for (String event : events) {
-            sigHandlers.remove(event);
-            signalConfigs.remove(event);
-            log.debug("已清除事件: {}", event);
+            // 清除总是被接受，它只会释放资源
+            append(Sig.<S, T>builder().signalName(event).evType(CLEAR_SIGNAL).build());
         }
+        processEvents();
     }
 
     /**
      * 获取已注册的事件列表
      */
     public Set<String> getRegisteredEvents() {
-        return Collections.unmodifiableSet(sigHandlers.keySet());
+        Set<String> events = new HashSet<>();
+        for (EventSlot<S, T> slot : slots.values()) {
+            if (!TopicTrie.isPattern(slot.event) && slot.handlerCount() > 0) {
+                events.add(slot.event);
+            }
+        }
+        return Collections.unmodifiableSet(events);
+    }
+
+    /**
+     * 解析广播目标：通配模式展开为当前已注册处理器的事件，按出现顺序去重
+     */
+    public Set<String> resolveEvents(Collection<String> targets) {
+        Set<String> events = new LinkedHashSet<>();
+        for (String target : targets) {
+            if (!TopicTrie.isPattern(target)) {
+                events.add(target);
+                continue;
+            }
+            for (EventSlot<S, T> slot : slots.values()) {
+                if (!TopicTrie.isPattern(slot.event) && slot.handlerCount() > 0
+                        && TopicTrie.matches(target, slot.event)) {
+                    events.add(slot.event);
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * 获取已注册的通配订阅
+     */
+    public List<String> getSubscribedPatterns() {
+        return wildcardHandlers.patterns();
+    }
+
+    /**
+     * 某个版本下事件合并后的处理器列表
+     */
+    private static final class ResolvedHandlers<S, T> {
+        private final long generation;
+        private final Sig<S, T>[] handlers;
+
+        private ResolvedHandlers(long generation, Sig<S, T>[] handlers) {
+            this.generation = generation;
+            this.handlers = handlers;
+        }
     }
 }
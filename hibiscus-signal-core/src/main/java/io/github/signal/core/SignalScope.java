@@ -0,0 +1,73 @@
+package io.github.signal.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A lifecycle token that groups handler registrations.
+ * Closing the scope unregisters every handler registered within it, so a scope can be bound to
+ * a session or request and used in try-with-resources. Handlers of a closed scope are also skipped
+ * on emit, even before their unregistration has been applied.
+ */
+public class SignalScope implements AutoCloseable, HandlerLifetime {
+
+    private final SignalRegistry<?, ?> registry;
+
+    // 已注册的 (事件, 处理器ID)
+    private final List<String> events = new ArrayList<>();
+    private final List<Long> ids = new ArrayList<>();
+
+    private volatile boolean closed;
+
+    SignalScope(SignalRegistry<?, ?> registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records a handler registered within this scope.
+     * If the scope is already closed the handler is unregistered immediately.
+     */
+    synchronized void track(String event, long id) {
+        if (closed) {
+            registry.unregisterHandler(event, id);
+            return;
+        }
+        events.add(event);
+        ids.add(id);
+    }
+
+    @Override
+    public boolean isExpired() {
+        return closed;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the number of handlers registered within this scope.
+     */
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    @Override
+    public void close() {
+        List<String> closingEvents;
+        List<Long> closingIds;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closingEvents = new ArrayList<>(events);
+            closingIds = new ArrayList<>(ids);
+            events.clear();
+            ids.clear();
+        }
+        for (int i = 0; i < closingIds.size(); i++) {
+            registry.unregisterHandler(closingEvents.get(i), closingIds.get(i));
+        }
+    }
+}
@@ -2,12 +2,38 @@ package io.github.signal.core;
 
 import io.github.signal.core.model.Envelope;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 @FunctionalInterface
 public interface SignalTransformer<S, T> {
 
     /**
      * 在将信号参数传递给处理程序之前对其进行转换。
+     * 多个转换器按注册顺序组合，每个转换器接收上一个转换器的输出；返回 null 表示阻止信号。
+     * 纯转换器（默认）不得修改传入的参数，应返回新的参数或原样返回。
      * @return 转换后的参数
      */
     Envelope<S, T> transform(String event, Envelope<S, T> envelope);
+
+    /**
+     * 异步转换信号参数，异步事件的管道使用该方法。
+     * 默认在当前线程调用 {@link #transform}，需要等待远程调用等耗时操作时可覆盖为非阻塞实现
+     * @return 完成值为转换后的参数
+     */
+    default CompletionStage<Envelope<S, T>> transformAsync(String event, Envelope<S, T> envelope) {
+        return CompletableFuture.completedFuture(transform(event, envelope));
+    }
+
+    /**
+     * 是否为就地修改的转换器。
+     * 就地修改的转换器直接修改并返回传入的参数，不创建新的参数；
+     * 管道保证传入的参数归管道所有（必要时在第一个就地修改的转换器之前复制一次调用方的参数）。
+     * 调用方的参数在发射后仍被调用方、回调和广播持有，因此第一个就地修改的转换器之前总会复制一次，
+     * 节省的是之后每个阶段的对象创建；前面有纯转换器返回新参数时不再复制。
+     * @return 是否就地修改（默认为 false）
+     */
+    default boolean isMutating() {
+        return false;
+    }
 }
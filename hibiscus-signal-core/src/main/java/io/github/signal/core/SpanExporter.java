@@ -0,0 +1,26 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.SignalContext;
+
+import java.util.List;
+
+/**
+ * Exports the spans of completed traces to a tracing backend.
+ * Called by {@link BatchSpanProcessor} on its own thread, never on the emit path.
+ */
+public interface SpanExporter {
+
+    /**
+     * Exports a batch of completed traces.
+     *
+     * @param traces the traces, each with the spans recorded in its context
+     * @throws Exception if the batch could not be exported, the batch is then dropped
+     */
+    void export(List<SignalContext> traces) throws Exception;
+
+    /**
+     * Releases the resources of the exporter.
+     */
+    default void shutdown() {
+    }
+}
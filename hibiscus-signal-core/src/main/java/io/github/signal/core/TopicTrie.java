@@ -0,0 +1,230 @@
+package io.github.signal.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * A segment trie for hierarchical event names such as {@code order.created.eu}.
+ * Purpose:
+ * - Stores values under topic patterns whose segments are separated by {@code '.'}.
+ * - {@code *} matches exactly one segment, {@code #} matches zero or more segments
+ *   (e.g. {@code user.*} matches {@code user.login}, {@code order.#} matches {@code order} and {@code order.paid.eu}).
+ * - Matching an event walks the trie one segment at a time, so the cost depends on the depth of the
+ *   event name and not on the number of registered patterns.
+ * - Reads are lock-free; writes are serialized on the trie.
+ *
+ * @param <V> the type of values stored under the patterns
+ */
+public class TopicTrie<V> {
+
+    public static final String SINGLE_WILDCARD = "*";
+    public static final String MULTI_WILDCARD = "#";
+
+    private final Node<V> root = new Node<>();
+
+    // Number of values stored, used to skip matching when the trie is empty
+    private volatile int size;
+
+    /**
+     * Checks whether an event name contains wildcard segments.
+     *
+     * @param event the event name or pattern
+     * @return true if the name is a pattern
+     */
+    public static boolean isPattern(String event) {
+        return event != null && (event.indexOf('*') >= 0 || event.indexOf('#') >= 0);
+    }
+
+    /**
+     * Checks whether a concrete event name matches a pattern, without building a trie.
+     *
+     * @param pattern the topic pattern
+     * @param event   the concrete event name
+     * @return true if the event matches the pattern
+     */
+    public static boolean matches(String pattern, String event) {
+        return matches(split(pattern), 0, split(event), 0);
+    }
+
+    private static boolean matches(String[] pattern, int p, String[] segments, int s) {
+        if (p == pattern.length) {
+            return s == segments.length;
+        }
+        if (MULTI_WILDCARD.equals(pattern[p])) {
+            for (int i = s; i <= segments.length; i++) {
+                if (matches(pattern, p + 1, segments, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (s == segments.length) {
+            return false;
+        }
+        return (SINGLE_WILDCARD.equals(pattern[p]) || pattern[p].equals(segments[s]))
+                && matches(pattern, p + 1, segments, s + 1);
+    }
+
+    /**
+     * Adds a value under a pattern.
+     *
+     * @param pattern the topic pattern
+     * @param value   the value to add
+     */
+    public synchronized void add(String pattern, V value) {
+        Node<V> node = root;
+        for (String segment : split(pattern)) {
+            node = node.children.computeIfAbsent(segment, k -> new Node<>());
+        }
+        List<V> updated = new ArrayList<>(node.values);
+        updated.add(value);
+        node.values = Collections.unmodifiableList(updated);
+        size++;
+    }
+
+    /**
+     * Removes the values of a pattern that match the filter.
+     *
+     * @param pattern the topic pattern
+     * @param filter  selects the values to remove
+     * @return the number of values removed
+     */
+    public synchronized int removeIf(String pattern, Predicate<? super V> filter) {
+        Node<V> node = root;
+        for (String segment : split(pattern)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return 0;
+            }
+        }
+        List<V> updated = new ArrayList<>(node.values);
+        int before = updated.size();
+        if (!updated.removeIf(filter)) {
+            return 0;
+        }
+        node.values = updated.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(updated);
+        int removed = before - updated.size();
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Removes all values of a pattern.
+     *
+     * @param pattern the topic pattern
+     */
+    public void removeAll(String pattern) {
+        removeIf(pattern, v -> true);
+    }
+
+    /**
+     * Collects the values of every pattern matching an event, in trie order.
+     *
+     * @param event the concrete event name
+     * @return the matching values, empty if nothing matches
+     */
+    public List<V> match(String event) {
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<V> result = new ArrayList<>();
+        collect(root, split(event), 0, result);
+        return result;
+    }
+
+    /**
+     * Returns the values stored under exactly this pattern, without wildcard matching.
+     *
+     * @param pattern the topic pattern
+     * @return the values of the pattern, empty if none
+     */
+    public List<V> get(String pattern) {
+        Node<V> node = root;
+        for (String segment : split(pattern)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+        }
+        return node.values;
+    }
+
+    /**
+     * Returns the registered patterns.
+     */
+    public List<String> patterns() {
+        List<String> result = new ArrayList<>();
+        collectPatterns(root, "", result);
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public synchronized void clear() {
+        root.children.clear();
+        root.values = Collections.emptyList();
+        size = 0;
+    }
+
+    private void collect(Node<V> node, String[] segments, int index, List<V> result) {
+        Node<V> multi = node.children.get(MULTI_WILDCARD);
+        if (multi != null) {
+            // '#' swallows any number of the remaining segments, including none
+            for (int i = index; i <= segments.length; i++) {
+                collect(multi, segments, i, result);
+            }
+        }
+        if (index == segments.length) {
+            result.addAll(node.values);
+            return;
+        }
+        Node<V> exact = node.children.get(segments[index]);
+        if (exact != null) {
+            collect(exact, segments, index + 1, result);
+        }
+        Node<V> single = node.children.get(SINGLE_WILDCARD);
+        if (single != null) {
+            collect(single, segments, index + 1, result);
+        }
+    }
+
+    private void collectPatterns(Node<V> node, String prefix, List<String> result) {
+        if (!node.values.isEmpty()) {
+            result.add(prefix);
+        }
+        node.children.forEach((segment, child) ->
+                collectPatterns(child, prefix.isEmpty() ? segment : prefix + "." + segment, result));
+    }
+
+    private static String[] split(String topic) {
+        // 手动切分，避免 String.split 的正则开销
+        int count = 1;
+        for (int i = 0; i < topic.length(); i++) {
+            if (topic.charAt(i) == '.') {
+                count++;
+            }
+        }
+        String[] segments = new String[count];
+        int start = 0;
+        int n = 0;
+        for (int i = 0; i < topic.length(); i++) {
+            if (topic.charAt(i) == '.') {
+                segments[n++] = topic.substring(start, i);
+                start = i + 1;
+            }
+        }
+        segments[n] = topic.substring(start);
+        return segments;
+    }
+
+    private static final class Node<V> {
+        private final Map<String, Node<V>> children = new ConcurrentHashMap<>();
+        private volatile List<V> values = Collections.emptyList();
+    }
+}
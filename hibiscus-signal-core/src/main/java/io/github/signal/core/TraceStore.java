@@ -0,0 +1,347 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.SignalContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded store of signal traces, queryable by trace id.
+ * Purpose:
+ * - Keeps at most {@code capacity} traces in a ring; recording a trace into a full ring drops the oldest one,
+ *   so the store never grows with the number of emits.
+ * - Traces older than {@code ttlMillis} are no longer returned and are released by {@link #cleanUp()}.
+ * - Head sampling: only a {@code sampleRate} fraction of the traces is kept when recorded. The decision is made
+ *   once per trace ({@link #sample}) and stored in its context; only sampled traces record spans.
+ * - Tail sampling: traces not kept by head sampling wait in a separate bounded ring until
+ *   {@link #complete(String, boolean)} is called, and are kept if they failed ({@code keepErrors}) or took
+ *   at least {@code slowThresholdMillis}; otherwise they are dropped.
+ *
+ * <pre>
+ * TraceStore traces = TraceStore.builder()
+ *         .capacity(5000)
+ *         .ttlMillis(600000)
+ *         .sampleRate(0.01)
+ *         .keepErrors(true)
+ *         .slowThresholdMillis(500)
+ *         .build();
+ * </pre>
+ */
+public class TraceStore {
+
+    private final int capacity;
+    private final long ttlMillis;
+    private final double sampleRate;
+    private final boolean keepErrors;
+    private final long slowThresholdNanos;
+
+    // Kept traces, queryable
+    private final Ring kept;
+
+    // Traces waiting for the tail sampling decision, null without tail sampling
+    private final Ring pending;
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder promoted = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    private TraceStore(Builder builder) {
+        this.capacity = builder.capacity;
+        this.ttlMillis = builder.ttlMillis;
+        this.sampleRate = builder.sampleRate;
+        this.keepErrors = builder.keepErrors;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(builder.slowThresholdMillis);
+        this.kept = new Ring(capacity);
+        this.pending = keepErrors || slowThresholdNanos > 0 ? new Ring(capacity) : null;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Records a trace when its signal is emitted.
+     */
+    public void record(SignalContext context) {
+        if (context == null || context.getTraceId() == null) {
+            return;
+        }
+        recorded.increment();
+        boolean sampled = sample(context);
+        if (!sampled && pending == null) {
+            sampledOut.increment();
+            return;
+        }
+        Entry entry = new Entry(context, sampled);
+        index.put(entry.traceId, entry);
+        if (sampled) {
+            add(kept, entry);
+        } else {
+            add(pending, entry);
+        }
+    }
+
+    /**
+     * Decides whether a trace is sampled, once: a decision already stored in the context is kept.
+     * Traces promoted by tail sampling were not sampled and therefore have no spans.
+     *
+     * @return whether the trace is sampled
+     */
+    public boolean sample(SignalContext context) {
+        Boolean decided = context.getSampled();
+        if (decided != null) {
+            return decided;
+        }
+        boolean sampled = sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        context.setSampled(sampled);
+        return sampled;
+    }
+
+    /**
+     * Records the outcome of a trace and applies tail sampling to it.
+     *
+     * @param traceId the trace id
+     * @param failed  whether a handler failed
+     */
+    public void complete(String traceId, boolean failed) {
+        if (traceId == null) {
+            return;
+        }
+        Entry entry = index.get(traceId);
+        if (entry == null || entry.completed) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - entry.startNanos;
+        entry.completed = true;
+        if (entry.kept) {
+            return;
+        }
+        if ((keepErrors && failed) || (slowThresholdNanos > 0 && durationNanos >= slowThresholdNanos)) {
+            entry.kept = true;
+            promoted.increment();
+            add(kept, entry);
+        } else {
+            sampledOut.increment();
+            index.remove(traceId, entry);
+        }
+    }
+
+    /**
+     * Checks whether a trace is waiting for its outcome or kept, i.e. whether {@link #complete} has an effect.
+     */
+    public boolean isTracked(String traceId) {
+        if (traceId == null) {
+            return false;
+        }
+        Entry entry = index.get(traceId);
+        return entry != null && !entry.completed;
+    }
+
+    /**
+     * Returns a kept trace.
+     *
+     * @return the trace context, null if the trace was not kept, was dropped or expired
+     */
+    public SignalContext get(String traceId) {
+        Entry entry = traceId != null ? index.get(traceId) : null;
+        if (entry == null || !entry.kept) {
+            return null;
+        }
+        if (isExpired(entry, System.currentTimeMillis())) {
+            index.remove(traceId, entry);
+            return null;
+        }
+        return entry.context;
+    }
+
+    /**
+     * Returns the most recently kept traces, newest first.
+     *
+     * @param limit the maximum number of traces
+     */
+    public List<SignalContext> recent(int limit) {
+        List<SignalContext> traces = new ArrayList<>(Math.min(Math.max(limit, 0), capacity));
+        long now = System.currentTimeMillis();
+        long cursor = kept.cursor.get();
+        for (long i = cursor - 1; i >= 0 && i >= cursor - capacity && traces.size() < limit; i--) {
+            Entry entry = kept.slots.get((int) (i % capacity));
+            if (entry != null && !isExpired(entry, now)) {
+                traces.add(entry.context);
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * Releases expired traces and pending traces that never completed within the TTL.
+     *
+     * @return the number of traces released
+     */
+    public int cleanUp() {
+        if (ttlMillis <= 0) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int removed = cleanUp(kept, now);
+        if (pending != null) {
+            removed += cleanUp(pending, now);
+        }
+        return removed;
+    }
+
+    private int cleanUp(Ring ring, long now) {
+        int removed = 0;
+        for (int i = 0; i < capacity; i++) {
+            Entry entry = ring.slots.get(i);
+            if (entry != null && isExpired(entry, now) && ring.slots.compareAndSet(i, entry, null)
+                    && release(ring, entry)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            kept.slots.set(i, null);
+            if (pending != null) {
+                pending.slots.set(i, null);
+            }
+        }
+        index.clear();
+    }
+
+    /**
+     * Returns the number of recorded, kept, promoted (tail sampled), sampled out and evicted traces.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("capacity", capacity);
+        stats.put("size", index.size());
+        stats.put("recordedCount", recorded.sum());
+        stats.put("promotedCount", promoted.sum());
+        stats.put("sampledOutCount", sampledOut.sum());
+        stats.put("evictionCount", evicted.sum());
+        stats.put("sampleRate", sampleRate);
+        return stats;
+    }
+
+    private void add(Ring ring, Entry entry) {
+        int slot = (int) (ring.cursor.getAndIncrement() % capacity);
+        Entry old = ring.slots.getAndSet(slot, entry);
+        if (old != null && release(ring, old)) {
+            evicted.increment();
+        }
+    }
+
+    /**
+     * Removes an entry dropped from a ring from the index.
+     */
+    private boolean release(Ring ring, Entry entry) {
+        // 已提升到保留区的追踪仍在等待区中，等待区丢弃它时不能移除
+        if (ring != kept && entry.kept) {
+            return false;
+        }
+        return index.remove(entry.traceId, entry);
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlMillis > 0 && now - entry.recordedAt > ttlMillis;
+    }
+
+    private static final class Ring {
+        private final AtomicReferenceArray<Entry> slots;
+        private final AtomicLong cursor = new AtomicLong();
+
+        private Ring(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+    }
+
+    private static final class Entry {
+        private final String traceId;
+        private final SignalContext context;
+        private final long recordedAt = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private volatile boolean kept;
+        private volatile boolean completed;
+
+        private Entry(SignalContext context, boolean kept) {
+            this.traceId = context.getTraceId();
+            this.context = context;
+            this.kept = kept;
+        }
+    }
+
+    public static class Builder {
+        private int capacity = 10000;
+        private long ttlMillis = 600000L;
+        private double sampleRate = 1.0;
+        private boolean keepErrors = true;
+        private long slowThresholdMillis = 0L;
+
+        private Builder() {
+        }
+
+        /**
+         * Maximum number of kept traces, the same number of traces can wait for tail sampling.
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Time a trace stays queryable, 0 keeps traces until they are overwritten.
+         */
+        public Builder ttlMillis(long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+            return this;
+        }
+
+        /**
+         * Fraction of traces kept when recorded, between 0 and 1.
+         */
+        public Builder sampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Keeps traces that were not sampled if a handler failed.
+         */
+        public Builder keepErrors(boolean keepErrors) {
+            this.keepErrors = keepErrors;
+            return this;
+        }
+
+        /**
+         * Keeps traces that were not sampled if they took at least this long, 0 = disabled.
+         */
+        public Builder slowThresholdMillis(long slowThresholdMillis) {
+            this.slowThresholdMillis = slowThresholdMillis;
+            return this;
+        }
+
+        public TraceStore build() {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+            }
+            if (sampleRate < 0 || sampleRate > 1) {
+                throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + sampleRate);
+            }
+            return new TraceStore(this);
+        }
+    }
+}
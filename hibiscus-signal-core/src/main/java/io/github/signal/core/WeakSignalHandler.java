@@ -0,0 +1,41 @@
+package io.github.signal.core;
+
+import io.github.signal.core.model.Envelope;
+
+import java.lang.ref.WeakReference;
+import java.util.function.BiConsumer;
+
+/**
+ * A handler that only holds a weak reference to its owner (e.g. a websocket session).
+ * Once the owner has been garbage collected the handler expires and is reaped from the registry.
+ * <p>
+ * The action receives the owner as an argument and must not capture it, otherwise the owner
+ * stays strongly reachable through the registry and never expires.
+ *
+ * @param <O> the type of the owner
+ * @param <S> the type of the signal source
+ * @param <T> the type of the signal payload
+ */
+public class WeakSignalHandler<O, S, T> implements SignalHandler<S, T>, HandlerLifetime {
+
+    private final WeakReference<O> owner;
+    private final BiConsumer<? super O, Envelope<S, T>> action;
+
+    public WeakSignalHandler(O owner, BiConsumer<? super O, Envelope<S, T>> action) {
+        this.owner = new WeakReference<>(owner);
+        this.action = action;
+    }
+
+    @Override
+    public void handle(Envelope<S, T> envelope) {
+        O target = owner.get();
+        if (target != null) {
+            action.accept(target, envelope);
+        }
+    }
+
+    @Override
+    public boolean isExpired() {
+        return owner.get() == null;
+    }
+}
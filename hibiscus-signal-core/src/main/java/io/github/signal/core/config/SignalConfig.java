@@ -42,6 +42,21 @@ public class SignalConfig {
      */
     private SignalPriority priority;
 
+    /**
+     * 是否启用对冲执行：处理器超过其 p95 耗时未完成时并行发起第二次尝试
+     */
+    private boolean hedgingEnabled;
+
+    /**
+     * 对冲预算：最多对多少百分比的调用发起对冲
+     */
+    private int hedgeBudgetPercent;
+
+    /**
+     * 对冲最小延迟，p95 样本不足或更小时使用
+     */
+    private long hedgeMinDelayMs;
+
     /**
      * 事务配置（可选，仅在 spring 模块中可用）
      */
@@ -67,6 +82,28 @@ public class SignalConfig {
         this.timeoutMs = builder.timeoutMs;
         this.recordMetrics = builder.recordMetrics;
         this.priority = builder.priority;
+        this.hedgingEnabled = builder.hedgingEnabled;
+        this.hedgeBudgetPercent = builder.hedgeBudgetPercent;
+        this.hedgeMinDelayMs = builder.hedgeMinDelayMs;
+        this.transactionConfig = builder.transactionConfig;
+    }
+
+    /**
+     * 基于当前配置创建 builder，用于在运行时派生新的配置
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .async(async)
+                .maxRetries(maxRetries)
+                .retryDelayMs(retryDelayMs)
+                .maxHandlers(maxHandlers)
+                .timeoutMs(timeoutMs)
+                .recordMetrics(recordMetrics)
+                .priority(priority)
+                .hedgingEnabled(hedgingEnabled)
+                .hedgeBudgetPercent(hedgeBudgetPercent)
+                .hedgeMinDelayMs(hedgeMinDelayMs)
+                .transactionConfig(transactionConfig);
     }
 
     public boolean isAsync() {
@@ -97,6 +134,18 @@ public class SignalConfig {
         return priority;
     }
 
+    public boolean isHedgingEnabled() {
+        return hedgingEnabled;
+    }
+
+    public int getHedgeBudgetPercent() {
+        return hedgeBudgetPercent;
+    }
+
+    public long getHedgeMinDelayMs() {
+        return hedgeMinDelayMs;
+    }
+
     public void setAsync(boolean async) {
         this.async = async;
     }
@@ -125,6 +174,18 @@ public class SignalConfig {
         this.priority = priority;
     }
 
+    public void setHedgingEnabled(boolean hedgingEnabled) {
+        this.hedgingEnabled = hedgingEnabled;
+    }
+
+    public void setHedgeBudgetPercent(int hedgeBudgetPercent) {
+        this.hedgeBudgetPercent = hedgeBudgetPercent;
+    }
+
+    public void setHedgeMinDelayMs(long hedgeMinDelayMs) {
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+    }
+
     public Object getTransactionConfig() {
         return transactionConfig;
     }
@@ -164,6 +225,12 @@ public class SignalConfig {
 
         private SignalPriority priority = SignalPriority.MEDIUM;
 
+        private boolean hedgingEnabled = false;
+
+        private int hedgeBudgetPercent = 10;
+
+        private long hedgeMinDelayMs = 10L;
+
         private Object transactionConfig;
 
         public Builder transactionConfig(Object transactionConfig) {
@@ -206,6 +273,21 @@ public class SignalConfig {
             return this;
         }
 
+        public Builder hedgingEnabled(boolean hedgingEnabled) {
+            this.hedgingEnabled = hedgingEnabled;
+            return this;
+        }
+
+        public Builder hedgeBudgetPercent(int hedgeBudgetPercent) {
+            this.hedgeBudgetPercent = hedgeBudgetPercent;
+            return this;
+        }
+
+        public Builder hedgeMinDelayMs(long hedgeMinDelayMs) {
+            this.hedgeMinDelayMs = hedgeMinDelayMs;
+            return this;
+        }
+
         public SignalConfig build() {
             return new SignalConfig(this);
         }
@@ -36,7 +36,12 @@ public enum EventType {
     /**
      * Refreshes the configuration of the signal system.
      */
-    REFRESH_CONFIG(5);
+    REFRESH_CONFIG(5),
+
+    /**
+     * Removes a signal and all of its handlers from the signal system.
+     */
+    CLEAR_SIGNAL(6);
 
     private final int value;
 
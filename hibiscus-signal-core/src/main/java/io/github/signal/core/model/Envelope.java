@@ -71,6 +71,18 @@ public class Envelope<S, T> {
         }
     }
 
+    /**
+     * Creates a shallow copy that shares sender, payload and context with this envelope.
+     */
+    public Envelope<S, T> copy() {
+        Envelope<S, T> copy = new Envelope<>();
+        copy.eventType = this.eventType;
+        copy.sender = this.sender;
+        copy.payload = this.payload;
+        copy.context = this.context;
+        return copy;
+    }
+
     public S getSender() {
         return sender;
     }
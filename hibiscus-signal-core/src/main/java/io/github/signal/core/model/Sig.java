@@ -1,7 +1,11 @@
 package io.github.signal.core.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.github.signal.core.HandlerLifetime;
+import io.github.signal.core.HedgeTracker;
+import io.github.signal.core.RouteCondition;
 import io.github.signal.core.SignalHandler;
+import io.github.signal.core.config.SignalConfig;
 import io.github.signal.core.enums.EventType;
 import io.github.signal.core.enums.SignalPriority;
 
@@ -41,6 +45,30 @@ public class Sig<S, T> {
      */
     private SignalContext signalContext;
 
+    /**
+     * Signal Handler Lifetime (null = lives until unregistered)
+     */
+    @JsonIgnore
+    private HandlerLifetime lifetime;
+
+    /**
+     * Signal Config Carried By REFRESH_CONFIG Commands
+     */
+    @JsonIgnore
+    private SignalConfig config;
+
+    /**
+     * Signal Handler Route (null = receives every signal of the event)
+     */
+    @JsonIgnore
+    private RouteCondition<S, T> route;
+
+    /**
+     * Signal Handler Hedge Tracker (created on first hedged execution, released with the handler)
+     */
+    @JsonIgnore
+    private volatile HedgeTracker hedgeTracker;
+
     private Sig(Builder<S, T> builder) {
         this.id = builder.id;
         this.signalName = builder.signalName;
@@ -48,6 +76,9 @@ public class Sig<S, T> {
         this.priority = builder.priority;
         this.signalContext = builder.signalContext;
         this.evType = builder.evType;
+        this.lifetime = builder.lifetime;
+        this.config = builder.config;
+        this.route = builder.route;
     }
 
 
@@ -98,6 +129,55 @@ public class Sig<S, T> {
     public void setSignalContext(SignalContext signalContext) {
         this.signalContext = signalContext;
     }
+
+    public HandlerLifetime getLifetime() {
+        return lifetime;
+    }
+
+    public void setLifetime(HandlerLifetime lifetime) {
+        this.lifetime = lifetime;
+    }
+
+    public SignalConfig getConfig() {
+        return config;
+    }
+
+    public void setConfig(SignalConfig config) {
+        this.config = config;
+    }
+
+    public RouteCondition<S, T> getRoute() {
+        return route;
+    }
+
+    public void setRoute(RouteCondition<S, T> route) {
+        this.route = route;
+    }
+
+    /**
+     * 获取处理器的耗时与对冲预算，首次对冲执行时创建
+     */
+    @JsonIgnore
+    public HedgeTracker getHedgeTracker() {
+        HedgeTracker tracker = hedgeTracker;
+        if (tracker == null) {
+            synchronized (this) {
+                tracker = hedgeTracker;
+                if (tracker == null) {
+                    tracker = new HedgeTracker();
+                    hedgeTracker = tracker;
+                }
+            }
+        }
+        return tracker;
+    }
+
+    /**
+     * 处理器是否已过期（弱引用被回收、作用域已关闭或 TTL 已到）
+     */
+    public boolean isExpired() {
+        return lifetime != null && lifetime.isExpired();
+    }
     public static class Builder<S, T> {
         private Long id;
         private String signalName;
@@ -105,6 +185,9 @@ public class Sig<S, T> {
         private SignalPriority priority = SignalPriority.MEDIUM; // 默认值
         private SignalContext signalContext;
         private EventType evType;
+        private HandlerLifetime lifetime;
+        private SignalConfig config;
+        private RouteCondition<S, T> route;
 
         public Builder<S, T> id(Long id) {
             this.id = id;
@@ -136,6 +219,21 @@ public class Sig<S, T> {
             return this;
         }
 
+        public Builder<S, T> lifetime(HandlerLifetime lifetime) {
+            this.lifetime = lifetime;
+            return this;
+        }
+
+        public Builder<S, T> config(SignalConfig config) {
+            this.config = config;
+            return this;
+        }
+
+        public Builder<S, T> route(RouteCondition<S, T> route) {
+            this.route = route;
+            return this;
+        }
+
         public Sig<S, T> build() {
             return new Sig<>(this);
         }
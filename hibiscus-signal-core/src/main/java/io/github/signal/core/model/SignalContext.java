@@ -4,13 +4,16 @@ import io.github.signal.utils.SnowflakeIdGenerator;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Context information for a signal as it flows through the system.
  * Purpose:
  * - Stores user-defined attributes and intermediate values during signal processing.
  * - Supports tracing (spans) to visualize the flow of signal handling.
+ * - Whether a trace records spans is decided once per trace ({@link #setSampled}); unsampled traces skip
+ *   span creation entirely.
  */
 public class SignalContext {
 
@@ -26,8 +29,11 @@ public class SignalContext {
     // Unique identifier for the signal event
     private String eventId;
 
-    // List of spans to track the execution path
-    private final List<Span> spans = new CopyOnWriteArrayList<>();
+    // Most recently added span; spans form an append-only list linked backwards, shared with child contexts
+    private final AtomicReference<Span> lastSpan;
+
+    // Sampling decision of the trace, null until decided (spans are recorded)
+    private volatile Boolean sampled;
 
     // ID of the current parent span for nested tracing
     private String parentSpanId;
@@ -38,6 +44,28 @@ public class SignalContext {
     public SignalContext() {
         this.attributes = new ConcurrentHashMap<>();
         this.intermediateValues = new ConcurrentHashMap<>();
+        this.lastSpan = new AtomicReference<>();
+    }
+
+    private SignalContext(SignalContext parent) {
+        this.attributes = parent.attributes;
+        this.intermediateValues = parent.intermediateValues;
+        this.lastSpan = parent.lastSpan;
+        this.traceId = parent.traceId;
+        this.eventId = parent.eventId;
+        this.sampled = parent.sampled;
+        this.parentSpanId = parent.parentSpanId;
+    }
+
+    /**
+     * Creates a context for one branch of this trace, such as one handler of an emit. The child shares the
+     * attributes, the span list and the sampling decision, and starts its spans under the current parent
+     * span, so concurrent branches record into the same trace without nesting under each other.
+     *
+     * @return the child context
+     */
+    public SignalContext child() {
+        return new SignalContext(this);
     }
 
     // ---------- Attribute handling ----------
@@ -146,7 +174,7 @@ public class SignalContext {
         if (eventName == null) {
             eventName = "unknown";
         }
-        this.traceId = UUID.randomUUID().toString();
+        this.traceId = newTraceId();
         this.eventId = eventName + "_" + SnowflakeIdGenerator.nextId();
     }
 
@@ -174,22 +202,113 @@ public class SignalContext {
         this.parentSpanId = parentSpanId;
     }
 
+    /**
+     * Gets the sampling decision of the trace.
+     *
+     * @return true or false once decided, null before
+     */
+    public Boolean getSampled() {
+        return sampled;
+    }
+
+    public void setSampled(Boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    /**
+     * Checks whether the trace records spans; undecided traces do.
+     */
+    public boolean isSampled() {
+        return sampled != Boolean.FALSE;
+    }
+
+    /**
+     * Starts a span under the current parent span and makes it the parent of the following spans.
+     *
+     * @param operation the operation name
+     * @return the started span, null when the trace is not sampled
+     */
+    public Span startSpan(String operation) {
+        if (sampled == Boolean.FALSE) {
+            return null;
+        }
+        Span span = new Span();
+        span.setSpanId(newSpanId());
+        span.setParentSpanId(parentSpanId != null ? parentSpanId : eventId);
+        span.setOperation(operation);
+        span.setStartTime(System.currentTimeMillis());
+        span.startNanos = System.nanoTime();
+        parentSpanId = span.getSpanId();
+        return span;
+    }
+
+    /**
+     * Ends a span started by {@link #startSpan} and adds it to the trace.
+     *
+     * @param span the span, ignored when null
+     */
+    public void endSpan(Span span) {
+        if (span == null) {
+            return;
+        }
+        span.durationNanos = System.nanoTime() - span.startNanos;
+        span.setEndTime(span.getStartTime() + span.durationNanos / 1_000_000L);
+        addSpan(span);
+    }
+
     /**
      * Adds a span to the tracing list.
      *
      * @param span the span to add
      */
     public void addSpan(Span span) {
-        spans.add(span);
+        Span last;
+        do {
+            last = lastSpan.get();
+            span.previous = last;
+        } while (!lastSpan.compareAndSet(last, span));
     }
 
     /**
      * Gets a list of recorded spans (copied for safety).
      *
-     * @return list of spans
+     * @return list of spans, in the order they were added
      */
     public List<Span> getSpans() {
-        return new ArrayList<>(spans);
+        List<Span> spans = new ArrayList<>();
+        for (Span span = lastSpan.get(); span != null; span = span.previous) {
+            spans.add(span);
+        }
+        Collections.reverse(spans);
+        return spans;
+    }
+
+    /**
+     * Generates a 128-bit trace id as 32 hex characters.
+     */
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return toHex(random.nextLong()) + toHex(random.nextLong());
+    }
+
+    /**
+     * Generates a 64-bit span id as 16 hex characters.
+     */
+    public static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0L);
+        return toHex(id);
+    }
+
+    private static String toHex(long value) {
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = Character.forDigit((int) (value & 0xF), 16);
+            value >>>= 4;
+        }
+        return new String(chars);
     }
 
     @Override
@@ -209,7 +328,12 @@ public class SignalContext {
         private String operation;
         private long startTime;
         private long endTime;
-        private Map<String, Object> metadata = new HashMap<>();
+        private long startNanos;
+        private long durationNanos = -1L;
+        private Map<String, Object> metadata;
+
+        // Span added before this one to the same context
+        private Span previous;
 
         public String getSpanId() {
             return spanId;
@@ -251,10 +375,35 @@ public class SignalContext {
             this.endTime = endTime;
         }
 
+        /**
+         * Gets the duration measured with {@link System#nanoTime()}, or derived from the start and end time
+         * for spans not ended through {@link SignalContext#endSpan}.
+         */
+        public long getDurationNanos() {
+            return durationNanos >= 0 ? durationNanos : (endTime - startTime) * 1_000_000L;
+        }
+
+        public void setDurationNanos(long durationNanos) {
+            this.durationNanos = durationNanos;
+        }
+
+        /**
+         * Gets the metadata, allocated on first access.
+         */
         public Map<String, Object> getMetadata() {
+            if (metadata == null) {
+                metadata = new HashMap<>();
+            }
             return metadata;
         }
 
+        /**
+         * Checks whether metadata was set, without allocating it.
+         */
+        public boolean hasMetadata() {
+            return metadata != null && !metadata.isEmpty();
+        }
+
         public void setMetadata(Map<String, Object> metadata) {
             this.metadata = metadata;
         }
@@ -0,0 +1,61 @@
+package io.github.signal.core.protection;
+
+import io.github.signal.core.CircuitBreaker;
+import io.github.signal.core.ProtectionPolicy;
+import io.github.signal.core.enums.SignalPriority;
+
+/**
+ * Protection policy that blocks a signal while its circuit breaker is open.
+ * The breaker is fed with the error rate of the signal; above the threshold it records a failure.
+ */
+public class CircuitBreakerPolicy implements ProtectionPolicy {
+
+    private final CircuitBreaker breaker;
+
+    private final double errorRateThreshold;
+
+    public CircuitBreakerPolicy(CircuitBreaker breaker, double errorRateThreshold) {
+        this.breaker = breaker;
+        this.errorRateThreshold = errorRateThreshold;
+    }
+
+    @Override
+    public boolean tryAcquire(String signal, SignalPriority priority) {
+        return !breaker.isOpen();
+    }
+
+    @Override
+    public void update(String signal, long emitCount, long errorCount) {
+        if (emitCount == 0) {
+            return; // No emit data yet, skip
+        }
+        double errorRate = (double) errorCount / emitCount;
+        if (errorRate > errorRateThreshold) {
+            breaker.recordFailure();
+        } else {
+            breaker.recordSuccess();
+        }
+    }
+
+    @Override
+    public void onResult(String signal, boolean success) {
+        if (success) {
+            breaker.recordSuccess();
+        } else {
+            breaker.recordFailure();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return 50;
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public double getErrorRateThreshold() {
+        return errorRateThreshold;
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.signal.core.protection;
+
+import io.github.signal.core.ProtectionPolicy;
+import io.github.signal.core.RateLimiter;
+import io.github.signal.core.enums.SignalPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Protection policy that enforces a global per-second limit shared by all nodes of a cluster.
+ * Purpose:
+ * - Tokens are leased in blocks from a {@link TokenLeaseStore} and consumed locally,
+ *   so the hot path is a single atomic decrement.
+ * - When the local block runs low, the next block is fetched in the background on a dedicated executor.
+ * - Leased tokens only belong to the window they were leased for; unused tokens expire with it,
+ *   so the global limit is never exceeded (it may be under-used when nodes hold unused blocks).
+ * - If the store is unreachable, the node falls back to a local limit (its share of the global limit)
+ *   and retries the store with an exponential backoff, so an outage neither lifts the limit nor adds
+ *   a store call to every exhausted block.
+ */
+public class ClusterRateLimitPolicy implements ProtectionPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRateLimitPolicy.class);
+
+    private static final long WINDOW_MS = 1000L;
+
+    private static final long MIN_RETRY_BACKOFF_MS = 100L;
+    private static final long MAX_RETRY_BACKOFF_MS = 5000L;
+
+    // Returned by leaseBlock when the store could not be reached
+    private static final long STORE_UNAVAILABLE = -1L;
+
+    private final TokenLeaseStore store;
+
+    private final String key;
+
+    private final long maxRequestsPerSecond;
+
+    private final long blockSize;
+
+    // Limit applied by this node alone while the store is unreachable
+    private final RateLimiter fallback;
+
+    private final Executor prefetchExecutor;
+
+    // Tokens leased for the current window
+    private volatile Lease lease = new Lease(-1);
+
+    // Window in which the global limit was found exhausted, avoids hitting the store on every signal
+    private volatile long exhaustedWindow = -1;
+
+    private final AtomicBoolean prefetching = new AtomicBoolean();
+
+    // Time before which the store is not called again after a failure, and the backoff of the next failure
+    private volatile long retryAt;
+    private final AtomicLong retryBackoffMs = new AtomicLong(MIN_RETRY_BACKOFF_MS);
+
+    /**
+     * @param store                shared store to lease tokens from
+     * @param key                  limiter key, usually the signal name
+     * @param maxRequestsPerSecond global limit across all nodes
+     * @param blockSize            number of tokens leased per round trip
+     * @param fallbackPerSecond    limit of this node while the store is unreachable
+     * @param prefetchExecutor     executor that fetches the next block in the background
+     */
+    public ClusterRateLimitPolicy(TokenLeaseStore store, String key, long maxRequestsPerSecond, long blockSize,
+                                  int fallbackPerSecond, Executor prefetchExecutor) {
+        this.store = store;
+        this.key = key;
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        this.blockSize = Math.max(1, Math.min(blockSize, maxRequestsPerSecond));
+        this.fallback = new RateLimiter(fallbackPerSecond);
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    @Override
+    public boolean tryAcquire(String signal, SignalPriority priority) {
+        long now = System.currentTimeMillis();
+        if (now < retryAt) {
+            return fallback.allowRequest();
+        }
+        long window = now / WINDOW_MS;
+        Lease current = lease;
+        if (current.window == window) {
+            long remaining = current.tokens.decrementAndGet();
+            if (remaining >= 0) {
+                if (remaining < blockSize / 2) {
+                    prefetch(current);
+                }
+                return true;
+            }
+        }
+        if (exhaustedWindow == window) {
+            return false;
+        }
+        return acquireSlow(window);
+    }
+
+    /**
+     * Leases a new block synchronously when the local tokens of the window are used up.
+     */
+    private synchronized boolean acquireSlow(long window) {
+        Lease current = lease;
+        if (current.window != window) {
+            current = new Lease(window);
+            lease = current;
+        } else if (current.tokens.decrementAndGet() >= 0) {
+            // Another thread refilled the lease while we were waiting
+            return true;
+        }
+        long granted = leaseBlock(window);
+        if (granted == STORE_UNAVAILABLE) {
+            return fallback.allowRequest();
+        }
+        if (granted <= 0) {
+            exhaustedWindow = window;
+            return false;
+        }
+        // One token is consumed by this call
+        current.tokens.set(granted - 1);
+        return true;
+    }
+
+    /**
+     * Fetches the next block in the background so callers do not wait for the store.
+     */
+    private void prefetch(Lease current) {
+        if (!prefetching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    long granted = leaseBlock(current.window);
+                    if (granted > 0) {
+                        current.tokens.addAndGet(granted);
+                    } else if (granted == 0) {
+                        exhaustedWindow = current.window;
+                    }
+                } finally {
+                    prefetching.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 执行器已关闭，令牌用完时同步租约
+            prefetching.set(false);
+        }
+    }
+
+    /**
+     * @return the granted tokens, or {@link #STORE_UNAVAILABLE} if the store failed
+     */
+    private long leaseBlock(long window) {
+        if (System.currentTimeMillis() < retryAt) {
+            return STORE_UNAVAILABLE;
+        }
+        try {
+            long granted = store.lease(key, window, WINDOW_MS, blockSize, maxRequestsPerSecond);
+            retryBackoffMs.set(MIN_RETRY_BACKOFF_MS);
+            return granted;
+        } catch (Exception e) {
+            // 共享存储不可用时按本节点的份额限流，并在退避后再访问存储
+            long backoff = retryBackoffMs.getAndUpdate(b -> Math.min(b * 2, MAX_RETRY_BACKOFF_MS));
+            retryAt = System.currentTimeMillis() + backoff;
+            log.warn("Failed to lease rate limit tokens for [{}], limiting locally for {} ms: {}", key, backoff, e.getMessage());
+            return STORE_UNAVAILABLE;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return 100;
+    }
+
+    public long getMaxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+
+    private static final class Lease {
+        private final long window;
+        private final AtomicLong tokens = new AtomicLong();
+
+        private Lease(long window) {
+            this.window = window;
+        }
+    }
+}
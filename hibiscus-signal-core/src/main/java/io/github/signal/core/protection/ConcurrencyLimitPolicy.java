@@ -0,0 +1,57 @@
+package io.github.signal.core.protection;
+
+import io.github.signal.core.ProtectionPolicy;
+import io.github.signal.core.enums.SignalPriority;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Protection policy that caps the number of emits of a signal that are in flight at the same time.
+ * An emit holds its slot until all of its handlers have completed.
+ */
+public class ConcurrencyLimitPolicy implements ProtectionPolicy {
+
+    private final int maxConcurrency;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimitPolicy(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public boolean tryAcquire(String signal, SignalPriority priority) {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= maxConcurrency) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release(String signal) {
+        inFlight.decrementAndGet();
+    }
+
+    @Override
+    public boolean requiresRelease() {
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return 200;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+}
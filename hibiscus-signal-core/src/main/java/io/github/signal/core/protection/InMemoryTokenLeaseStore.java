@@ -0,0 +1,33 @@
+package io.github.signal.core.protection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link TokenLeaseStore}.
+ * Only enforces the limit within a single JVM; meant for tests and for running
+ * the cluster limiter mode without a shared store.
+ */
+public class InMemoryTokenLeaseStore implements TokenLeaseStore {
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Override
+    public long lease(String key, long window, long windowMs, long requested, long limit) {
+        Window w = windows.computeIfAbsent(key, k -> new Window());
+        synchronized (w) {
+            if (w.index != window) {
+                w.index = window;
+                w.used = 0;
+            }
+            long granted = Math.max(0, Math.min(requested, limit - w.used));
+            w.used += granted;
+            return granted;
+        }
+    }
+
+    private static final class Window {
+        private long index = -1;
+        private long used;
+    }
+}
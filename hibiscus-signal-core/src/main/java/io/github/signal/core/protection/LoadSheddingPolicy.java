@@ -0,0 +1,42 @@
+package io.github.signal.core.protection;
+
+import io.github.signal.core.LoadShedder;
+import io.github.signal.core.ProtectionPolicy;
+import io.github.signal.core.SignalMetrics;
+import io.github.signal.core.enums.SignalPriority;
+
+/**
+ * Protection policy that drops LOW and MEDIUM priority signals while the executor is backed up.
+ * Every shed signal is counted in {@link SignalMetrics}.
+ */
+public class LoadSheddingPolicy implements ProtectionPolicy {
+
+    private final LoadShedder shedder;
+
+    private final SignalMetrics metrics;
+
+    public LoadSheddingPolicy(LoadShedder shedder, SignalMetrics metrics) {
+        this.shedder = shedder;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean tryAcquire(String signal, SignalPriority priority) {
+        if (shedder.shouldShed(priority)) {
+            if (metrics != null) {
+                metrics.recordShed(signal);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    public LoadShedder getShedder() {
+        return shedder;
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.signal.core.protection;
+
+import io.github.signal.core.ProtectionPolicy;
+import io.github.signal.core.enums.SignalPriority;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Protection policy that admits at most a fixed number of signals per period
+ * (for example 100000 per day), using a fixed window that resets when the period elapses.
+ */
+public class QuotaPolicy implements ProtectionPolicy {
+
+    private final long limit;
+
+    private final long periodMs;
+
+    private final AtomicLong used = new AtomicLong();
+
+    private volatile long windowStart = System.currentTimeMillis();
+
+    public QuotaPolicy(long limit, long periodMs) {
+        this.limit = limit;
+        this.periodMs = periodMs;
+    }
+
+    @Override
+    public boolean tryAcquire(String signal, SignalPriority priority) {
+        long now = System.currentTimeMillis();
+        long start = windowStart;
+        if (now - start >= periodMs) {
+            synchronized (this) {
+                if (windowStart == start) {
+                    used.set(0);
+                    windowStart = now;
+                }
+            }
+        }
+        if (used.incrementAndGet() > limit) {
+            used.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return 300;
+    }
+
+    public long getRemaining() {
+        return Math.max(0, limit - used.get());
+    }
+}
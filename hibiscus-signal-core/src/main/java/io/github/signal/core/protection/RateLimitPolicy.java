@@ -0,0 +1,31 @@
+package io.github.signal.core.protection;
+
+import io.github.signal.core.ProtectionPolicy;
+import io.github.signal.core.RateLimiter;
+import io.github.signal.core.enums.SignalPriority;
+
+/**
+ * Protection policy that admits at most a fixed number of signals per second.
+ */
+public class RateLimitPolicy implements ProtectionPolicy {
+
+    private final RateLimiter limiter;
+
+    public RateLimitPolicy(RateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean tryAcquire(String signal, SignalPriority priority) {
+        return limiter.allowRequest();
+    }
+
+    @Override
+    public int getOrder() {
+        return 100;
+    }
+
+    public RateLimiter getLimiter() {
+        return limiter;
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.signal.core.protection;
+
+/**
+ * Shared state backend for cluster-wide rate limiting.
+ * Purpose:
+ * - Keeps one counter per limiter key and time window that all nodes of a cluster draw from.
+ * - Nodes lease tokens in blocks, so the store is only hit once per block instead of once per signal.
+ * - Implementations must grant tokens atomically: the sum of all grants in a window never exceeds the limit.
+ */
+public interface TokenLeaseStore {
+
+    /**
+     * Leases up to {@code requested} tokens from the given window.
+     *
+     * @param key       limiter key, usually the signal name
+     * @param window    index of the time window (e.g. epoch seconds)
+     * @param windowMs  length of the window in milliseconds, used to expire old windows
+     * @param requested number of tokens the node wants
+     * @param limit     total number of tokens available in the window across all nodes
+     * @return number of tokens granted, between 0 and {@code requested}
+     */
+    long lease(String key, long window, long windowMs, long requested, long limit);
+}
@@ -6,27 +6,52 @@ import io.github.signal.core.model.Envelope;
 import io.github.signal.core.model.Sig;
 import io.github.signal.core.model.SignalContext;
 import io.github.signal.core.persistent.UnifiedSignalPersistence;
+import io.github.signal.core.protection.CircuitBreakerPolicy;
+import io.github.signal.core.protection.ClusterRateLimitPolicy;
+import io.github.signal.core.protection.ConcurrencyLimitPolicy;
+import io.github.signal.core.protection.InMemoryTokenLeaseStore;
+import io.github.signal.core.protection.QuotaPolicy;
+import io.github.signal.core.protection.RateLimitPolicy;
+import io.github.signal.core.protection.TokenLeaseStore;
 import io.github.signal.core.tractional.DeadLetterQueueManager;
 import io.github.signal.core.tractional.EventTransactionManager;
 import io.github.signal.spring.configuration.SignalProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
  * Signals
  */
 @Service
-public class Signals<S, T> implements DisposableBean {
+public class Signals<S, T> implements InitializingBean, DisposableBean {
     /**
      * Logger
      */
@@ -89,6 +114,37 @@ public class Signals<S, T> implements DisposableBean {
     @Autowired
     private SignalProperties signalProperties;
 
+    /**
+     * 集群限流的令牌租约存储（可选，未配置时使用本地内存存储）
+     */
+    @Autowired(required = false)
+    private TokenLeaseStore tokenLeaseStore;
+
+    /**
+     * 集群限流预取令牌的线程，首次创建集群限流策略时创建
+     */
+    private ExecutorService tokenLeaseExecutor;
+
+    /**
+     * 过期处理器清理任务
+     */
+    private ScheduledExecutorService handlerReaper;
+
+    /**
+     * 暂停期间的信号缓冲区，未启用时暂停的信号直接丢弃
+     */
+    private volatile PauseBuffer<S, T> pauseBuffer;
+
+    /**
+     * 采样追踪的 span 导出器，未配置导出时为 null
+     */
+    private volatile BatchSpanProcessor spanProcessor;
+
+    /**
+     * 缓存转换器的绑定次数，同一实例可绑定到多个事件，最后一次解绑时才注销其缓存统计
+     */
+    private final Map<CachingSignalTransformer<?, ?>, Integer> cachingTransformers = new ConcurrentHashMap<>();
+
     @Autowired
     // 基础构造函数（无事务支持）
     public Signals(@Qualifier("signalExecutor") ExecutorService executorService) {
@@ -128,7 +184,7 @@ public class Signals<S, T> implements DisposableBean {
      * 绑定事件处理器
      */
     public long connect(String event, SignalHandler<S, T> handler) {
-        autoConfigureProtection(event);
+        prepareProtection(event);
         return connect(event, handler, new SignalConfig.Builder().build());
     }
 
@@ -136,7 +192,7 @@ public class Signals<S, T> implements DisposableBean {
      * 绑定事件处理器（带配置）
      */
     public long connect(String event, SignalHandler<S, T> handler, SignalConfig signalConfig) {
-        autoConfigureProtection(event);
+        prepareProtection(event);
         return signalRegistry.registerHandler(event, handler, signalConfig);
     }
 
@@ -144,7 +200,7 @@ public class Signals<S, T> implements DisposableBean {
      * 绑定事件处理器（带上下文）
      */
     public long connect(String event, SignalHandler<S, T> handler, SignalContext context) {
-        autoConfigureProtection(event);
+        prepareProtection(event);
         return connect(event, handler, new SignalConfig.Builder().build(), context);
     }
 
@@ -152,10 +208,61 @@ public class Signals<S, T> implements DisposableBean {
      * 绑定事件处理器（带配置和上下文）
      */
     public long connect(String event, SignalHandler<S, T> handler, SignalConfig signalConfig, SignalContext context) {
-        autoConfigureProtection(event);
+        prepareProtection(event);
         return signalRegistry.registerHandler(event, handler, signalConfig, context);
     }
 
+    /**
+     * 绑定带路由条件的事件处理器，只接收路由属性等于指定值的信号
+     * 例如 {@code RouteCondition.payload("region", Order::getRegion, "EU")}；
+     * 发射时按属性值查找处理器，替代为每个处理器执行的 {@link SignalHandler#when} 判断
+     */
+    public long connect(String event, SignalHandler<S, T> handler, SignalConfig signalConfig, RouteCondition<S, T> route) {
+        prepareProtection(event);
+        return signalRegistry.registerHandler(event, handler, signalConfig, route);
+    }
+
+    /**
+     * 在作用域内绑定事件处理器，作用域关闭时自动解绑
+     */
+    public long connect(String event, SignalHandler<S, T> handler, SignalConfig signalConfig, SignalScope scope) {
+        prepareProtection(event);
+        return signalRegistry.registerHandler(event, handler, signalConfig, scope);
+    }
+
+    /**
+     * 绑定弱引用事件处理器，owner 被回收后处理器自动失效并被清理
+     * 注意：action 不能捕获 owner，否则 owner 永远不会被回收
+     */
+    public <O> long connectWeak(String event, O owner, BiConsumer<? super O, Envelope<S, T>> action, SignalConfig signalConfig) {
+        prepareProtection(event);
+        return signalRegistry.registerHandler(event, new WeakSignalHandler<>(owner, action), signalConfig);
+    }
+
+    /**
+     * 绑定限时事件处理器，超过存活时间后自动失效并被清理
+     */
+    public long connectWithTtl(String event, SignalHandler<S, T> handler, SignalConfig signalConfig, long ttlMillis) {
+        prepareProtection(event);
+        return signalRegistry.registerHandler(event, handler, signalConfig, new SignalContext(),
+                HandlerLifetime.expiresAfter(ttlMillis));
+    }
+
+    /**
+     * 创建处理器作用域，可用于 try-with-resources 或绑定到会话生命周期
+     */
+    public SignalScope openScope() {
+        return signalRegistry.openScope();
+    }
+
+    /**
+     * 批量绑定事件处理器（带配置），适合启动时注册大量动态处理器
+     */
+    public long[] connectAll(String event, List<? extends SignalHandler<S, T>> handlers, SignalConfig signalConfig) {
+        prepareProtection(event);
+        return signalRegistry.registerHandlers(event, handlers, signalConfig);
+    }
+
     /**
      * 解绑事件处理器
      */
@@ -170,6 +277,64 @@ public class Signals<S, T> implements DisposableBean {
         signalRegistry.unregisterHandler(event, id, context);
     }
 
+    /**
+     * 运行时替换事件配置，无需重新绑定处理器
+     */
+    public void refreshConfig(String event, SignalConfig signalConfig) {
+        signalRegistry.refreshConfig(event, signalConfig);
+    }
+
+    /**
+     * 基于事件当前配置修改部分参数，例如 {@code updateConfig("order.created", b -> b.async(false).timeoutMs(500))}
+     */
+    public void updateConfig(String event, Consumer<SignalConfig.Builder> customizer) {
+        SignalConfig.Builder builder = signalRegistry.getConfig(event).toBuilder();
+        customizer.accept(builder);
+        signalRegistry.refreshConfig(event, builder.build());
+    }
+
+    /**
+     * 获取事件当前配置
+     */
+    public SignalConfig getConfig(String event) {
+        return signalRegistry.getConfig(event);
+    }
+
+    /**
+     * 暂停事件投递
+     */
+    public void pause(String event) {
+        signalRegistry.pause(event);
+    }
+
+    /**
+     * 恢复事件投递
+     */
+    public void resume(String event) {
+        signalRegistry.resume(event);
+        PauseBuffer<S, T> buffer = pauseBuffer;
+        if (buffer != null) {
+            // 按配置的速率回放暂停期间缓冲的信号
+            buffer.replay(event, pending -> dispatch(event, pending.getEnvelope(),
+                    pending.getCallback(), pending.getErrorHandler()), signalRegistry::isPaused);
+        }
+    }
+
+    /**
+     * 事件是否已暂停投递
+     */
+    public boolean isPaused(String event) {
+        return signalRegistry.isPaused(event);
+    }
+
+    /**
+     * 获取事件暂停缓冲区的统计信息（缓冲数、落盘数、丢弃数）
+     */
+    public Map<String, Object> getPauseBufferStats(String event) {
+        PauseBuffer<S, T> buffer = pauseBuffer;
+        return buffer != null ? buffer.getStats(event) : Collections.emptyMap();
+    }
+
     /**
      * 处理事件队列
      */
@@ -181,50 +346,276 @@ public class Signals<S, T> implements DisposableBean {
      * 发射信号
      */
     public void emit(String event, Envelope<S, T> envelope, Consumer<Throwable> errorHandler) {
+        emit(event, envelope, null, errorHandler);
+    }
+
+    /**
+     * 发射信号（带回调）
+     */
+    public void emit(String event, Envelope<S, T> envelope, SignalCallback<S, T> callback, Consumer<Throwable> errorHandler) {
+        PauseBuffer<S, T> buffer = pauseBuffer;
+        // 暂停期间以及缓冲区回放完成前的信号进入缓冲区，保证投递顺序
+        if (signalRegistry.isPaused(event) || (buffer != null && buffer.isDraining(event))) {
+            if (buffer != null && buffer.offer(event, envelope, callback, errorHandler)) {
+                log.debug("Signal [{}] is paused, buffered", event);
+                return;
+            }
+            log.debug("Signal [{}] is paused, dropped", event);
+            if (callback != null) {
+                callback.onError(event, envelope, new IllegalStateException("Signal paused: " + event));
+                callback.onComplete(event, envelope);
+            }
+            return;
+        }
+        dispatch(event, envelope, callback, errorHandler);
+    }
+
+    /**
+     * 投递信号，跳过暂停检查（回放缓冲信号时直接调用）
+     */
+    private void dispatch(String event, Envelope<S, T> envelope, SignalCallback<S, T> callback, Consumer<Throwable> errorHandler) {
+        SignalConfig config = signalRegistry.getConfig(event);
+        if (signalRegistry.isCompactMode()) {
+            // 紧凑模式下保护策略在首次发射时才创建
+            autoConfigureProtection(event);
+        }
+
         // 1. 检查保护机制
-        if (protectionManager.isBlocked(event)) {
+        ProtectionChain protection = protectionManager.acquire(event, config.getPriority());
+        if (protection == null) {
             log.debug("Signal [{}] blocked by protection manager", event);
             return;
         }
 
-        // 2. 准备上下文
-        SignalContext context = envelope.getContext();
-        if (context == null) {
-            log.warn("Failed to prepare context for signal [{}]", event);
-            return;
+        CompletableFuture<Void> pending = null;
+        TraceCompletion trace = null;
+        try {
+            // 2. 准备上下文
+            SignalContext context = envelope.getContext();
+            if (context == null) {
+                log.warn("Failed to prepare context for signal [{}]", event);
+                if (callback != null) {
+                    callback.onError(event, envelope, new RuntimeException("Failed to prepare context"));
+                    callback.onComplete(event, envelope);
+                }
+                return;
+            }
+            trace = beginTrace(context);
+            if (trace != null) {
+                errorHandler = trace.trackFailure(errorHandler);
+            }
+
+            // 异步事件：管道在信号线程池中以非阻塞方式执行，调用方入队后立即返回
+            if (config.isAsync()) {
+                pending = dispatchAsync(event, envelope, context, config, callback, errorHandler, null);
+                return;
+            }
+
+            // 3. 执行管道处理
+            long pipelineStart = System.nanoTime();
+            Envelope<S, T> processedParams = signalPipeline.processPipeline(event, envelope, context);
+            recordPipelineLatency(event, config, pipelineStart);
+            if (processedParams == null) {
+                onPipelineBlocked(event, envelope, callback);
+                return;
+            }
+
+            // 4. 获取处理器并发射
+            pending = deliver(event, processedParams, signalRegistry.getHandlerArray(event, processedParams), config, context,
+                    true, callback, errorHandler);
+        } catch (RuntimeException e) {
+            if (trace != null) {
+                trace.fail();
+            }
+            throw e;
+        } finally {
+            releaseProtection(event, protection, pending);
+            if (trace != null) {
+                trace.complete(pending);
+            }
         }
+    }
 
-        // 3. 执行管道处理
-        Envelope<S, T> processedParams = signalPipeline.processPipeline(event, envelope, context);
-        if (processedParams == null) {
-            log.debug("Signal [{}] blocked by pipeline", event);
-            return;
+    /**
+     * 开始一次发射的追踪：每条追踪只做一次采样决定，未采样的追踪不创建 span
+     *
+     * @return 发射完成时需要提交的追踪，无需尾部采样也无需导出时返回 null
+     */
+    private TraceCompletion beginTrace(SignalContext context) {
+        TraceStore traces = metrics.getTraceStore();
+        BatchSpanProcessor processor = spanProcessor;
+        SignalContext exported = traces.sample(context) && processor != null ? context : null;
+        // 已记录的追踪在发射完成时按结果（失败、慢）做尾部采样
+        String traceId = traces.isTracked(context.getTraceId()) ? context.getTraceId() : null;
+        if (traceId == null && exported == null) {
+            return null;
         }
+        return new TraceCompletion(traces, traceId, exported, processor);
+    }
 
-        // 4. 记录指标
-        SignalConfig config = signalRegistry.getConfig(event);
+    /**
+     * 发射完成时提交追踪结果并导出 span，异步发射时在所有处理器完成后提交
+     */
+    private static final class TraceCompletion {
+        private final TraceStore traces;
+        private final String traceId;
+        private final SignalContext exported;
+        private final BatchSpanProcessor processor;
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        private TraceCompletion(TraceStore traces, String traceId, SignalContext exported, BatchSpanProcessor processor) {
+            this.traces = traces;
+            this.traceId = traceId;
+            this.exported = exported;
+            this.processor = processor;
+        }
+
+        /**
+         * 包装错误处理器，记录处理过程中是否发生错误
+         */
+        Consumer<Throwable> trackFailure(Consumer<Throwable> errorHandler) {
+            if (traceId == null) {
+                return errorHandler;
+            }
+            return e -> {
+                failed.set(true);
+                if (errorHandler != null) {
+                    errorHandler.accept(e);
+                }
+            };
+        }
+
+        void fail() {
+            failed.set(true);
+        }
+
+        void complete(CompletableFuture<Void> pending) {
+            if (pending == null) {
+                finish(false);
+            } else {
+                pending.whenComplete((r, e) -> finish(e != null));
+            }
+        }
+
+        private void finish(boolean error) {
+            if (traceId != null) {
+                traces.complete(traceId, failed.get() || error);
+            }
+            if (exported != null) {
+                processor.onEnd(exported);
+            }
+        }
+    }
+
+    /**
+     * 在信号线程池中执行异步管道，管道完成后投递给处理器
+     *
+     * @param delivered 广播中已收到信号的处理器，单事件发射时为 null
+     * @return 管道与所有处理器完成的 future
+     */
+    private CompletableFuture<Void> dispatchAsync(String event, Envelope<S, T> envelope, SignalContext context,
+                                                  SignalConfig config, SignalCallback<S, T> callback,
+                                                  Consumer<Throwable> errorHandler, Set<SignalHandler<S, T>> delivered) {
+        long enqueuedAt = System.nanoTime();
+        long[] pipelineStart = new long[1];
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    pipelineStart[0] = System.nanoTime();
+                    if (config.isRecordMetrics()) {
+                        metrics.recordLatency(event, SignalMetrics.Phase.QUEUE_WAIT, pipelineStart[0] - enqueuedAt);
+                    }
+                    return signalPipeline.processPipelineAsync(event, envelope, context);
+                }, executorService)
+                .thenCompose(processing -> processing)
+                .thenCompose(processedParams -> {
+                    recordPipelineLatency(event, config, pipelineStart[0]);
+                    if (processedParams == null) {
+                        onPipelineBlocked(event, envelope, callback);
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    Sig<S, T>[] sigs = signalRegistry.getHandlerArray(event, processedParams);
+                    if (delivered != null) {
+                        Sig<S, T>[] pendingSigs = excludeDelivered(sigs, delivered);
+                        if (pendingSigs.length == 0 && sigs.length > 0) {
+                            onAlreadyDelivered(event, processedParams, callback);
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
+                        sigs = pendingSigs;
+                    }
+                    CompletableFuture<Void> pending = deliver(event, processedParams, sigs, config, context, true, callback, errorHandler);
+                    return pending != null ? pending : CompletableFuture.<Void>completedFuture(null);
+                })
+                .whenComplete((r, e) -> {
+                    if (e == null) {
+                        return;
+                    }
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    log.error("Signal [{}] async pipeline error: {}", event, cause.getMessage(), cause);
+                    if (errorHandler != null) {
+                        errorHandler.accept(cause);
+                    }
+                    if (callback != null) {
+                        callback.onError(event, envelope, cause);
+                        callback.onComplete(event, envelope);
+                    }
+                });
+    }
+
+    /**
+     * 记录管道执行时间（纳秒精度）
+     */
+    private void recordPipelineLatency(String event, SignalConfig config, long pipelineStart) {
+        if (config.isRecordMetrics()) {
+            metrics.recordLatency(event, SignalMetrics.Phase.PIPELINE, System.nanoTime() - pipelineStart);
+        }
+    }
+
+    private void onPipelineBlocked(String event, Envelope<S, T> envelope, SignalCallback<S, T> callback) {
+        log.debug("Signal [{}] blocked by pipeline", event);
+        if (callback != null) {
+            callback.onError(event, envelope, new RuntimeException("Signal blocked by pipeline"));
+            callback.onComplete(event, envelope);
+        }
+    }
+
+    /**
+     * 记录指标、将管道处理后的信号投递给处理器，并执行后处理与持久化
+     *
+     * @param postProcess 是否执行拦截器后处理（广播时同一管道只执行一次）
+     * @return 异步发射时所有处理器完成的 future，否则为 null
+     */
+    private CompletableFuture<Void> deliver(String event, Envelope<S, T> processedParams, Sig<S, T>[] sigs,
+                                            SignalConfig config, SignalContext context, boolean postProcess,
+                                            SignalCallback<S, T> callback, Consumer<Throwable> errorHandler) {
+        // 1. 记录指标
         if (config.isRecordMetrics()) {
             metrics.recordEmit(event);
         }
 
-        // 5. 获取处理器并发射
-        List<Sig<S, T>> sigs = signalRegistry.getHandlers(event);
-        if (!signalRegistry.hasHandlers(event)) {
+        // 2. 检查处理器
+        if (sigs.length == 0) {
             log.debug("No handlers found for signal [{}]", event);
-            return;
+            if (callback != null) {
+                callback.onError(event, processedParams, new RuntimeException("No handlers for event: " + event));
+                callback.onComplete(event, processedParams);
+            }
+            return null;
         }
 
-        // 6. 根据配置选择同步或异步发射
+        // 3. 根据配置选择同步或异步发射
+        CompletableFuture<Void> pending = null;
         if (config.isAsync()) {
-            signalEmitter.emitAsync(event, processedParams, sigs, config, errorHandler, null, protectionManager);
+            pending = signalEmitter.emitAsync(event, processedParams, sigs, config, context, errorHandler, callback, protectionManager);
         } else {
-            signalEmitter.emitSync(event, processedParams, sigs, config, errorHandler, null, protectionManager);
+            signalEmitter.emitSync(event, processedParams, sigs, config, context, errorHandler, callback, protectionManager);
         }
 
-        // 7. 执行后处理
-        signalPipeline.executePostProcessing(event, processedParams);
+        // 4. 执行后处理
+        if (postProcess) {
+            signalPipeline.executePostProcessing(event, processedParams);
+        }
 
-        // 8. 判断是否进行持久化
+        // 5. 判断是否进行持久化
         if (signalProperties.getPersistent()) {
             for (Sig<S, T> sig : sigs) {
                 // 进行持久化操作
@@ -232,71 +623,292 @@ public class Signals<S, T> implements DisposableBean {
                 log.info("Event Info Is Saved By Persistence");
             }
         }
+        return pending;
     }
 
     /**
-     * 发射信号（带回调）
+     * 广播信号到多个事件
      */
-    public void emit(String event, Envelope<S, T> envelope, SignalCallback<S, T> callback, Consumer<Throwable> errorHandler) {
-        // 1. 检查保护机制
-        if (protectionManager.isBlocked(event)) {
-            log.debug("Signal [{}] blocked by protection manager", event);
+    public void broadcast(Collection<String> events, Envelope<S, T> envelope, Consumer<Throwable> errorHandler) {
+        broadcast(events, envelope, null, errorHandler);
+    }
+
+    /**
+     * 广播信号到匹配通配模式（如 order.#）的所有已注册事件
+     */
+    public void broadcast(String pattern, Envelope<S, T> envelope, SignalCallback<S, T> callback, Consumer<Throwable> errorHandler) {
+        broadcast(Collections.singletonList(pattern), envelope, callback, errorHandler);
+    }
+
+    /**
+     * 广播信号到一组事件，事件名可以是通配模式
+     * 每个事件单独检查暂停与保护策略；管道（拦截器、过滤器、转换器）相同的同步事件只执行一次管道，
+     * 异步事件与单事件发射一样在信号线程池中执行管道；
+     * 同一处理器绑定到多个事件时只投递一次（按第一个投递的事件），其余事件仍回调完成；
+     * 追踪在所有事件的处理器完成后提交
+     */
+    public void broadcast(Collection<String> events, Envelope<S, T> envelope, SignalCallback<S, T> callback, Consumer<Throwable> errorHandler) {
+        Set<String> targets = signalRegistry.resolveEvents(events);
+        if (targets.isEmpty()) {
+            log.debug("No events matched broadcast {}", events);
             return;
         }
-
-        // 2. 准备上下文
         SignalContext context = envelope.getContext();
         if (context == null) {
+            log.warn("Failed to prepare context for broadcast {}", events);
             if (callback != null) {
-                callback.onError(event, envelope, new RuntimeException("Failed to prepare context"));
-                callback.onComplete(event, envelope);
+                callback.onError(envelope.getEventType(), envelope, new RuntimeException("Failed to prepare context"));
+                callback.onComplete(envelope.getEventType(), envelope);
             }
             return;
         }
 
-        // 3. 执行管道处理
-        Envelope<S, T> processedParams = signalPipeline.processPipeline(event, envelope, context);
-        if (processedParams == null) {
-            if (callback != null) {
-                callback.onError(event, envelope, new RuntimeException("Signal blocked by pipeline"));
-                callback.onComplete(event, envelope);
+        TraceCompletion trace = beginTrace(context);
+        if (trace != null) {
+            errorHandler = trace.trackFailure(errorHandler);
+        }
+
+        // 管道标识 -> 管道处理结果（null 表示被管道阻止）
+        Map<Object, Envelope<S, T>> processedByPipeline = new HashMap<>();
+        // 异步事件在信号线程池中投递，已投递集合会被并发访问
+        Set<SignalHandler<S, T>> delivered = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        List<CompletableFuture<Void>> pendings = new ArrayList<>();
+        PauseBuffer<S, T> buffer = pauseBuffer;
+        try {
+            for (String event : targets) {
+                if (signalRegistry.isPaused(event) || (buffer != null && buffer.isDraining(event))) {
+                    // 暂停中的事件走单事件发射，由暂停缓冲区处理
+                    emit(event, envelope, callback, errorHandler);
+                    continue;
+                }
+                CompletableFuture<Void> pending = broadcastTo(event, envelope, context, processedByPipeline, delivered,
+                        callback, errorHandler);
+                if (pending != null) {
+                    pendings.add(pending);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (trace != null) {
+                trace.fail();
+            }
+            throw e;
+        } finally {
+            if (trace != null) {
+                trace.complete(pendings.isEmpty() ? null : CompletableFuture.allOf(pendings.toArray(new CompletableFuture<?>[0])));
             }
-            return;
         }
+    }
 
-        // 4. 记录指标
+    /**
+     * 广播到单个事件：检查保护策略，同步事件共享同一管道的处理结果，异步事件与单事件发射一样在信号线程池中执行管道
+     *
+     * @return 异步投递时所有处理器完成的 future，否则为 null
+     */
+    private CompletableFuture<Void> broadcastTo(String event, Envelope<S, T> envelope, SignalContext context,
+                                                Map<Object, Envelope<S, T>> processedByPipeline,
+                                                Set<SignalHandler<S, T>> delivered, SignalCallback<S, T> callback,
+                                                Consumer<Throwable> errorHandler) {
+        if (signalRegistry.isCompactMode()) {
+            autoConfigureProtection(event);
+        }
         SignalConfig config = signalRegistry.getConfig(event);
-        if (config.isRecordMetrics()) {
-            metrics.recordEmit(event);
+        ProtectionChain protection = protectionManager.acquire(event, config.getPriority());
+        if (protection == null) {
+            log.debug("Signal [{}] blocked by protection manager", event);
+            return null;
         }
 
-        // 5. 获取处理器并发射
-        List<Sig<S, T>> sigs = signalRegistry.getHandlers(event);
-        if (!signalRegistry.hasHandlers(event)) {
-            if (callback != null) {
-                callback.onError(event, processedParams, new RuntimeException("No handlers for event: " + event));
-                callback.onComplete(event, processedParams);
+        CompletableFuture<Void> pending = null;
+        try {
+            if (config.isAsync()) {
+                pending = dispatchAsync(event, envelope, context, config, callback, errorHandler, delivered);
+                return pending;
             }
-            return;
+            Object pipelineKey = signalPipeline.pipelineKey(event);
+            boolean firstOfPipeline = !processedByPipeline.containsKey(pipelineKey);
+            if (firstOfPipeline) {
+                long pipelineStart = System.nanoTime();
+                processedByPipeline.put(pipelineKey, signalPipeline.processPipeline(event, envelope, context));
+                recordPipelineLatency(event, config, pipelineStart);
+            }
+            Envelope<S, T> processedParams = processedByPipeline.get(pipelineKey);
+            if (processedParams == null) {
+                onPipelineBlocked(event, envelope, callback);
+                return null;
+            }
+
+            Sig<S, T>[] sigs = signalRegistry.getHandlerArray(event, processedParams);
+            Sig<S, T>[] pendingSigs = excludeDelivered(sigs, delivered);
+            if (pendingSigs.length == 0 && sigs.length > 0) {
+                // 所有处理器已通过其他事件收到该信号
+                onAlreadyDelivered(event, processedParams, callback);
+                return null;
+            }
+            pending = deliver(event, processedParams, pendingSigs, config, context, firstOfPipeline, callback, errorHandler);
+            return pending;
+        } finally {
+            releaseProtection(event, protection, pending);
         }
+    }
 
-        // 6. 根据配置选择同步或异步发射
-        if (config.isAsync()) {
-            signalEmitter.emitAsync(event, processedParams, sigs, config, errorHandler, callback, protectionManager);
-        } else {
-            signalEmitter.emitSync(event, processedParams, sigs, config, errorHandler, callback, protectionManager);
+    /**
+     * 广播中该事件的所有处理器已通过其他事件收到信号，不再投递，但仍通知回调该事件已完成
+     */
+    private void onAlreadyDelivered(String event, Envelope<S, T> envelope, SignalCallback<S, T> callback) {
+        log.debug("Signal [{}] already delivered to all handlers by the broadcast", event);
+        if (callback != null) {
+            callback.onComplete(event, envelope);
         }
+    }
 
-        // 7. 执行后处理
-        signalPipeline.executePostProcessing(event, processedParams);
+    /**
+     * 过滤掉已投递过的处理器，并记录本次投递的处理器；无重复时返回原数组
+     */
+    private Sig<S, T>[] excludeDelivered(Sig<S, T>[] sigs, Set<SignalHandler<S, T>> delivered) {
+        synchronized (delivered) {
+            return excludeDeliveredLocked(sigs, delivered);
+        }
+    }
 
-        // 8. 判断是否进行持久化
-        if (signalProperties.getPersistent()) {
+    private Sig<S, T>[] excludeDeliveredLocked(Sig<S, T>[] sigs, Set<SignalHandler<S, T>> delivered) {
+        int kept = 0;
+        for (Sig<S, T> sig : sigs) {
+            if (!delivered.contains(sig.getHandler())) {
+                kept++;
+            }
+        }
+        if (kept == sigs.length) {
             for (Sig<S, T> sig : sigs) {
-                // 进行持久化操作
-                unifiedSignalPersistence.saveEventAsync(sig, config, context, metrics.getMetrics(event));
-                log.info("Event Info Is Saved By Persistence");
+                delivered.add(sig.getHandler());
             }
+            return sigs;
+        }
+        Sig<S, T>[] result = Arrays.copyOf(sigs, kept);
+        int n = 0;
+        for (Sig<S, T> sig : sigs) {
+            if (delivered.add(sig.getHandler())) {
+                result[n++] = sig;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 释放保护策略占用的资源（如并发数），异步发射时在所有处理器完成后释放
+     */
+    private void releaseProtection(String event, ProtectionChain protection, CompletableFuture<Void> pending) {
+        if (!protection.requiresRelease()) {
+            return;
+        }
+        if (pending == null) {
+            protection.release(event);
+        } else {
+            pending.whenComplete((r, e) -> protection.release(event));
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        configureProtection();
+        if (signalProperties != null && signalProperties.getRegistryCompactMode()) {
+            signalRegistry.setCompactMode(true);
+        }
+        if (signalProperties != null && !signalProperties.getPipelineTracingEnabled()) {
+            signalPipeline.setTracingEnabled(false);
+        }
+        if (signalProperties != null && signalProperties.getFilterRejectionCacheTtlMs() > 0) {
+            signalPipeline.setFilterRejectionTtlMillis(signalProperties.getFilterRejectionCacheTtlMs());
+        }
+        if (signalProperties != null) {
+            metrics.setTraceStore(TraceStore.builder()
+                    .capacity(signalProperties.getTraceStoreCapacity())
+                    .ttlMillis(signalProperties.getTraceStoreTtlMs())
+                    .sampleRate(signalProperties.getTraceSampleRate())
+                    .keepErrors(signalProperties.getTraceKeepErrors())
+                    .slowThresholdMillis(signalProperties.getTraceSlowThresholdMs())
+                    .build());
+            configureSpanExport();
+        }
+        startMaintenance();
+        if (signalProperties != null && signalProperties.getPauseBufferEnabled()) {
+            pauseBuffer = new PauseBuffer<>(signalProperties.getPauseBufferMemoryCapacity(),
+                    signalProperties.getPauseBufferMaxSpillEntries(),
+                    signalProperties.getPauseReplayRatePerSecond(),
+                    new File(signalProperties.getPauseBufferSpillDir()));
+        }
+    }
+
+    /**
+     * 按配置创建 span 导出器（zipkin 或 otlp），在后台线程批量导出采样追踪
+     */
+    private void configureSpanExport() {
+        String format = signalProperties.getTracingExportFormat();
+        if (format == null || format.isEmpty() || "none".equalsIgnoreCase(format)) {
+            return;
+        }
+        HttpSpanExporter.Format exportFormat;
+        try {
+            exportFormat = HttpSpanExporter.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown tracing export format [{}], span export disabled", format);
+            return;
+        }
+        spanProcessor = new BatchSpanProcessor(
+                new HttpSpanExporter(exportFormat, signalProperties.getTracingExportEndpoint(), signalProperties.getTracingServiceName()),
+                signalProperties.getTracingExportQueueCapacity(),
+                signalProperties.getTracingExportBatchSize(),
+                signalProperties.getTracingExportIntervalMs());
+        log.info("Exporting sampled signal traces in {} format", exportFormat);
+    }
+
+    /**
+     * 获取 span 导出器，未配置导出时返回 null
+     */
+    public BatchSpanProcessor getSpanProcessor() {
+        return spanProcessor;
+    }
+
+    /**
+     * 启动后台维护任务：定期移除已过期的处理器，紧凑模式下将空闲事件转入冷存储
+     */
+    private void startMaintenance() {
+        if (signalProperties == null) {
+            return;
+        }
+        long reapInterval = signalProperties.getHandlerReapIntervalMs();
+        long idleEvict = signalRegistry.isCompactMode() ? signalProperties.getRegistryIdleEvictMs() : 0L;
+        if (reapInterval <= 0 && idleEvict <= 0) {
+            return;
+        }
+        handlerReaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "signal-handler-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (reapInterval > 0) {
+            handlerReaper.scheduleWithFixedDelay(() -> {
+                try {
+                    signalRegistry.reapExpired();
+                    metrics.getTraceStore().cleanUp();
+                } catch (Exception e) {
+                    log.error("清理过期处理器失败: {}", e.getMessage(), e);
+                }
+            }, reapInterval, reapInterval, TimeUnit.MILLISECONDS);
+            log.info("过期处理器清理已启用: 间隔:{}ms", reapInterval);
+        }
+        if (idleEvict > 0) {
+            long sweepInterval = Math.max(1000L, Math.min(idleEvict / 2, 60000L));
+            handlerReaper.scheduleWithFixedDelay(() -> {
+                try {
+                    // 冷存储的事件释放保护策略，再次发射时重新创建
+                    for (String event : signalRegistry.evictIdle(idleEvict)) {
+                        protectionManager.removeProtection(event);
+                    }
+                } catch (Exception e) {
+                    log.error("空闲事件转入冷存储失败: {}", e.getMessage(), e);
+                }
+            }, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+            log.info("紧凑注册表已启用: 空闲事件转入冷存储时间:{}ms", idleEvict);
         }
     }
 
@@ -304,7 +916,22 @@ public class Signals<S, T> implements DisposableBean {
     public void destroy() {
         log.info("Shutting down Signal framework, cleaning up resources...");
 
-        // 1. 清理所有事件处理器
+        // 1. 停止过期处理器清理并清理所有事件处理器
+        if (handlerReaper != null) {
+            handlerReaper.shutdownNow();
+        }
+        if (pauseBuffer != null) {
+            pauseBuffer.shutdown();
+        }
+        if (spanProcessor != null) {
+            spanProcessor.shutdown();
+        }
+        synchronized (this) {
+            if (tokenLeaseExecutor != null) {
+                tokenLeaseExecutor.shutdownNow();
+            }
+        }
+        signalPipeline.shutdown();
         signalRegistry.clearAll();
 
         // 2. 关闭死信队列管理器
@@ -359,6 +986,13 @@ public class Signals<S, T> implements DisposableBean {
         signalRegistry.clear(events);
     }
 
+    /**
+     * 获取事件当前的处理器（含通配订阅），按优先级排序
+     */
+    public List<Sig<S, T>> getHandlers(String event) {
+        return signalRegistry.getHandlers(event);
+    }
+
     /**
      * 获取信号统计信息
      */
@@ -378,6 +1012,7 @@ public class Signals<S, T> implements DisposableBean {
      */
     public void addSignalTransformer(String event, SignalTransformer<S, T> transformer) {
         signalPipeline.addTransformer(event, transformer);
+        attachCacheStats(transformer);
     }
 
     /**
@@ -387,6 +1022,110 @@ public class Signals<S, T> implements DisposableBean {
         signalPipeline.addInterceptor(event, interceptor);
     }
 
+    /**
+     * 绑定全局信号拦截器，作用于所有事件
+     */
+    public void addGlobalSignalInterceptor(SignalInterceptor<S, T> interceptor) {
+        signalPipeline.addGlobalInterceptor(interceptor);
+    }
+
+    /**
+     * 绑定全局信号过滤器，作用于所有事件
+     */
+    public void addGlobalFilter(SignalFilter<S, T> filter) {
+        signalPipeline.addGlobalFilter(filter);
+    }
+
+    /**
+     * 绑定全局信号转换器，作用于所有事件
+     */
+    public void addGlobalSignalTransformer(SignalTransformer<S, T> transformer) {
+        signalPipeline.addGlobalTransformer(transformer);
+        attachCacheStats(transformer);
+    }
+
+    /**
+     * 解绑全局信号拦截器
+     */
+    public boolean removeGlobalSignalInterceptor(SignalInterceptor<S, T> interceptor) {
+        return signalPipeline.removeGlobalInterceptor(interceptor);
+    }
+
+    /**
+     * 解绑全局信号过滤器
+     */
+    public boolean removeGlobalFilter(SignalFilter<S, T> filter) {
+        return signalPipeline.removeGlobalFilter(filter);
+    }
+
+    /**
+     * 解绑全局信号转换器
+     */
+    public boolean removeGlobalSignalTransformer(SignalTransformer<S, T> transformer) {
+        boolean removed = signalPipeline.removeGlobalTransformer(transformer);
+        if (removed) {
+            detachCacheStats(transformer);
+        }
+        return removed;
+    }
+
+    /**
+     * 解绑信号过滤器
+     */
+    public boolean removeFilter(String event, SignalFilter<S, T> filter) {
+        return signalPipeline.removeFilter(event, filter);
+    }
+
+    /**
+     * 解绑信号转换器
+     */
+    public boolean removeSignalTransformer(String event, SignalTransformer<S, T> transformer) {
+        boolean removed = signalPipeline.removeTransformer(event, transformer);
+        if (removed) {
+            detachCacheStats(transformer);
+        }
+        return removed;
+    }
+
+    /**
+     * 缓存转换器首次绑定时注册缓存统计
+     */
+    private void attachCacheStats(SignalTransformer<S, T> transformer) {
+        if (transformer instanceof CachingSignalTransformer) {
+            CachingSignalTransformer<?, ?> caching = (CachingSignalTransformer<?, ?>) transformer;
+            cachingTransformers.compute(caching, (key, count) -> {
+                if (count == null) {
+                    metrics.registerCacheStats(caching.getStatsKey(), caching::getStats);
+                    return 1;
+                }
+                return count + 1;
+            });
+        }
+    }
+
+    /**
+     * 缓存转换器最后一次解绑时注销缓存统计
+     */
+    private void detachCacheStats(SignalTransformer<S, T> transformer) {
+        if (transformer instanceof CachingSignalTransformer) {
+            CachingSignalTransformer<?, ?> caching = (CachingSignalTransformer<?, ?>) transformer;
+            cachingTransformers.computeIfPresent(caching, (key, count) -> {
+                if (count > 1) {
+                    return count - 1;
+                }
+                metrics.unregisterCacheStats(caching.getStatsKey());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 解绑信号拦截器
+     */
+    public boolean removeSignalInterceptor(String event, SignalInterceptor<S, T> interceptor) {
+        return signalPipeline.removeInterceptor(event, interceptor);
+    }
+
     /**
      * 获取已注册的事件列表
      */
@@ -395,30 +1134,127 @@ public class Signals<S, T> implements DisposableBean {
     }
 
     /**
-     * 根据配置自动配置保护机制
+     * 根据配置设置熔断阈值并启用负载削减
      */
-    public void autoConfigureProtection(String event) {
-        if (signalProperties != null && signalProperties.getProtectionEnabled()) {
-            // 自动创建熔断器
-            CircuitBreaker breaker = new CircuitBreaker(
-                    signalProperties.getCircuitBreakerFailureThreshold(),
-                    signalProperties.getCircuitBreakerOpenTimeoutMs(),
-                    signalProperties.getCircuitBreakerHalfOpenTrialCount()
-            );
-
-            // 自动创建限流器
-            RateLimiter limiter = new RateLimiter(
-                    signalProperties.getRateLimiterMaxRequestsPerSecond()
-            );
+    private void configureProtection() {
+        if (signalProperties == null) {
+            return;
+        }
+        protectionManager.setErrorRateThreshold(signalProperties.getCircuitBreakerErrorRateThreshold());
+        if (!signalProperties.getLoadSheddingEnabled()) {
+            return;
+        }
+        ThreadPoolExecutor threadPool = executorService instanceof ThreadPoolExecutor
+                ? (ThreadPoolExecutor) executorService : null;
+        protectionManager.setLoadShedder(new LoadShedder(
+                signalProperties.getLoadSheddingTargetDelayMs(),
+                signalProperties.getLoadSheddingIntervalMs(),
+                signalProperties.getLoadSheddingMaxActiveRatio(),
+                threadPool), metrics);
+        log.info("负载削减已启用: 目标排队延迟:{}ms, 检测窗口:{}ms",
+                signalProperties.getLoadSheddingTargetDelayMs(),
+                signalProperties.getLoadSheddingIntervalMs());
+    }
 
-            // 注册保护机制
-            protectionManager.registerCircuitBreaker(event, breaker);
-            protectionManager.registerRateLimiter(event, limiter);
+    /**
+     * 绑定处理器时配置保护机制，紧凑模式下推迟到首次发射
+     */
+    private void prepareProtection(String event) {
+        if (!signalRegistry.isCompactMode()) {
+            autoConfigureProtection(event);
+        }
+    }
 
+    /**
+     * 根据配置自动配置保护机制，每个事件只安装一次
+     */
+    public void autoConfigureProtection(String event) {
+        if (signalProperties == null || !signalProperties.getProtectionEnabled()) {
+            return;
+        }
+        boolean installed = protectionManager.installPoliciesIfAbsent(event, () -> createProtectionPolicies(event));
+        if (installed) {
             log.info("自动配置保护机制完成: {} - 熔断器阈值:{}, 限流器QPS:{}",
                     event,
                     signalProperties.getCircuitBreakerFailureThreshold(),
                     signalProperties.getRateLimiterMaxRequestsPerSecond());
         }
     }
+
+    /**
+     * 根据配置创建保护策略
+     */
+    private List<ProtectionPolicy> createProtectionPolicies(String event) {
+        List<ProtectionPolicy> policies = new ArrayList<>();
+        // 熔断器
+        policies.add(new CircuitBreakerPolicy(
+                new CircuitBreaker(
+                        signalProperties.getCircuitBreakerFailureThreshold(),
+                        signalProperties.getCircuitBreakerOpenTimeoutMs(),
+                        signalProperties.getCircuitBreakerHalfOpenTrialCount()),
+                signalProperties.getCircuitBreakerErrorRateThreshold()));
+        // 限流器：cluster 模式下由所有节点共享全局 QPS
+        if ("cluster".equalsIgnoreCase(signalProperties.getRateLimiterMode())) {
+            policies.add(new ClusterRateLimitPolicy(getTokenLeaseStore(), event,
+                    signalProperties.getRateLimiterMaxRequestsPerSecond(),
+                    signalProperties.getRateLimiterLeaseBlockSize(),
+                    clusterFallbackRate(), getTokenLeaseExecutor()));
+        } else {
+            policies.add(new RateLimitPolicy(new RateLimiter(signalProperties.getRateLimiterMaxRequestsPerSecond())));
+        }
+        // 并发限制（0 表示不限制）
+        if (signalProperties.getProtectionMaxConcurrency() > 0) {
+            policies.add(new ConcurrencyLimitPolicy(signalProperties.getProtectionMaxConcurrency()));
+        }
+        // 配额（0 表示不限制）
+        if (signalProperties.getProtectionQuotaLimit() > 0) {
+            policies.add(new QuotaPolicy(signalProperties.getProtectionQuotaLimit(),
+                    signalProperties.getProtectionQuotaPeriodMs()));
+        }
+        return policies;
+    }
+
+    /**
+     * 获取令牌租约存储，未注入共享存储时退化为本地内存存储
+     */
+    private synchronized TokenLeaseStore getTokenLeaseStore() {
+        if (tokenLeaseStore == null) {
+            log.warn("未配置共享的 TokenLeaseStore，集群限流退化为单节点内存存储");
+            tokenLeaseStore = new InMemoryTokenLeaseStore();
+        }
+        return tokenLeaseStore;
+    }
+
+    /**
+     * 共享存储不可用时本节点的限流 QPS：未配置时按节点数平分全局 QPS
+     */
+    private int clusterFallbackRate() {
+        int configured = signalProperties.getRateLimiterFallbackMaxRequestsPerSecond();
+        if (configured > 0) {
+            return configured;
+        }
+        int nodes = Math.max(1, signalProperties.getRateLimiterClusterNodes());
+        return Math.max(1, (signalProperties.getRateLimiterMaxRequestsPerSecond() + nodes - 1) / nodes);
+    }
+
+    /**
+     * 获取令牌预取线程，所有集群限流策略共用，不占用公共 ForkJoinPool
+     */
+    private synchronized ExecutorService getTokenLeaseExecutor() {
+        if (tokenLeaseExecutor == null) {
+            tokenLeaseExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "signal-token-lease");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return tokenLeaseExecutor;
+    }
+
+    /**
+     * 获取保护管理器
+     */
+    public SignalProtectionManager getProtectionManager() {
+        return protectionManager;
+    }
 }
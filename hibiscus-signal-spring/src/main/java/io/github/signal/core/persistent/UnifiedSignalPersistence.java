@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 统一信号持久化管理器
@@ -40,18 +41,47 @@ public class UnifiedSignalPersistence<S, T> {
     @Autowired
     private SignalProperties signalProperties;
 
+    /**
+     * 已提交但尚未完成的异步保存数
+     */
+    private final AtomicInteger pendingSaves = new AtomicInteger();
+
+    /**
+     * 最近一次异步保存从提交到完成的耗时（毫秒）
+     */
+    private volatile long lastSaveLagMs;
+
     /**
      * 异步保存事件信息到所有启用的存储
      */
     public void saveEventAsync(Sig<S, T> sig, SignalConfig config,
                                SignalContext context, Map<String, Object> metrics) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                saveEvent(sig, config, context, metrics);
-            } catch (Exception e) {
-                log.error("Async Save Event Failed : {}", e.getMessage(), e);
-            }
-        }, persistenceExecutor);
+        long submittedAt = System.currentTimeMillis();
+        pendingSaves.incrementAndGet();
+        try {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    saveEvent(sig, config, context, metrics);
+                } catch (Exception e) {
+                    log.error("Async Save Event Failed : {}", e.getMessage(), e);
+                } finally {
+                    pendingSaves.decrementAndGet();
+                    lastSaveLagMs = System.currentTimeMillis() - submittedAt;
+                }
+            }, persistenceExecutor);
+        } catch (RuntimeException e) {
+            // 提交被拒绝时任务不会执行
+            pendingSaves.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public int getPendingSaveCount() {
+        return pendingSaves.get();
+    }
+
+    public long getLastSaveLagMs() {
+        return lastSaveLagMs;
     }
 
     /**
@@ -0,0 +1,52 @@
+package io.github.signal.core.protection;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.Collections;
+
+/**
+ * Redis 令牌租约存储
+ * 所有节点共享同一个按时间窗口划分的计数器，通过 Lua 脚本原子地发放令牌块
+ *
+ * @author heathcetide
+ */
+public class RedisTokenLeaseStore implements TokenLeaseStore {
+
+    // Redis Key 前缀
+    private static final String RATE_LIMIT_KEY_PREFIX = "signal:ratelimit:";
+
+    /**
+     * KEYS[1] 窗口计数器, ARGV[1] 请求数量, ARGV[2] 窗口限额, ARGV[3] 过期时间(ms)
+     */
+    private static final RedisScript<Long> LEASE_SCRIPT = new DefaultRedisScript<>(
+            "local requested = tonumber(ARGV[1]) " +
+            "local limit = tonumber(ARGV[2]) " +
+            "local used = redis.call('INCRBY', KEYS[1], requested) " +
+            "if used == requested then redis.call('PEXPIRE', KEYS[1], ARGV[3]) end " +
+            "if used <= limit then return requested end " +
+            "local granted = limit - (used - requested) " +
+            "if granted < 0 then granted = 0 end " +
+            "redis.call('DECRBY', KEYS[1], requested - granted) " +
+            "return granted",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public RedisTokenLeaseStore(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long lease(String key, long window, long windowMs, long requested, long limit) {
+        Long granted = redisTemplate.execute(LEASE_SCRIPT,
+                new StringRedisSerializer(),
+                new GenericToStringSerializer<>(Long.class),
+                Collections.singletonList(RATE_LIMIT_KEY_PREFIX + key + ":" + window),
+                String.valueOf(requested), String.valueOf(limit), String.valueOf(windowMs * 2));
+        return granted != null ? granted : 0L;
+    }
+}
@@ -180,6 +180,13 @@ public class DeadLetterQueueManager<S, T> {
         return queryDeadLetterEvents(event -> event.getFailureReason().contains(failureReason));
     }
 
+    /**
+     * 获取死信队列中的事件数
+     */
+    public int getQueueSize() {
+        return deadLetterEvents.size();
+    }
+
     /**
      * 获取死信队列统计信息
      */
@@ -98,4 +98,18 @@ public @interface SignalHandler {
      * @return true if persistent
      */
     boolean persistent() default false;
+
+    /**
+     * Whether a hedged second attempt is launched when the handler exceeds its p95 latency.
+     *
+     * @return true if hedging is enabled
+     */
+    boolean hedging() default false;
+
+    /**
+     * Maximum percentage of calls that may be hedged.
+     *
+     * @return hedge budget in percent
+     */
+    int hedgeBudgetPercent() default 10;
 }
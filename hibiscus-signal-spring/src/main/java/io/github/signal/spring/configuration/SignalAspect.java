@@ -108,6 +108,8 @@ public class SignalAspect implements ApplicationContextAware {
                                 .timeoutMs(annotation.timeoutMs())
                                 .recordMetrics(annotation.recordMetrics())
                                 .priority(annotation.priority())
+                                .hedgingEnabled(annotation.hedging())
+                                .hedgeBudgetPercent(annotation.hedgeBudgetPercent())
                                 .build();
 
                         signals.connect(annotation.value(), (envelope) -> {
@@ -201,6 +203,8 @@ public class SignalAspect implements ApplicationContextAware {
                 .timeoutMs(signalHandler.timeoutMs())
                 .recordMetrics(signalHandler.recordMetrics())
                 .priority(signalHandler.priority())
+                .hedgingEnabled(signalHandler.hedging())
+                .hedgeBudgetPercent(signalHandler.hedgeBudgetPercent())
                 .build();
 
         Method method = getMethodFromAnnotation(signalHandler);
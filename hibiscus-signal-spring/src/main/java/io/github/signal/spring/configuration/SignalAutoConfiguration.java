@@ -13,6 +13,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 
 import java.util.concurrent.ExecutorService;
 
@@ -46,4 +47,13 @@ public class SignalAutoConfiguration<S, T> {
             return new Signals<>(executorService);
         }
     }
+
+    /**
+     * Applies {@code hibiscus.events.*} config overrides at startup and on environment refresh.
+     */
+    @Bean
+    @ConditionalOnMissingBean(SignalConfigRefresher.class)
+    public SignalConfigRefresher signalConfigRefresher(Signals<Object, Object> signals, Environment environment) {
+        return new SignalConfigRefresher(signals, environment);
+    }
 }
@@ -4,6 +4,7 @@ import io.github.signal.core.SignalFilter;
 import io.github.signal.core.SignalInterceptor;
 import io.github.signal.core.SignalTransformer;
 import io.github.signal.core.Signals;
+import io.github.signal.core.TopicTrie;
 import io.github.signal.spring.anno.SignalFilterBind;
 import io.github.signal.spring.anno.SignalInterceptorBind;
 import io.github.signal.spring.anno.SignalTransformerBind;
@@ -66,37 +67,17 @@ public class SignalComponentRegistrar implements BeanPostProcessor {
 
     /**
      * Registers a signal interceptor to one or more events based on the annotation.
-     * Supports wildcard `"*"` to apply the interceptor to all currently registered events.
+     * Patterns such as {@code "user.*"} or {@code "order.#"} are subscribed as-is, so events
+     * registered after this bean are covered as well. {@code "*"} applies to all events.
      *
      * @param interceptor the SignalInterceptor instance
      * @param annotation  the associated {@link SignalInterceptorBind} annotation
      */
     private void registerInterceptor(SignalInterceptor<Object, Object> interceptor, SignalInterceptorBind annotation) {
         for (String pattern : annotation.value()) {
-            // 如果是 "*"，则注册到所有事件
-            if ("*".equals(pattern)) {
-                signals.getRegisteredEvents().forEach(event ->
-                        signals.addSignalInterceptor(event, interceptor)
-                );
-                logger.info("Registered interceptor: {} for all events", interceptor.getClass().getSimpleName());
-            } else {
-                // 处理 "user.*" 或类似的事件模式
-                boolean isPattern = pattern.contains("*");
-                if (isPattern) {
-                    // 通过正则表达式匹配事件
-                    String regexPattern = convertToRegex(pattern);
-                    signals.getRegisteredEvents().forEach(event -> {
-                        if (event.matches(regexPattern)) {
-                            signals.addSignalInterceptor(event, interceptor);
-                            logger.info("Registered interceptor: {} for event: {}", interceptor.getClass().getSimpleName(), event);
-                        }
-                    });
-                } else {
-                    // 如果没有通配符，直接注册
-                    signals.addSignalInterceptor(pattern, interceptor);
-                    logger.info("Registered interceptor: {} for event: {}", interceptor.getClass().getSimpleName(), pattern);
-                }
-            }
+            String topic = toTopic(pattern);
+            signals.addSignalInterceptor(topic, interceptor);
+            logger.info("Registered interceptor: {} for event: {}", interceptor.getClass().getSimpleName(), topic);
         }
     }
 
@@ -108,30 +89,9 @@ public class SignalComponentRegistrar implements BeanPostProcessor {
      */
     private void registerFilter(SignalFilter<Object, Object> filter, SignalFilterBind annotation) {
         for (String pattern : annotation.value()) {
-            // 如果是 "*"，则注册到所有事件
-            if ("*".equals(pattern)) {
-                signals.getRegisteredEvents().forEach(event ->
-                        signals.addFilter(event, filter)
-                );
-                logger.info("Registered filter: {} for all events", filter.getClass().getSimpleName());
-            } else {
-                // 处理 "user.*" 或类似的事件模式
-                boolean isPattern = pattern.contains("*");
-                if (isPattern) {
-                    // 通过正则表达式匹配事件
-                    String regexPattern = convertToRegex(pattern);
-                    signals.getRegisteredEvents().forEach(event -> {
-                        if (event.matches(regexPattern)) {
-                            signals.addFilter(event, filter);
-                            logger.info("Registered filter: {} for event: {}", filter.getClass().getSimpleName(), event);
-                        }
-                    });
-                } else {
-                    // 如果没有通配符，直接注册
-                    signals.addFilter(pattern, filter);
-                    logger.info("Registered filter: {} for event: {}", filter.getClass().getSimpleName(), pattern);
-                }
-            }
+            String topic = toTopic(pattern);
+            signals.addFilter(topic, filter);
+            logger.info("Registered filter: {} for event: {}", filter.getClass().getSimpleName(), topic);
         }
     }
 
@@ -143,42 +103,21 @@ public class SignalComponentRegistrar implements BeanPostProcessor {
      */
     private void registerTransformer(SignalTransformer<Object, Object> transformer, SignalTransformerBind annotation) {
         for (String pattern : annotation.value()) {
-            // 如果是 "*"，则注册到所有事件
-            if ("*".equals(pattern)) {
-                signals.getRegisteredEvents().forEach(event ->
-                        signals.addSignalTransformer(event, transformer)
-                );
-                logger.info("Registered transformer: {} for all events", transformer.getClass().getSimpleName());
-            } else {
-                // 处理 "user.*" 或类似的事件模式
-                boolean isPattern = pattern.contains("*");
-                if (isPattern) {
-                    // 通过正则表达式匹配事件
-                    String regexPattern = convertToRegex(pattern);
-                    signals.getRegisteredEvents().forEach(event -> {
-                        if (event.matches(regexPattern)) {
-                            signals.addSignalTransformer(event, transformer);
-                            logger.info("Registered transformer: {} for event: {}", transformer.getClass().getSimpleName(), event);
-                        }
-                    });
-                } else {
-                    // 如果没有通配符，直接注册
-                    signals.addSignalTransformer(pattern, transformer);
-                    logger.info("Registered transformer: {} for event: {}", transformer.getClass().getSimpleName(), pattern);
-                }
-            }
+            String topic = toTopic(pattern);
+            signals.addSignalTransformer(topic, transformer);
+            logger.info("Registered transformer: {} for event: {}", transformer.getClass().getSimpleName(), topic);
         }
     }
 
     /**
-     * 将通配符模式转换为正则表达式
-     * 例如："user.*" 会转换成 "user\..*"，以匹配以"user."为前缀的所有事件。
+     * 将注解中的事件模式转换为订阅主题
+     * 单独的 "*" 表示所有事件，对应多级通配 "#"，由管道作为全局组件只保存一份；
+     * 其余模式原样使用（"*" 匹配一级，"#" 匹配任意级）。
      *
-     * @param pattern 原始通配符模式
-     * @return 转换后的正则表达式
+     * @param pattern 原始事件模式
+     * @return 订阅主题
      */
-    private String convertToRegex(String pattern) {
-        // 将通配符 "*" 转换成正则表达式 ".*"
-        return pattern.replace(".", "\\.").replace("*", ".*");
+    private String toTopic(String pattern) {
+        return TopicTrie.SINGLE_WILDCARD.equals(pattern) ? TopicTrie.MULTI_WILDCARD : pattern;
     }
 }
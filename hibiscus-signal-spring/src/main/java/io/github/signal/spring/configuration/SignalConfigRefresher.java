@@ -0,0 +1,92 @@
+package io.github.signal.spring.configuration;
+
+import io.github.signal.core.Signals;
+import io.github.signal.core.config.SignalConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Applies the per-event overrides under {@code hibiscus.events} to the running {@link Signals}.
+ * Overrides are applied once the application is ready and again whenever the environment changes
+ * (Spring Cloud's {@code EnvironmentChangeEvent}, detected by class name so that Spring Cloud stays optional).
+ * Handlers are never re-registered; the event config is swapped atomically.
+ */
+public class SignalConfigRefresher implements ApplicationListener<ApplicationEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignalConfigRefresher.class);
+
+    private static final String ENVIRONMENT_CHANGE_EVENT = "org.springframework.cloud.context.environment.EnvironmentChangeEvent";
+
+    private static final String EVENTS_PREFIX = "hibiscus.events";
+
+    private final Signals<Object, Object> signals;
+
+    private final Environment environment;
+
+    public SignalConfigRefresher(Signals<Object, Object> signals, Environment environment) {
+        this.signals = signals;
+        this.environment = environment;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationReadyEvent
+                || ENVIRONMENT_CHANGE_EVENT.equals(event.getClass().getName())) {
+            refresh();
+        }
+    }
+
+    /**
+     * Re-binds {@code hibiscus.events} from the environment and applies every override.
+     */
+    public void refresh() {
+        Map<String, SignalProperties.EventProperties> events = Binder.get(environment)
+                .bind(EVENTS_PREFIX, Bindable.mapOf(String.class, SignalProperties.EventProperties.class))
+                .orElse(Collections.emptyMap());
+        events.forEach(this::apply);
+        if (!events.isEmpty()) {
+            logger.info("Applied config overrides for {} event(s)", events.size());
+        }
+    }
+
+    private void apply(String event, SignalProperties.EventProperties props) {
+        SignalConfig.Builder builder = signals.getConfig(event).toBuilder();
+        if (props.getAsync() != null) {
+            builder.async(props.getAsync());
+        }
+        if (props.getMaxRetries() != null) {
+            builder.maxRetries(props.getMaxRetries());
+        }
+        if (props.getRetryDelayMs() != null) {
+            builder.retryDelayMs(props.getRetryDelayMs());
+        }
+        if (props.getTimeoutMs() != null) {
+            builder.timeoutMs(props.getTimeoutMs());
+        }
+        if (props.getPriority() != null) {
+            builder.priority(props.getPriority());
+        }
+        if (props.getRecordMetrics() != null) {
+            builder.recordMetrics(props.getRecordMetrics());
+        }
+        if (props.getHedgingEnabled() != null) {
+            builder.hedgingEnabled(props.getHedgingEnabled());
+        }
+        signals.refreshConfig(event, builder.build());
+
+        if (Boolean.TRUE.equals(props.getPaused()) && !signals.isPaused(event)) {
+            signals.pause(event);
+        } else if (Boolean.FALSE.equals(props.getPaused()) && signals.isPaused(event)) {
+            signals.resume(event);
+        }
+    }
+}
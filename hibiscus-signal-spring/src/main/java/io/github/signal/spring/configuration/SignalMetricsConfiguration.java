@@ -0,0 +1,74 @@
+package io.github.signal.spring.configuration;
+
+import io.github.signal.core.Signals;
+import io.github.signal.core.persistent.UnifiedSignalPersistence;
+import io.github.signal.spring.metrics.EventTagPolicy;
+import io.github.signal.spring.metrics.SignalMeterBinder;
+import io.github.signal.spring.metrics.SignalMeterSource;
+import io.github.signal.spring.metrics.SignalPrometheusEndpoint;
+import io.github.signal.spring.metrics.SignalPrometheusFormatter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Exports signal metrics: Micrometer meters when Micrometer is on the classpath (picked up by Spring Boot's
+ * meter registries) and a Prometheus text actuator endpoint when the actuator is on the classpath.
+ * Both are optional dependencies; disable the export with {@code hibiscus.metrics-export-enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hibiscus.metrics-export-enabled", havingValue = "true", matchIfMissing = true)
+public class SignalMetricsConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(EventTagPolicy.class)
+    public EventTagPolicy signalEventTagPolicy(SignalProperties signalProperties) {
+        return new EventTagPolicy(signalProperties.getMetricsEventTags(), signalProperties.getMetricsEventTagLimit());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SignalMeterSource.class)
+    public SignalMeterSource signalMeterSource(Signals<Object, Object> signals,
+                                               @Qualifier("signalExecutor") ExecutorService executorService,
+                                               ObjectProvider<UnifiedSignalPersistence<?, ?>> persistence,
+                                               EventTagPolicy signalEventTagPolicy) {
+        return new SignalMeterSource(signals, executorService, persistence.getIfAvailable(), signalEventTagPolicy);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SignalPrometheusFormatter.class)
+    public SignalPrometheusFormatter signalPrometheusFormatter(SignalMeterSource signalMeterSource,
+                                                               SignalProperties signalProperties) {
+        return new SignalPrometheusFormatter(signalMeterSource, Boolean.TRUE.equals(signalProperties.getMetricsHandlerTagsEnabled()));
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    static class MicrometerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(SignalMeterBinder.class)
+        public SignalMeterBinder signalMeterBinder(SignalMeterSource signalMeterSource, SignalProperties signalProperties) {
+            return new SignalMeterBinder(signalMeterSource,
+                    Boolean.TRUE.equals(signalProperties.getMetricsHandlerTagsEnabled()),
+                    signalProperties.getMetricsRefreshIntervalMs());
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(SignalPrometheusEndpoint.class)
+        public SignalPrometheusEndpoint signalPrometheusEndpoint(SignalPrometheusFormatter signalPrometheusFormatter) {
+            return new SignalPrometheusEndpoint(signalPrometheusFormatter);
+        }
+    }
+}
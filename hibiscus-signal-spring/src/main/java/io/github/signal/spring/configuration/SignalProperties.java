@@ -1,12 +1,15 @@
 package io.github.signal.spring.configuration;
 
+import io.github.signal.core.enums.SignalPriority;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.TransactionDefinition;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Signal properties.
@@ -147,6 +150,196 @@ public class SignalProperties {
      */
     private Double circuitBreakerErrorRateThreshold = 0.5;
 
+    /**
+     * Rate Limiter Mode: "local" (per JVM) or "cluster" (global across nodes)
+     */
+    private String rateLimiterMode = "local";
+
+    /**
+     * Rate Limiter Tokens Leased Per Round Trip In Cluster Mode
+     */
+    private Integer rateLimiterLeaseBlockSize = 50;
+
+    /**
+     * Rate Limiter Expected Node Count In Cluster Mode (each node's share of the limit while the store is down)
+     */
+    private Integer rateLimiterClusterNodes = 1;
+
+    /**
+     * Rate Limiter Per Node Limit While The Cluster Store Is Down (0 = max-requests-per-second / cluster-nodes)
+     */
+    private Integer rateLimiterFallbackMaxRequestsPerSecond = 0;
+
+    /**
+     * Protection Max Concurrent Emits Per Event (0 = unlimited)
+     */
+    private Integer protectionMaxConcurrency = 0;
+
+    /**
+     * Protection Quota Per Event And Period (0 = unlimited)
+     */
+    private Long protectionQuotaLimit = 0L;
+
+    /**
+     * Protection Quota Period (ms)
+     */
+    private Long protectionQuotaPeriodMs = 86400000L;
+
+    /**
+     * Interval For Removing Expired (weak / scoped / TTL) Handlers (ms, 0 = disabled)
+     */
+    private Long handlerReapIntervalMs = 30000L;
+
+    /**
+     * Registry Compact Mode: lazy protection per event and cold storage for idle events
+     */
+    private Boolean registryCompactMode = false;
+
+    /**
+     * Registry Idle Time Before An Event Moves To Cold Storage (ms, compact mode only)
+     */
+    private Long registryIdleEvictMs = 600000L;
+
+    /**
+     * Pipeline Tracing Enabled: record a span per interceptor / filter / transformer
+     */
+    private Boolean pipelineTracingEnabled = true;
+
+    /**
+     * Filter Rejection Cache TTL (ms, 0 = disabled), for filters that provide a cache key
+     */
+    private Long filterRejectionCacheTtlMs = 0L;
+
+    /**
+     * Pause Buffer Enabled: signals of paused events are buffered and replayed on resume
+     */
+    private Boolean pauseBufferEnabled = true;
+
+    /**
+     * Pause Buffer Signals Kept In Memory Per Event Before Spilling To Disk
+     */
+    private Integer pauseBufferMemoryCapacity = 10000;
+
+    /**
+     * Pause Buffer Spill Directory
+     */
+    private String pauseBufferSpillDir = System.getProperty("java.io.tmpdir") + "/hibiscus-signal-pause";
+
+    /**
+     * Pause Buffer Signals Spilled To Disk Per Event Before New Ones Are Dropped (0 = no spilling)
+     */
+    private Long pauseBufferMaxSpillEntries = 1000000L;
+
+    /**
+     * Pause Replay Rate Per Event (signals/s)
+     */
+    private Integer pauseReplayRatePerSecond = 1000;
+
+    /**
+     * Trace Store Capacity: traces kept for queries by trace id, the oldest are dropped first
+     */
+    private Integer traceStoreCapacity = 10000;
+
+    /**
+     * Trace Store TTL (ms): how long a trace stays queryable, 0 = until dropped by capacity
+     */
+    private Long traceStoreTtlMs = 600000L;
+
+    /**
+     * Trace Sample Rate: fraction of traces kept and recording spans (head sampling, decided once per trace), between 0 and 1
+     */
+    private Double traceSampleRate = 1.0;
+
+    /**
+     * Trace Keep Errors: keep traces not sampled if a handler failed (tail sampling)
+     */
+    private Boolean traceKeepErrors = true;
+
+    /**
+     * Trace Slow Threshold (ms): keep traces not sampled if they took at least this long, 0 = disabled
+     */
+    private Long traceSlowThresholdMs = 0L;
+
+    /**
+     * Tracing Export Format: none, zipkin or otlp (OTLP/HTTP JSON)
+     */
+    private String tracingExportFormat = "none";
+
+    /**
+     * Tracing Export Endpoint: collector URL, empty = default of the format
+     */
+    private String tracingExportEndpoint;
+
+    /**
+     * Tracing Service Name: service name reported with exported spans
+     */
+    private String tracingServiceName = "hibiscus-signal";
+
+    /**
+     * Tracing Export Queue Capacity: traces waiting for export, further traces are dropped
+     */
+    private Integer tracingExportQueueCapacity = 2048;
+
+    /**
+     * Tracing Export Batch Size: maximum traces per export request
+     */
+    private Integer tracingExportBatchSize = 512;
+
+    /**
+     * Tracing Export Interval (ms): maximum time a trace waits before export
+     */
+    private Long tracingExportIntervalMs = 5000L;
+
+    /**
+     * Metrics Export Enabled: binds signal metrics to Micrometer and exposes the Prometheus text endpoint
+     */
+    private Boolean metricsExportEnabled = true;
+
+    /**
+     * Metrics Event Tags: event names or patterns tagged individually, empty = every event up to the limit
+     */
+    private List<String> metricsEventTags = new ArrayList<>();
+
+    /**
+     * Metrics Event Tag Limit: events beyond the limit are reported with the tag event="other"
+     */
+    private Integer metricsEventTagLimit = 100;
+
+    /**
+     * Metrics Handler Tags Enabled: export latency per handler, tagged with the handler id
+     */
+    private Boolean metricsHandlerTagsEnabled = false;
+
+    /**
+     * Metrics Refresh Interval (ms): how often new events are bound to Micrometer meters
+     */
+    private Long metricsRefreshIntervalMs = 10000L;
+
+    /**
+     * Load Shedding Enabled
+     */
+    private Boolean loadSheddingEnabled = false;
+
+    /**
+     * Load Shedding Target Queue Delay (ms)
+     */
+    private Long loadSheddingTargetDelayMs = 5L;
+
+    /**
+     * Load Shedding Interval (ms)
+     */
+    private Long loadSheddingIntervalMs = 100L;
+
+    /**
+     * Load Shedding Max Active Thread Ratio
+     */
+    private Double loadSheddingMaxActiveRatio = 1.0;
+
+    /**
+     * Per Event Config Overrides, keyed by event name (refreshed at runtime on environment change)
+     */
+    private Map<String, EventProperties> events = new LinkedHashMap<>();
+
     /**
      * Transaction Enabled
      */
@@ -372,6 +565,309 @@ public class SignalProperties {
         this.circuitBreakerErrorRateThreshold = circuitBreakerErrorRateThreshold;
     }
 
+    public String getRateLimiterMode() {
+        return rateLimiterMode;
+    }
+
+    public void setRateLimiterMode(String rateLimiterMode) {
+        this.rateLimiterMode = rateLimiterMode;
+    }
+
+    public Integer getRateLimiterLeaseBlockSize() {
+        return rateLimiterLeaseBlockSize;
+    }
+
+    public void setRateLimiterLeaseBlockSize(Integer rateLimiterLeaseBlockSize) {
+        this.rateLimiterLeaseBlockSize = rateLimiterLeaseBlockSize;
+    }
+
+    public Integer getRateLimiterClusterNodes() {
+        return rateLimiterClusterNodes;
+    }
+
+    public void setRateLimiterClusterNodes(Integer rateLimiterClusterNodes) {
+        this.rateLimiterClusterNodes = rateLimiterClusterNodes;
+    }
+
+    public Integer getRateLimiterFallbackMaxRequestsPerSecond() {
+        return rateLimiterFallbackMaxRequestsPerSecond;
+    }
+
+    public void setRateLimiterFallbackMaxRequestsPerSecond(Integer rateLimiterFallbackMaxRequestsPerSecond) {
+        this.rateLimiterFallbackMaxRequestsPerSecond = rateLimiterFallbackMaxRequestsPerSecond;
+    }
+
+    public Integer getProtectionMaxConcurrency() {
+        return protectionMaxConcurrency;
+    }
+
+    public void setProtectionMaxConcurrency(Integer protectionMaxConcurrency) {
+        this.protectionMaxConcurrency = protectionMaxConcurrency;
+    }
+
+    public Long getProtectionQuotaLimit() {
+        return protectionQuotaLimit;
+    }
+
+    public void setProtectionQuotaLimit(Long protectionQuotaLimit) {
+        this.protectionQuotaLimit = protectionQuotaLimit;
+    }
+
+    public Long getProtectionQuotaPeriodMs() {
+        return protectionQuotaPeriodMs;
+    }
+
+    public void setProtectionQuotaPeriodMs(Long protectionQuotaPeriodMs) {
+        this.protectionQuotaPeriodMs = protectionQuotaPeriodMs;
+    }
+
+    public Long getHandlerReapIntervalMs() {
+        return handlerReapIntervalMs;
+    }
+
+    public void setHandlerReapIntervalMs(Long handlerReapIntervalMs) {
+        this.handlerReapIntervalMs = handlerReapIntervalMs;
+    }
+
+    public Boolean getRegistryCompactMode() {
+        return registryCompactMode;
+    }
+
+    public void setRegistryCompactMode(Boolean registryCompactMode) {
+        this.registryCompactMode = registryCompactMode;
+    }
+
+    public Long getRegistryIdleEvictMs() {
+        return registryIdleEvictMs;
+    }
+
+    public void setRegistryIdleEvictMs(Long registryIdleEvictMs) {
+        this.registryIdleEvictMs = registryIdleEvictMs;
+    }
+
+    public Boolean getPipelineTracingEnabled() {
+        return pipelineTracingEnabled;
+    }
+
+    public void setPipelineTracingEnabled(Boolean pipelineTracingEnabled) {
+        this.pipelineTracingEnabled = pipelineTracingEnabled;
+    }
+
+    public Long getFilterRejectionCacheTtlMs() {
+        return filterRejectionCacheTtlMs;
+    }
+
+    public void setFilterRejectionCacheTtlMs(Long filterRejectionCacheTtlMs) {
+        this.filterRejectionCacheTtlMs = filterRejectionCacheTtlMs;
+    }
+
+    public Boolean getPauseBufferEnabled() {
+        return pauseBufferEnabled;
+    }
+
+    public void setPauseBufferEnabled(Boolean pauseBufferEnabled) {
+        this.pauseBufferEnabled = pauseBufferEnabled;
+    }
+
+    public Integer getPauseBufferMemoryCapacity() {
+        return pauseBufferMemoryCapacity;
+    }
+
+    public void setPauseBufferMemoryCapacity(Integer pauseBufferMemoryCapacity) {
+        this.pauseBufferMemoryCapacity = pauseBufferMemoryCapacity;
+    }
+
+    public String getPauseBufferSpillDir() {
+        return pauseBufferSpillDir;
+    }
+
+    public void setPauseBufferSpillDir(String pauseBufferSpillDir) {
+        this.pauseBufferSpillDir = pauseBufferSpillDir;
+    }
+
+    public Long getPauseBufferMaxSpillEntries() {
+        return pauseBufferMaxSpillEntries;
+    }
+
+    public void setPauseBufferMaxSpillEntries(Long pauseBufferMaxSpillEntries) {
+        this.pauseBufferMaxSpillEntries = pauseBufferMaxSpillEntries;
+    }
+
+    public Integer getPauseReplayRatePerSecond() {
+        return pauseReplayRatePerSecond;
+    }
+
+    public void setPauseReplayRatePerSecond(Integer pauseReplayRatePerSecond) {
+        this.pauseReplayRatePerSecond = pauseReplayRatePerSecond;
+    }
+
+    public Integer getTraceStoreCapacity() {
+        return traceStoreCapacity;
+    }
+
+    public void setTraceStoreCapacity(Integer traceStoreCapacity) {
+        this.traceStoreCapacity = traceStoreCapacity;
+    }
+
+    public Long getTraceStoreTtlMs() {
+        return traceStoreTtlMs;
+    }
+
+    public void setTraceStoreTtlMs(Long traceStoreTtlMs) {
+        this.traceStoreTtlMs = traceStoreTtlMs;
+    }
+
+    public Double getTraceSampleRate() {
+        return traceSampleRate;
+    }
+
+    public void setTraceSampleRate(Double traceSampleRate) {
+        this.traceSampleRate = traceSampleRate;
+    }
+
+    public Boolean getTraceKeepErrors() {
+        return traceKeepErrors;
+    }
+
+    public void setTraceKeepErrors(Boolean traceKeepErrors) {
+        this.traceKeepErrors = traceKeepErrors;
+    }
+
+    public Long getTraceSlowThresholdMs() {
+        return traceSlowThresholdMs;
+    }
+
+    public void setTraceSlowThresholdMs(Long traceSlowThresholdMs) {
+        this.traceSlowThresholdMs = traceSlowThresholdMs;
+    }
+
+    public String getTracingExportFormat() {
+        return tracingExportFormat;
+    }
+
+    public void setTracingExportFormat(String tracingExportFormat) {
+        this.tracingExportFormat = tracingExportFormat;
+    }
+
+    public String getTracingExportEndpoint() {
+        return tracingExportEndpoint;
+    }
+
+    public void setTracingExportEndpoint(String tracingExportEndpoint) {
+        this.tracingExportEndpoint = tracingExportEndpoint;
+    }
+
+    public String getTracingServiceName() {
+        return tracingServiceName;
+    }
+
+    public void setTracingServiceName(String tracingServiceName) {
+        this.tracingServiceName = tracingServiceName;
+    }
+
+    public Integer getTracingExportQueueCapacity() {
+        return tracingExportQueueCapacity;
+    }
+
+    public void setTracingExportQueueCapacity(Integer tracingExportQueueCapacity) {
+        this.tracingExportQueueCapacity = tracingExportQueueCapacity;
+    }
+
+    public Integer getTracingExportBatchSize() {
+        return tracingExportBatchSize;
+    }
+
+    public void setTracingExportBatchSize(Integer tracingExportBatchSize) {
+        this.tracingExportBatchSize = tracingExportBatchSize;
+    }
+
+    public Long getTracingExportIntervalMs() {
+        return tracingExportIntervalMs;
+    }
+
+    public void setTracingExportIntervalMs(Long tracingExportIntervalMs) {
+        this.tracingExportIntervalMs = tracingExportIntervalMs;
+    }
+
+    public Boolean getMetricsExportEnabled() {
+        return metricsExportEnabled;
+    }
+
+    public void setMetricsExportEnabled(Boolean metricsExportEnabled) {
+        this.metricsExportEnabled = metricsExportEnabled;
+    }
+
+    public List<String> getMetricsEventTags() {
+        return metricsEventTags;
+    }
+
+    public void setMetricsEventTags(List<String> metricsEventTags) {
+        this.metricsEventTags = metricsEventTags;
+    }
+
+    public Integer getMetricsEventTagLimit() {
+        return metricsEventTagLimit;
+    }
+
+    public void setMetricsEventTagLimit(Integer metricsEventTagLimit) {
+        this.metricsEventTagLimit = metricsEventTagLimit;
+    }
+
+    public Boolean getMetricsHandlerTagsEnabled() {
+        return metricsHandlerTagsEnabled;
+    }
+
+    public void setMetricsHandlerTagsEnabled(Boolean metricsHandlerTagsEnabled) {
+        this.metricsHandlerTagsEnabled = metricsHandlerTagsEnabled;
+    }
+
+    public Long getMetricsRefreshIntervalMs() {
+        return metricsRefreshIntervalMs;
+    }
+
+    public void setMetricsRefreshIntervalMs(Long metricsRefreshIntervalMs) {
+        this.metricsRefreshIntervalMs = metricsRefreshIntervalMs;
+    }
+
+    public Map<String, EventProperties> getEvents() {
+        return events;
+    }
+
+    public void setEvents(Map<String, EventProperties> events) {
+        this.events = events;
+    }
+
+    public Boolean getLoadSheddingEnabled() {
+        return loadSheddingEnabled;
+    }
+
+    public void setLoadSheddingEnabled(Boolean loadSheddingEnabled) {
+        this.loadSheddingEnabled = loadSheddingEnabled;
+    }
+
+    public Long getLoadSheddingTargetDelayMs() {
+        return loadSheddingTargetDelayMs;
+    }
+
+    public void setLoadSheddingTargetDelayMs(Long loadSheddingTargetDelayMs) {
+        this.loadSheddingTargetDelayMs = loadSheddingTargetDelayMs;
+    }
+
+    public Long getLoadSheddingIntervalMs() {
+        return loadSheddingIntervalMs;
+    }
+
+    public void setLoadSheddingIntervalMs(Long loadSheddingIntervalMs) {
+        this.loadSheddingIntervalMs = loadSheddingIntervalMs;
+    }
+
+    public Double getLoadSheddingMaxActiveRatio() {
+        return loadSheddingMaxActiveRatio;
+    }
+
+    public void setLoadSheddingMaxActiveRatio(Double loadSheddingMaxActiveRatio) {
+        this.loadSheddingMaxActiveRatio = loadSheddingMaxActiveRatio;
+    }
 
     public Boolean getTransactionEnabled() {
         return transactionEnabled;
@@ -436,6 +932,45 @@ public class SignalProperties {
         public void setPropagationBehavior(Integer propagationBehavior) { this.propagationBehavior = propagationBehavior; }
     }
 
+    /**
+     * 单个事件的配置覆盖，未设置的字段保留事件当前配置
+     */
+    public static class EventProperties {
+        private Boolean async;
+        private Integer maxRetries;
+        private Long retryDelayMs;
+        private Long timeoutMs;
+        private SignalPriority priority;
+        private Boolean recordMetrics;
+        private Boolean hedgingEnabled;
+        private Boolean paused;
+
+        // Getters and Setters
+        public Boolean getAsync() { return async; }
+        public void setAsync(Boolean async) { this.async = async; }
+
+        public Integer getMaxRetries() { return maxRetries; }
+        public void setMaxRetries(Integer maxRetries) { this.maxRetries = maxRetries; }
+
+        public Long getRetryDelayMs() { return retryDelayMs; }
+        public void setRetryDelayMs(Long retryDelayMs) { this.retryDelayMs = retryDelayMs; }
+
+        public Long getTimeoutMs() { return timeoutMs; }
+        public void setTimeoutMs(Long timeoutMs) { this.timeoutMs = timeoutMs; }
+
+        public SignalPriority getPriority() { return priority; }
+        public void setPriority(SignalPriority priority) { this.priority = priority; }
+
+        public Boolean getRecordMetrics() { return recordMetrics; }
+        public void setRecordMetrics(Boolean recordMetrics) { this.recordMetrics = recordMetrics; }
+
+        public Boolean getHedgingEnabled() { return hedgingEnabled; }
+        public void setHedgingEnabled(Boolean hedgingEnabled) { this.hedgingEnabled = hedgingEnabled; }
+
+        public Boolean getPaused() { return paused; }
+        public void setPaused(Boolean paused) { this.paused = paused; }
+    }
+
     /**
      * 死信队列配置属性
      */
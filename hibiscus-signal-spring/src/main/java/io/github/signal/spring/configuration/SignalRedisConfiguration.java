@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import io.github.signal.core.persistent.RedisSignalPersistence;
+import io.github.signal.core.protection.RedisTokenLeaseStore;
+import io.github.signal.core.protection.TokenLeaseStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -120,4 +122,13 @@ public class SignalRedisConfiguration {
     public RedisSignalPersistence redisSignalPersistence() {
         return new RedisSignalPersistence(redisTemplate, signalProperties, objectMapper);
     }
+
+    /**
+     * 集群限流使用的令牌租约存储
+     */
+    @Bean
+    @ConditionalOnProperty(name = "hibiscus.redis-enabled", havingValue = "true", matchIfMissing = false)
+    public TokenLeaseStore redisTokenLeaseStore() {
+        return new RedisTokenLeaseStore(redisTemplate);
+    }
 }
@@ -0,0 +1,82 @@
+package io.github.signal.spring.metrics;
+
+import io.github.signal.core.TopicTrie;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides the {@code event} tag value of exported signal metrics, keeping the tag cardinality bounded.
+ * Purpose:
+ * - Only events matching one of the configured names or patterns are tagged individually (all events when
+ *   none are configured).
+ * - At most {@code limit} events are tagged individually, first come first served; the decision for an
+ *   event never changes, so a series does not move between tags.
+ * - Every other event is reported under {@link #OTHER}.
+ */
+public class EventTagPolicy {
+
+    /**
+     * Tag value of the events that are not tagged individually
+     */
+    public static final String OTHER = "other";
+
+    private final List<String> patterns;
+
+    private final int limit;
+
+    private final Set<String> admitted = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param patterns event names or topic patterns to tag individually, empty for all events
+     * @param limit    maximum number of individually tagged events
+     */
+    public EventTagPolicy(Collection<String> patterns, int limit) {
+        this.patterns = patterns != null ? new ArrayList<>(patterns) : new ArrayList<>();
+        this.limit = Math.max(0, limit);
+    }
+
+    /**
+     * Returns the tag value of an event: the event name, or {@link #OTHER}.
+     */
+    public String tagOf(String event) {
+        if (admitted.contains(event)) {
+            return event;
+        }
+        if (rejected.contains(event) || !matches(event)) {
+            return OTHER;
+        }
+        synchronized (this) {
+            if (admitted.contains(event)) {
+                return event;
+            }
+            if (admitted.size() >= limit) {
+                rejected.add(event);
+                return OTHER;
+            }
+            admitted.add(event);
+            return event;
+        }
+    }
+
+    public boolean isTagged(String event) {
+        return !OTHER.equals(tagOf(event));
+    }
+
+    private boolean matches(String event) {
+        if (patterns.isEmpty()) {
+            return true;
+        }
+        for (String pattern : patterns) {
+            if (pattern.equals(event) || (TopicTrie.isPattern(pattern) && TopicTrie.matches(pattern, event))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
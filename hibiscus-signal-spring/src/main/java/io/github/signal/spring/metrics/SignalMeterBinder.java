@@ -0,0 +1,253 @@
+package io.github.signal.spring.metrics;
+
+import io.github.signal.core.SignalMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds signal metrics to Micrometer meters.
+ * Purpose:
+ * - Every meter is a function of the existing counters and histograms ({@link FunctionCounter}, {@link Gauge},
+ *   {@link TimeGauge}), read when the registry is scraped or published; emits do no extra work.
+ * - Events show up after their first emit: a daemon thread binds new events every refresh interval and
+ *   removes the meters of events whose metrics were evicted.
+ * - The {@code event} tag is bounded by the {@link EventTagPolicy}; the counters of untagged events are
+ *   reported summed under {@code event="other"}, their latencies are not exported.
+ * - Per-handler latency ({@code handler} tag) is only exported when enabled; the meters of a handler are
+ *   removed on the next refresh once the handler is unregistered or reaped, or its histogram is evicted.
+ *
+ * <pre>
+ * hibiscus.signal.emits / errors / shed / processed / handlers.reaped   {event}
+ * hibiscus.signal.handlers                                             {event}
+ * hibiscus.signal.latency                                              {event, phase, quantile}
+ * hibiscus.signal.handler.latency                                      {event, handler, quantile}
+ * hibiscus.signal.breaker.state                                        {event}  0 closed, 1 open, 2 half open
+ * hibiscus.signal.executor.queue.size, hibiscus.signal.executor.active
+ * hibiscus.signal.dead.letter.size
+ * hibiscus.signal.persistence.pending, hibiscus.signal.persistence.lag
+ * </pre>
+ */
+public class SignalMeterBinder implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SignalMeterBinder.class);
+
+    private static final String PREFIX = "hibiscus.signal.";
+
+    private final SignalMeterSource source;
+
+    private final boolean handlerTags;
+
+    private final long refreshIntervalMs;
+
+    // 事件 -> 已注册的指标
+    private final Map<String, List<Meter>> bound = new ConcurrentHashMap<>();
+
+    // 事件 -> 处理器 ID -> 已注册的处理器延迟指标
+    private final Map<String, Map<Long, List<Meter>>> boundHandlers = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry registry;
+
+    private volatile ScheduledExecutorService refresher;
+
+    /**
+     * @param handlerTags       whether to export the latency of every handler
+     * @param refreshIntervalMs how often new events are bound, 0 binds only the events known at bind time
+     */
+    public SignalMeterBinder(SignalMeterSource source, boolean handlerTags, long refreshIntervalMs) {
+        this.source = source;
+        this.handlerTags = handlerTags;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        bindGlobal(registry);
+        refresh();
+        if (refreshIntervalMs > 0 && refresher == null) {
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "signal-metrics-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(() -> {
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    log.warn("Signal metrics refresh failed: {}", e.getMessage(), e);
+                }
+            }, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void bindGlobal(MeterRegistry registry) {
+        for (SignalMeterSource.Counter counter : SignalMeterSource.Counter.values()) {
+            FunctionCounter.builder(PREFIX + counter.getName(), source, s -> s.countOther(counter))
+                    .description(counter.getDescription())
+                    .tag("event", EventTagPolicy.OTHER)
+                    .register(registry);
+        }
+        if (source.hasExecutorStats()) {
+            Gauge.builder(PREFIX + "executor.queue.size", source, SignalMeterSource::executorQueueSize)
+                    .description("Tasks waiting in the signal executor queue")
+                    .register(registry);
+            Gauge.builder(PREFIX + "executor.active", source, SignalMeterSource::executorActiveCount)
+                    .description("Signal executor threads running a task")
+                    .register(registry);
+        }
+        if (source.hasDeadLetterQueue()) {
+            Gauge.builder(PREFIX + "dead.letter.size", source, SignalMeterSource::deadLetterQueueSize)
+                    .description("Events in the dead letter queue")
+                    .register(registry);
+        }
+        if (source.hasPersistence()) {
+            Gauge.builder(PREFIX + "persistence.pending", source, SignalMeterSource::persistencePending)
+                    .description("Asynchronous persistence saves not yet completed")
+                    .register(registry);
+            TimeGauge.builder(PREFIX + "persistence.lag", source, TimeUnit.MILLISECONDS, SignalMeterSource::persistenceLagMs)
+                    .description("Time from submit to completion of the last asynchronous save")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Binds the events that appeared since the last refresh and removes the meters of events that are gone.
+     */
+    public synchronized void refresh() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            return;
+        }
+        SignalMetrics metrics = source.getMetrics();
+        Set<String> events = metrics.getEventNames();
+        for (String event : events) {
+            if (!source.getTagPolicy().isTagged(event)) {
+                continue;
+            }
+            List<Meter> meters = bound.get(event);
+            if (meters == null) {
+                meters = new ArrayList<>();
+                bindEvent(current, event, meters);
+                bound.put(event, meters);
+            }
+            if (!bound.containsKey(breakerKey(event)) && source.breakerState(event) >= 0) {
+                List<Meter> breaker = new ArrayList<>();
+                breaker.add(Gauge.builder(PREFIX + "breaker.state", source, s -> s.breakerState(event))
+                        .description("Circuit breaker state: 0 closed, 1 open, 2 half open")
+                        .tag("event", event)
+                        .register(current));
+                bound.put(breakerKey(event), breaker);
+            }
+            if (handlerTags) {
+                bindHandlers(current, event);
+            }
+        }
+        for (String key : new HashSet<>(bound.keySet())) {
+            String event = key.startsWith("breaker:") ? key.substring("breaker:".length()) : key;
+            if (!events.contains(event)) {
+                remove(current, key);
+            }
+        }
+    }
+
+    private void bindEvent(MeterRegistry registry, String event, List<Meter> meters) {
+        for (SignalMeterSource.Counter counter : SignalMeterSource.Counter.values()) {
+            meters.add(FunctionCounter.builder(PREFIX + counter.getName(), source, s -> s.count(counter, event))
+                    .description(counter.getDescription())
+                    .tag("event", event)
+                    .register(registry));
+        }
+        meters.add(Gauge.builder(PREFIX + "handlers", source, s -> s.handlers(event))
+                .description("Live handlers")
+                .tag("event", event)
+                .register(registry));
+        for (SignalMetrics.Phase phase : SignalMetrics.Phase.values()) {
+            for (double quantile : SignalMeterSource.QUANTILES) {
+                meters.add(TimeGauge.builder(PREFIX + "latency", source, TimeUnit.NANOSECONDS,
+                                s -> s.latencyQuantileNanos(event, phase, quantile))
+                        .description("Signal latency by phase")
+                        .tag("event", event)
+                        .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                        .tag("quantile", String.valueOf(quantile))
+                        .register(registry));
+            }
+        }
+    }
+
+    /**
+     * Binds the handlers that appeared and removes the meters of handlers whose histogram is gone.
+     */
+    private void bindHandlers(MeterRegistry registry, String event) {
+        Set<Long> handlerIds = source.handlerHistograms(event).keySet();
+        Map<Long, List<Meter>> handlers = boundHandlers.computeIfAbsent(event, k -> new ConcurrentHashMap<>());
+        for (Long handlerId : new HashSet<>(handlers.keySet())) {
+            if (!handlerIds.contains(handlerId)) {
+                removeMeters(registry, handlers.remove(handlerId));
+            }
+        }
+        for (Long handlerId : handlerIds) {
+            if (handlers.containsKey(handlerId)) {
+                continue;
+            }
+            List<Meter> meters = new ArrayList<>();
+            handlers.put(handlerId, meters);
+            for (double quantile : SignalMeterSource.QUANTILES) {
+                meters.add(TimeGauge.builder(PREFIX + "handler.latency", source, TimeUnit.NANOSECONDS,
+                                s -> s.handlerLatencyQuantileNanos(event, handlerId, quantile))
+                        .description("Handler execution latency")
+                        .tag("event", event)
+                        .tag("handler", String.valueOf(handlerId))
+                        .tag("quantile", String.valueOf(quantile))
+                        .register(registry));
+            }
+        }
+    }
+
+    private void remove(MeterRegistry registry, String key) {
+        removeMeters(registry, bound.remove(key));
+        Map<Long, List<Meter>> handlers = boundHandlers.remove(key);
+        if (handlers != null) {
+            for (List<Meter> meters : handlers.values()) {
+                removeMeters(registry, meters);
+            }
+        }
+    }
+
+    private static void removeMeters(MeterRegistry registry, List<Meter> meters) {
+        if (meters == null) {
+            return;
+        }
+        for (Meter meter : meters) {
+            registry.remove(meter);
+        }
+    }
+
+    private static String breakerKey(String event) {
+        return "breaker:" + event;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package io.github.signal.spring.metrics;
+
+import io.github.signal.core.CircuitBreaker;
+import io.github.signal.core.LatencyHistogram;
+import io.github.signal.core.SignalMetrics;
+import io.github.signal.core.Signals;
+import io.github.signal.core.model.Sig;
+import io.github.signal.core.persistent.UnifiedSignalPersistence;
+import io.github.signal.core.tractional.DeadLetterQueueManager;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Reads the values exported by {@link SignalMeterBinder} and {@link SignalPrometheusFormatter}.
+ * Purpose:
+ * - Everything is read on demand from the existing counters and histograms, so exporting adds no work to
+ *   the emit path.
+ * - Counters of the events reported under {@link EventTagPolicy#OTHER} are summed on read.
+ * - Latency snapshots are reused for a second, so the quantile gauges of one scrape share one snapshot.
+ */
+public class SignalMeterSource {
+
+    /**
+     * Quantiles exported for every latency histogram
+     */
+    static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final long SNAPSHOT_REUSE_MS = 1000L;
+
+    /**
+     * The per-event counters
+     */
+    public enum Counter {
+        EMITS("emits", "Signals emitted", SignalMetrics::getEmitCount),
+        ERRORS("errors", "Signal handler errors", SignalMetrics::getErrorCount),
+        SHED("shed", "Signals shed by load shedding", SignalMetrics::getShedCount),
+        PROCESSED("processed", "Signals processed by handlers", SignalMetrics::getProcessedCount),
+        REAPED("handlers.reaped", "Expired handlers removed", SignalMetrics::getReapedCount);
+
+        private final String name;
+        private final String description;
+        private final ToLongBiFunction<SignalMetrics, String> reader;
+
+        Counter(String name, String description, ToLongBiFunction<SignalMetrics, String> reader) {
+            this.name = name;
+            this.description = description;
+            this.reader = reader;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final Signals<?, ?> signals;
+    private final ExecutorService executor;
+    private final UnifiedSignalPersistence<?, ?> persistence;
+    private final EventTagPolicy tagPolicy;
+
+    private final Map<LatencyHistogram, CachedSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor    the signal executor, queue metrics are exported when it is a {@link ThreadPoolExecutor}
+     * @param persistence the persistence manager, may be null
+     */
+    public SignalMeterSource(Signals<?, ?> signals, ExecutorService executor,
+                             UnifiedSignalPersistence<?, ?> persistence, EventTagPolicy tagPolicy) {
+        this.signals = signals;
+        this.executor = executor;
+        this.persistence = persistence;
+        this.tagPolicy = tagPolicy;
+    }
+
+    public SignalMetrics getMetrics() {
+        return signals.getMetrics();
+    }
+
+    public EventTagPolicy getTagPolicy() {
+        return tagPolicy;
+    }
+
+    public long count(Counter counter, String event) {
+        return counter.reader.applyAsLong(signals.getMetrics(), event);
+    }
+
+    /**
+     * Sums a counter over the events reported under {@link EventTagPolicy#OTHER}.
+     */
+    public long countOther(Counter counter) {
+        SignalMetrics metrics = signals.getMetrics();
+        long sum = 0;
+        for (String event : metrics.getEventNames()) {
+            if (!tagPolicy.isTagged(event)) {
+                sum += counter.reader.applyAsLong(metrics, event);
+            }
+        }
+        return sum;
+    }
+
+    public long handlers(String event) {
+        return signals.getMetrics().getLiveHandlerCount(event);
+    }
+
+    /**
+     * Returns a recent snapshot of a histogram, reused for {@value #SNAPSHOT_REUSE_MS}ms.
+     *
+     * @return the snapshot, null if the histogram is null
+     */
+    public LatencyHistogram.Snapshot snapshot(LatencyHistogram histogram) {
+        if (histogram == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        CachedSnapshot cached = snapshots.get(histogram);
+        if (cached == null || now - cached.takenAt > SNAPSHOT_REUSE_MS) {
+            if (cached == null && snapshots.size() >= 10000) {
+                snapshots.clear();
+            }
+            cached = new CachedSnapshot(histogram.snapshot(), now);
+            snapshots.put(histogram, cached);
+        }
+        return cached.snapshot;
+    }
+
+    public double latencyQuantileNanos(String event, SignalMetrics.Phase phase, double quantile) {
+        LatencyHistogram.Snapshot snapshot = snapshot(signals.getMetrics().getLatencyHistogram(event, phase));
+        return snapshot != null ? snapshot.getValueAtPercentile(quantile * 100.0) : 0.0;
+    }
+
+    /**
+     * Returns the latency histograms of the handlers still registered for an event; histograms of handlers
+     * that were unregistered or reaped are left out until they are evicted from the metrics.
+     */
+    public Map<Long, LatencyHistogram> handlerHistograms(String event) {
+        Map<Long, LatencyHistogram> histograms = signals.getMetrics().getHandlerLatencyHistograms(event);
+        if (histograms.isEmpty()) {
+            return histograms;
+        }
+        Set<Long> live = new HashSet<>();
+        for (Sig<?, ?> sig : signals.getHandlers(event)) {
+            live.add(sig.getId());
+        }
+        histograms.keySet().retainAll(live);
+        return histograms;
+    }
+
+    public double handlerLatencyQuantileNanos(String event, Long handlerId, double quantile) {
+        LatencyHistogram.Snapshot snapshot = snapshot(signals.getMetrics().getHandlerLatencyHistograms(event).get(handlerId));
+        return snapshot != null ? snapshot.getValueAtPercentile(quantile * 100.0) : 0.0;
+    }
+
+    /**
+     * Returns the breaker state of an event: 0 closed, 1 open, 2 half open.
+     *
+     * @return the state code, -1 if the event has no circuit breaker
+     */
+    public int breakerState(String event) {
+        CircuitBreaker breaker = signals.getProtectionManager().getCircuitBreaker(event);
+        if (breaker == null) {
+            return -1;
+        }
+        switch (breaker.getState()) {
+            case OPEN:
+                return 1;
+            case HALF_OPEN:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    public boolean hasExecutorStats() {
+        return executor instanceof ThreadPoolExecutor;
+    }
+
+    public int executorQueueSize() {
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+    }
+
+    public int executorActiveCount() {
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getActiveCount() : 0;
+    }
+
+    public boolean hasDeadLetterQueue() {
+        return signals.getDeadLetterQueueManager() != null;
+    }
+
+    public int deadLetterQueueSize() {
+        DeadLetterQueueManager<?, ?> manager = signals.getDeadLetterQueueManager();
+        return manager != null ? manager.getQueueSize() : 0;
+    }
+
+    public boolean hasPersistence() {
+        return persistence != null;
+    }
+
+    public int persistencePending() {
+        return persistence != null ? persistence.getPendingSaveCount() : 0;
+    }
+
+    public long persistenceLagMs() {
+        return persistence != null ? persistence.getLastSaveLagMs() : 0L;
+    }
+
+    private static final class CachedSnapshot {
+        private final LatencyHistogram.Snapshot snapshot;
+        private final long takenAt;
+
+        private CachedSnapshot(LatencyHistogram.Snapshot snapshot, long takenAt) {
+            this.snapshot = snapshot;
+            this.takenAt = takenAt;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.signal.spring.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+/**
+ * Actuator endpoint serving signal metrics in the Prometheus text format at {@code /actuator/signalprometheus}.
+ * Expose it with {@code management.endpoints.web.exposure.include=signalprometheus}.
+ */
+@WebEndpoint(id = "signalprometheus")
+public class SignalPrometheusEndpoint {
+
+    private final SignalPrometheusFormatter formatter;
+
+    public SignalPrometheusEndpoint(SignalPrometheusFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    @ReadOperation(produces = SignalPrometheusFormatter.CONTENT_TYPE)
+    public String scrape() {
+        return formatter.scrape();
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.signal.spring.metrics;
+
+import io.github.signal.core.LatencyHistogram;
+import io.github.signal.core.SignalMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders signal metrics in the Prometheus text exposition format (version 0.0.4).
+ * Purpose:
+ * - Works without Micrometer: applications that do not run a Prometheus registry can still be scraped,
+ *   e.g. through the {@code signalprometheus} actuator endpoint.
+ * - Uses the same {@link EventTagPolicy} as {@link SignalMeterBinder}, so both exports have the same series.
+ * - Latencies are rendered as summaries (quantiles, count and sum) in seconds.
+ */
+public class SignalPrometheusFormatter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PREFIX = "hibiscus_signal_";
+
+    private final SignalMeterSource source;
+
+    private final boolean handlerTags;
+
+    public SignalPrometheusFormatter(SignalMeterSource source, boolean handlerTags) {
+        this.source = source;
+        this.handlerTags = handlerTags;
+    }
+
+    /**
+     * Renders every signal metric.
+     */
+    public String scrape() {
+        SignalMetrics metrics = source.getMetrics();
+        List<String> events = new ArrayList<>();
+        for (String event : metrics.getEventNames()) {
+            if (source.getTagPolicy().isTagged(event)) {
+                events.add(event);
+            }
+        }
+        Collections.sort(events);
+        StringBuilder out = new StringBuilder(4096);
+
+        for (SignalMeterSource.Counter counter : SignalMeterSource.Counter.values()) {
+            String name = PREFIX + counter.getName().replace('.', '_') + "_total";
+            header(out, name, counter.getDescription(), "counter");
+            for (String event : events) {
+                sample(out, name, label("event", event), source.count(counter, event));
+            }
+            sample(out, name, label("event", EventTagPolicy.OTHER), source.countOther(counter));
+        }
+
+        header(out, PREFIX + "handlers", "Live handlers", "gauge");
+        for (String event : events) {
+            sample(out, PREFIX + "handlers", label("event", event), source.handlers(event));
+        }
+
+        String latency = PREFIX + "latency_seconds";
+        header(out, latency, "Signal latency by phase", "summary");
+        for (String event : events) {
+            for (SignalMetrics.Phase phase : SignalMetrics.Phase.values()) {
+                LatencyHistogram.Snapshot snapshot = source.snapshot(metrics.getLatencyHistogram(event, phase));
+                if (snapshot != null) {
+                    summary(out, latency, label("event", event) + "," + label("phase", phase.name().toLowerCase(Locale.ROOT)), snapshot);
+                }
+            }
+        }
+
+        if (handlerTags) {
+            String handlerLatency = PREFIX + "handler_latency_seconds";
+            header(out, handlerLatency, "Handler execution latency", "summary");
+            for (String event : events) {
+                for (Map.Entry<Long, LatencyHistogram> entry : source.handlerHistograms(event).entrySet()) {
+                    summary(out, handlerLatency, label("event", event) + "," + label("handler", String.valueOf(entry.getKey())),
+                            source.snapshot(entry.getValue()));
+                }
+            }
+        }
+
+        header(out, PREFIX + "breaker_state", "Circuit breaker state: 0 closed, 1 open, 2 half open", "gauge");
+        for (String event : events) {
+            int state = source.breakerState(event);
+            if (state >= 0) {
+                sample(out, PREFIX + "breaker_state", label("event", event), state);
+            }
+        }
+
+        if (source.hasExecutorStats()) {
+            gauge(out, PREFIX + "executor_queue_size", "Tasks waiting in the signal executor queue", source.executorQueueSize());
+            gauge(out, PREFIX + "executor_active", "Signal executor threads running a task", source.executorActiveCount());
+        }
+        if (source.hasDeadLetterQueue()) {
+            gauge(out, PREFIX + "dead_letter_size", "Events in the dead letter queue", source.deadLetterQueueSize());
+        }
+        if (source.hasPersistence()) {
+            gauge(out, PREFIX + "persistence_pending", "Asynchronous persistence saves not yet completed", source.persistencePending());
+            gauge(out, PREFIX + "persistence_lag_seconds", "Time from submit to completion of the last asynchronous save",
+                    source.persistenceLagMs() / 1000.0);
+        }
+        return out.toString();
+    }
+
+    private static void summary(StringBuilder out, String name, String labels, LatencyHistogram.Snapshot snapshot) {
+        for (double quantile : SignalMeterSource.QUANTILES) {
+            sample(out, name, labels + "," + label("quantile", String.valueOf(quantile)),
+                    snapshot.getValueAtPercentile(quantile * 100.0) / 1e9);
+        }
+        sample(out, name + "_count", labels, snapshot.getCount());
+        sample(out, name + "_sum", labels, snapshot.getSum() / 1e9);
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        header(out, name, help, "gauge");
+        sample(out, name, null, value);
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String label(String name, String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                escaped.append('\\').append(c);
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else {
+                escaped.append(c);
+            }
+        }
+        return name + "=\"" + escaped + "\"";
+    }
+}